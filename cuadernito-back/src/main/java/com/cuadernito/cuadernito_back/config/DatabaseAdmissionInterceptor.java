@@ -0,0 +1,105 @@
+package com.cuadernito.cuadernito_back.config;
+
+import com.cuadernito.cuadernito_back.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Con hilos virtuales Tomcat deja de limitar cuántos requests corren a la vez, y todos terminarían esperando
+ * una conexión de Hikari hasta su connection-timeout. Este interceptor admite tantos requests como conexiones
+ * hay en el pool (con open-in-view cada request conserva su conexión hasta terminar, salvo los de /api/v1/auth),
+ * deja esperar a una cola acotada y rechaza el resto con 503. Los filtros que usan la base antes del handler
+ * (Idempotency-Key) toman el permiso con {@link #admit} y el handler lo comparte, así un request nunca ocupa dos.
+ */
+public class DatabaseAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = DatabaseAdmissionInterceptor.class.getName() + ".permit";
+    private static final String HANDLER_PERMIT_ATTRIBUTE = DatabaseAdmissionInterceptor.class.getName() + ".handlerPermit";
+    private static final String SATURATED_MESSAGE = "El servidor está saturado, intente nuevamente en unos segundos";
+
+    private final Semaphore permits;
+    private final int queueCapacity;
+    private final long waitTimeoutMs;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Counter rejectedCounter;
+
+    public DatabaseAdmissionInterceptor(int permits, int queueCapacity, long waitTimeoutMs, MeterRegistry meterRegistry) {
+        this.permits = new Semaphore(permits, true);
+        this.queueCapacity = queueCapacity;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.rejectedCounter = Counter.builder("cuadernito.db.admission.rejected")
+                .description("Requests rechazados por cola llena o timeout esperando una conexión")
+                .register(meterRegistry);
+        Gauge.builder("cuadernito.db.admission.waiting", waiting, AtomicInteger::get)
+                .description("Requests esperando turno para usar la base")
+                .register(meterRegistry);
+        Gauge.builder("cuadernito.db.admission.active", this.permits, s -> permits - s.availablePermits())
+                .description("Requests admitidos en curso")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (admit(request)) {
+            request.setAttribute(HANDLER_PERMIT_ATTRIBUTE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(HANDLER_PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(HANDLER_PERMIT_ATTRIBUTE);
+            release(request);
+        }
+    }
+
+    /**
+     * Toma un permiso para el request, salvo que ya tenga uno. Devuelve si lo tomó esta llamada: quien lo toma
+     * lo libera con {@link #release}.
+     */
+    public boolean admit(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return false;
+        }
+        if (!permits.tryAcquire()) {
+            acquireQueued();
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    public void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.release();
+        }
+    }
+
+    private void acquireQueued() {
+        if (waiting.incrementAndGet() > queueCapacity) {
+            waiting.decrementAndGet();
+            rejectedCounter.increment();
+            throw new ServiceUnavailableException(SATURATED_MESSAGE);
+        }
+        try {
+            if (!permits.tryAcquire(waitTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejectedCounter.increment();
+                throw new ServiceUnavailableException(SATURATED_MESSAGE);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException(SATURATED_MESSAGE);
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+}
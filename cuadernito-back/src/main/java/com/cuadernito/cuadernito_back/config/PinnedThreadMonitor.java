@@ -0,0 +1,87 @@
+package com.cuadernito.cuadernito_back.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Escucha el evento JFR jdk.VirtualThreadPinned: un hilo virtual que bloquea dentro de un bloque
+ * synchronized (o de un frame nativo) retiene su carrier y reduce el paralelismo real. Cada pila distinta
+ * se loguea una vez con el primer frame de la aplicación o de la librería responsable, y todas se cuentan
+ * en la métrica cuadernito.virtual.pinned.
+ */
+public class PinnedThreadMonitor implements InitializingBean, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final String EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 25;
+    private static final int MAX_LOGGED_STACKS = 200;
+
+    private final Duration threshold;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> loggedStacks = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public PinnedThreadMonitor(Duration threshold, MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        stream = new RecordingStream();
+        stream.enable(EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Monitor de hilos virtuales anclados activo (umbral {} ms)", threshold.toMillis());
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String culprit = frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .map(PinnedThreadMonitor::describe)
+                .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+                .findFirst()
+                .orElse("desconocido");
+        Counter.builder("cuadernito.virtual.pinned")
+                .description("Hilos virtuales que bloquearon anclados a su carrier")
+                .tag("frame", culprit)
+                .register(meterRegistry)
+                .increment();
+
+        String stack = frames.stream()
+                .limit(LOGGED_FRAMES)
+                .map(frame -> "\tat " + describe(frame) + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+        if (loggedStacks.size() < MAX_LOGGED_STACKS && loggedStacks.add(stack)) {
+            log.warn("Hilo virtual anclado {} ms en {}\n{}", event.getDuration().toMillis(), culprit, stack);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+
+    @Override
+    public void destroy() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+}
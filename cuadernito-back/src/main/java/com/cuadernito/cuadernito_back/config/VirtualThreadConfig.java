@@ -0,0 +1,65 @@
+package com.cuadernito.cuadernito_back.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Beans que solo aplican con spring.threads.virtual.enabled=true (perfil "virtual"). Boot ya pasa a hilos
+ * virtuales Tomcat, el scheduler y el executor de tareas; acá se agrega el límite de admisión contra el pool
+ * de conexiones y el monitor de pinning. El pool de BCrypt sigue con hilos de plataforma: es trabajo de CPU.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public DatabaseAdmissionInterceptor databaseAdmissionInterceptor(
+            DataSource dataSource,
+            @Value("${virtual-threads.db-admission.permits:0}") int permits,
+            @Value("${virtual-threads.db-admission.queue-capacity:2000}") int queueCapacity,
+            @Value("${virtual-threads.db-admission.wait-timeout-ms:5000}") long waitTimeoutMs,
+            MeterRegistry meterRegistry
+    ) {
+        int effectivePermits = permits > 0 ? permits : poolSizeOf(dataSource);
+        return new DatabaseAdmissionInterceptor(effectivePermits, queueCapacity, waitTimeoutMs, meterRegistry);
+    }
+
+    @Bean
+    public WebMvcConfigurer databaseAdmissionConfigurer(DatabaseAdmissionInterceptor interceptor) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor)
+                        .addPathPatterns("/api/**")
+                        .excludePathPatterns("/api/v1/health/**");
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+    public PinnedThreadMonitor pinnedThreadMonitor(
+            @Value("${virtual-threads.pinning.threshold-ms:20}") long thresholdMs,
+            MeterRegistry meterRegistry
+    ) {
+        return new PinnedThreadMonitor(Duration.ofMillis(thresholdMs), meterRegistry);
+    }
+
+    private int poolSizeOf(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return 10;
+    }
+}
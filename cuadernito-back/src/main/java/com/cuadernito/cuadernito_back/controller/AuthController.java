@@ -6,8 +6,10 @@ import com.cuadernito.cuadernito_back.service.AuthService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -24,11 +26,28 @@ public class AuthController {
 
     @PostMapping("/login")
     @Operation(summary = "Iniciar sesión", description = "Autentica un usuario y devuelve un token JWT")
-    public ResponseEntity<JwtResponse> login(@Valid @RequestBody LoginRequest loginRequest) {
-        JwtResponse response = authService.login(loginRequest);
+    public ResponseEntity<JwtResponse> login(
+            @Valid @RequestBody LoginRequest loginRequest,
+            @Parameter(hidden = true) HttpServletRequest request) {
+        JwtResponse response = authService.login(loginRequest, request.getRemoteAddr());
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/refresh")
+    @Operation(summary = "Renovar token", description = "Entrega un nuevo par de tokens a partir de un refresh token válido; el anterior queda invalidado")
+    public ResponseEntity<JwtResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+        return ResponseEntity.ok(authService.refresh(request));
+    }
+
+    @PostMapping("/logout")
+    @Operation(summary = "Cerrar sesión", description = "Revoca el token de acceso actual y, si se envía, el refresh token")
+    public ResponseEntity<Void> logout(
+            @RequestBody(required = false) LogoutRequest request,
+            @Parameter(hidden = true) @RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        authService.logout(authorization.substring("Bearer ".length()), request);
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Registrar usuario", description = "Registra un nuevo usuario (solo ADMIN)")
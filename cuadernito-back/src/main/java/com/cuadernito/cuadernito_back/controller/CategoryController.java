@@ -2,6 +2,7 @@ package com.cuadernito.cuadernito_back.controller;
 
 import com.cuadernito.cuadernito_back.dto.CategoryDTO;
 import com.cuadernito.cuadernito_back.dto.CreateCategoryRequest;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 import com.cuadernito.cuadernito_back.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,7 +11,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,10 +28,9 @@ public class CategoryController {
     @Operation(summary = "Crear categoría", description = "Crea una nueva categoría. Solo envíe el nombre; id y userId se devuelven en el response.")
     public ResponseEntity<CategoryDTO> createCategory(
             @Valid @RequestBody CreateCategoryRequest request,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
         CategoryDTO dto = CategoryDTO.builder().name(request.getName()).build();
-        CategoryDTO created = categoryService.createCategory(dto, email);
+        CategoryDTO created = categoryService.createCategory(dto, currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
@@ -38,18 +38,16 @@ public class CategoryController {
     @Operation(summary = "Obtener categoría por ID", description = "Obtiene una categoría específica del usuario autenticado")
     public ResponseEntity<CategoryDTO> getCategoryById(
             @PathVariable Long id,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        CategoryDTO category = categoryService.getCategoryById(id, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        CategoryDTO category = categoryService.getCategoryById(id, currentUser);
         return ResponseEntity.ok(category);
     }
 
     @GetMapping
     @Operation(summary = "Listar categorías", description = "Obtiene todas las categorías del usuario autenticado")
     public ResponseEntity<List<CategoryDTO>> getAllCategories(
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        List<CategoryDTO> categories = categoryService.getAllCategoriesByUser(email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        List<CategoryDTO> categories = categoryService.getAllCategoriesByUser(currentUser);
         return ResponseEntity.ok(categories);
     }
 
@@ -58,9 +56,8 @@ public class CategoryController {
     public ResponseEntity<CategoryDTO> updateCategory(
             @PathVariable Long id,
             @Valid @RequestBody CategoryDTO categoryDTO,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        CategoryDTO updated = categoryService.updateCategory(id, categoryDTO, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        CategoryDTO updated = categoryService.updateCategory(id, categoryDTO, currentUser);
         return ResponseEntity.ok(updated);
     }
 }
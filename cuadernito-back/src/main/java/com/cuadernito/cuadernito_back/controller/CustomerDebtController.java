@@ -1,7 +1,9 @@
 package com.cuadernito.cuadernito_back.controller;
 
 import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.dto.DebtPaymentPageDTO;
 import com.cuadernito.cuadernito_back.dto.RegisterPaymentRequest;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 import com.cuadernito.cuadernito_back.service.CustomerDebtService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -10,7 +12,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -27,9 +29,8 @@ public class CustomerDebtController {
     @Operation(summary = "Crear deuda de cliente", description = "Registra una nueva deuda de cliente (fiado)")
     public ResponseEntity<CustomerDebtDTO> createCustomerDebt(
             @Valid @RequestBody CustomerDebtDTO customerDebtDTO,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        CustomerDebtDTO created = customerDebtService.createCustomerDebt(customerDebtDTO, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        CustomerDebtDTO created = customerDebtService.createCustomerDebt(customerDebtDTO, currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
@@ -37,18 +38,16 @@ public class CustomerDebtController {
     @Operation(summary = "Obtener deuda por ID", description = "Obtiene una deuda específica del usuario autenticado")
     public ResponseEntity<CustomerDebtDTO> getCustomerDebtById(
             @PathVariable Long id,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        CustomerDebtDTO customerDebt = customerDebtService.getCustomerDebtById(id, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        CustomerDebtDTO customerDebt = customerDebtService.getCustomerDebtById(id, currentUser);
         return ResponseEntity.ok(customerDebt);
     }
 
     @GetMapping
     @Operation(summary = "Listar deudas", description = "Obtiene todas las deudas de clientes del usuario autenticado")
     public ResponseEntity<List<CustomerDebtDTO>> getAllCustomerDebts(
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        List<CustomerDebtDTO> customerDebts = customerDebtService.getAllCustomerDebtsByUser(email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        List<CustomerDebtDTO> customerDebts = customerDebtService.getAllCustomerDebtsByUser(currentUser);
         return ResponseEntity.ok(customerDebts);
     }
 
@@ -57,9 +56,8 @@ public class CustomerDebtController {
     public ResponseEntity<CustomerDebtDTO> updateCustomerDebt(
             @PathVariable Long id,
             @Valid @RequestBody CustomerDebtDTO customerDebtDTO,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        CustomerDebtDTO updated = customerDebtService.updateCustomerDebt(id, customerDebtDTO, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        CustomerDebtDTO updated = customerDebtService.updateCustomerDebt(id, customerDebtDTO, currentUser);
         return ResponseEntity.ok(updated);
     }
 
@@ -68,19 +66,27 @@ public class CustomerDebtController {
     public ResponseEntity<CustomerDebtDTO> registerPayment(
             @PathVariable Long id,
             @Valid @RequestBody RegisterPaymentRequest request,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        CustomerDebtDTO updated = customerDebtService.registerPayment(id, request.getAmount(), email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        CustomerDebtDTO updated = customerDebtService.registerPayment(id, request.getAmount(), currentUser);
         return ResponseEntity.ok(updated);
     }
 
+    @GetMapping("/{id}/payments")
+    @Operation(summary = "Historial de pagos", description = "Pagos registrados sobre la deuda, del más reciente al más antiguo, paginados por cursor")
+    public ResponseEntity<DebtPaymentPageDTO> getPayments(
+            @PathVariable Long id,
+            @Parameter(description = "Cursor devuelto en nextCursor por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (por defecto 20, máximo 100)") @RequestParam(required = false) Integer size,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(customerDebtService.getPayments(id, currentUser, cursor, size));
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Eliminar deuda", description = "Elimina una deuda del usuario autenticado")
     public ResponseEntity<Void> deleteCustomerDebt(
             @PathVariable Long id,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        customerDebtService.deleteCustomerDebt(id, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        customerDebtService.deleteCustomerDebt(id, currentUser);
         return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,65 @@
+package com.cuadernito.cuadernito_back.controller;
+
+import com.cuadernito.cuadernito_back.dto.CashCloseDTO;
+import com.cuadernito.cuadernito_back.dto.CategoryReportDTO;
+import com.cuadernito.cuadernito_back.dto.PeriodReportDTO;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.ReportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/reports")
+@Tag(name = "Reportes", description = "Totales agregados por categoría y por período, y cierre de caja diario")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @GetMapping("/categories")
+    @Operation(summary = "Totales por categoría", description = "Suma de items por categoría y tipo en el rango (por defecto, el mes en curso)")
+    public ResponseEntity<List<CategoryReportDTO>> getTotalsByCategory(
+            @Parameter(description = "Fecha desde (yyyy-MM-dd), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha hasta (yyyy-MM-dd), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "INGRESO o GASTO; si se omite, ambos") @RequestParam(required = false) String type,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(reportService.getTotalsByCategory(currentUser, from, to, type));
+    }
+
+    @GetMapping("/periods")
+    @Operation(summary = "Ingresos vs gastos por período", description = "Totales por día, semana o mes en el rango (por defecto, el mes en curso). Solo se devuelven períodos con movimientos.")
+    public ResponseEntity<List<PeriodReportDTO>> getTotalsByPeriod(
+            @Parameter(description = "Fecha desde (yyyy-MM-dd), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha hasta (yyyy-MM-dd), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(description = "day, week o month") @RequestParam(defaultValue = "day") String granularity,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(reportService.getTotalsByPeriod(currentUser, from, to, granularity));
+    }
+
+    @GetMapping("/cash-close")
+    @Operation(summary = "Cierre de caja por día", description = "Ingresos, gastos, fiado y cobros de cada día con movimientos en el rango (por defecto, el mes en curso), con el saldo de caja acumulado")
+    public ResponseEntity<List<CashCloseDTO>> getCashClose(
+            @Parameter(description = "Fecha desde (yyyy-MM-dd), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha hasta (yyyy-MM-dd), inclusive") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        return ResponseEntity.ok(reportService.getCashClose(currentUser, from, to));
+    }
+
+    @PostMapping("/daily-summary/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Recalcular resúmenes diarios", description = "Reconstruye ingresos, gastos y fiado de daily_summary a partir de las transacciones de todos los usuarios (solo ADMIN)")
+    public ResponseEntity<Map<String, Integer>> rebuildDailySummaries() {
+        return ResponseEntity.ok(Map.of("users", reportService.rebuildDailySummaries()));
+    }
+}
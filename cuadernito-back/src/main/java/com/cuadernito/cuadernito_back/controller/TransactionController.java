@@ -1,20 +1,35 @@
 package com.cuadernito.cuadernito_back.controller;
 
 import com.cuadernito.cuadernito_back.dto.CreateTransactionRequest;
+import com.cuadernito.cuadernito_back.dto.ImportResultDTO;
 import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionPageDTO;
 import com.cuadernito.cuadernito_back.dto.UpdateTransactionRequest;
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.TransactionExportService;
+import com.cuadernito.cuadernito_back.service.TransactionExportService.ExportFormat;
 import com.cuadernito.cuadernito_back.service.TransactionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -24,46 +39,75 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private TransactionExportService transactionExportService;
+
     @PostMapping
     @Operation(summary = "Crear transacción", description = "Crea una nueva transacción. Solo envíe los campos que debe llenar; id, userId, createdAt se devuelven en el response. amount se calcula de items.")
     public ResponseEntity<TransactionDTO> createTransaction(
             @Valid @RequestBody CreateTransactionRequest request,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        TransactionDTO dto = TransactionDTO.builder()
-                .description(request.getDescription())
-                .type(request.getType())
-                .date(request.getDate())
-                .items(request.getItems())
-                .esFiado(request.getEsFiado())
-                .customerDebtId(request.getCustomerDebtId())
-                .debtAmount(request.getDebtAmount())
-                .customerFirstName(request.getCustomerFirstName())
-                .customerLastName(request.getCustomerLastName())
-                .customerPhone(request.getCustomerPhone())
-                .customerDocumentNumber(request.getCustomerDocumentNumber())
-                .build();
-        TransactionDTO created = transactionService.createTransaction(dto, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        TransactionDTO created = transactionService.createTransaction(toTransactionDTO(request), currentUser);
         return ResponseEntity.status(HttpStatus.CREATED).body(created);
     }
 
+    // Sin @Valid: una fila inválida haría fallar toda la importación con 400. Cada fila pasa por la misma validación
+    // que las del CSV (las reglas de CreateTransactionRequest, más categorías y deudas) y sus errores van en errors.
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Importar transacciones (JSON)", description = "Importa un arreglo de transacciones con el mismo formato que el alta individual. Las filas inválidas se informan en errors y no detienen el resto.")
+    public ResponseEntity<ImportResultDTO> importTransactions(
+            @RequestBody List<CreateTransactionRequest> requests,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        List<TransactionDTO> transactions = requests.stream()
+                .map(request -> request != null ? toTransactionDTO(request) : null)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(transactionService.importTransactions(transactions, currentUser));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @Operation(summary = "Importar transacciones (CSV)", description = "Columnas (con encabezado, en cualquier orden): date, type, description, items, esFiado, customerDebtId, debtAmount, customerFirstName, customerLastName, customerPhone, customerDocumentNumber. items usa el formato categoriaId:monto;categoriaId:monto")
+    public ResponseEntity<ImportResultDTO> importTransactionsCsv(
+            @Parameter(hidden = true) HttpServletRequest request,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) throws IOException {
+        return ResponseEntity.ok(transactionService.importTransactionsCsv(request.getReader(), currentUser));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Obtener transacción por ID", description = "Obtiene una transacción específica del usuario autenticado")
     public ResponseEntity<TransactionDTO> getTransactionById(
             @PathVariable Long id,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        TransactionDTO transaction = transactionService.getTransactionById(id, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        TransactionDTO transaction = transactionService.getTransactionById(id, currentUser);
         return ResponseEntity.ok(transaction);
     }
 
     @GetMapping
-    @Operation(summary = "Listar transacciones", description = "Obtiene todas las transacciones del usuario autenticado")
-    public ResponseEntity<List<TransactionDTO>> getAllTransactions(
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        List<TransactionDTO> transactions = transactionService.getAllTransactionsByUser(email);
-        return ResponseEntity.ok(transactions);
+    @Operation(summary = "Listar transacciones", description = "Obtiene las transacciones del usuario autenticado, de la más reciente a la más antigua, paginadas por cursor. Para la siguiente página envíe el nextCursor recibido.")
+    public ResponseEntity<TransactionPageDTO> getAllTransactions(
+            @Parameter(description = "Cursor devuelto en nextCursor por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página (por defecto 20, máximo 100)") @RequestParam(required = false) Integer size,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        TransactionPageDTO page = transactionService.getTransactionsPage(currentUser, cursor, size);
+        return ResponseEntity.ok(page);
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Exportar transacciones", description = "Descarga el historial completo del usuario en NDJSON (una transacción por línea) o CSV (una línea por item). Se escribe a medida que se lee, sin límite de tamaño. Fechas opcionales, inclusive.")
+    public void exportTransactions(
+            @Parameter(description = "ndjson o csv") @RequestParam(defaultValue = "ndjson") String format,
+            @Parameter(description = "Fecha desde (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Fecha hasta (yyyy-MM-dd)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @Parameter(hidden = true) HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = parseExportFormat(format);
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new BadRequestException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"transacciones." + exportFormat.getExtension() + "\"");
+        transactionExportService.exportTransactions(currentUser, from, to, exportFormat, response.getOutputStream());
     }
 
     @PutMapping("/{id}")
@@ -71,8 +115,7 @@ public class TransactionController {
     public ResponseEntity<TransactionDTO> updateTransaction(
             @PathVariable Long id,
             @Valid @RequestBody UpdateTransactionRequest request,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
         TransactionDTO dto = TransactionDTO.builder()
                 .description(request.getDescription())
                 .type(request.getType())
@@ -87,7 +130,7 @@ public class TransactionController {
                 .customerPhone(request.getCustomerPhone())
                 .customerDocumentNumber(request.getCustomerDocumentNumber())
                 .build();
-        TransactionDTO updated = transactionService.updateTransaction(id, dto, email);
+        TransactionDTO updated = transactionService.updateTransaction(id, dto, currentUser);
         return ResponseEntity.ok(updated);
     }
 
@@ -95,9 +138,32 @@ public class TransactionController {
     @Operation(summary = "Eliminar transacción", description = "Elimina una transacción del usuario autenticado")
     public ResponseEntity<Void> deleteTransaction(
             @PathVariable Long id,
-            @Parameter(hidden = true) Authentication authentication) {
-        String email = authentication.getName();
-        transactionService.deleteTransaction(id, email);
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        transactionService.deleteTransaction(id, currentUser);
         return ResponseEntity.noContent().build();
     }
+
+    private TransactionDTO toTransactionDTO(CreateTransactionRequest request) {
+        return TransactionDTO.builder()
+                .description(request.getDescription())
+                .type(request.getType())
+                .date(request.getDate())
+                .items(request.getItems())
+                .esFiado(request.getEsFiado())
+                .customerDebtId(request.getCustomerDebtId())
+                .debtAmount(request.getDebtAmount())
+                .customerFirstName(request.getCustomerFirstName())
+                .customerLastName(request.getCustomerLastName())
+                .customerPhone(request.getCustomerPhone())
+                .customerDocumentNumber(request.getCustomerDocumentNumber())
+                .build();
+    }
+
+    private ExportFormat parseExportFormat(String format) {
+        try {
+            return ExportFormat.valueOf(format.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Formato de exportación no válido. Use ndjson o csv");
+        }
+    }
 }
@@ -0,0 +1,446 @@
+package com.cuadernito.cuadernito_back.dataset;
+
+import com.cuadernito.cuadernito_back.dataset.ShopDataGenerator.Customer;
+import com.cuadernito.cuadernito_back.dataset.ShopDataGenerator.Item;
+import com.cuadernito.cuadernito_back.dataset.ShopDataGenerator.Payment;
+import com.cuadernito.cuadernito_back.dataset.ShopDataGenerator.Sale;
+import com.cuadernito.cuadernito_back.dataset.ShopDataGenerator.Settings;
+import com.cuadernito.cuadernito_back.dataset.ShopDataGenerator.ShopData;
+import com.cuadernito.cuadernito_back.repository.DatabaseVendor;
+import com.cuadernito.cuadernito_back.service.ReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Perfil "dataset": carga comercios sintéticos con JDBC en lotes, sin pasar por las entidades ni los servicios.
+ * Cada comercio va en una transacción propia con ids asignados acá, a continuación de los existentes; al terminar
+ * se adelantan las secuencias y los AUTO_INCREMENT y se recalculan los resúmenes diarios. Debe correr con la
+ * aplicación detenida: los ids que Hibernate ya tenga reservados en memoria no se respetan.
+ */
+@Component
+@Profile("dataset")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    static final String EMAIL_DOMAIN = "@dataset.cuadernito.com";
+
+    /** Incremento de las secuencias de Hibernate (allocationSize de las entidades). */
+    private static final int SEQUENCE_INCREMENT = 50;
+
+    private static final String INSERT_USER =
+            "INSERT INTO users (id, first_name, last_name, email, password, phone, address, role, enabled, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, 'ROLE_USER', TRUE, ?)";
+
+    private static final String INSERT_CATEGORY =
+            "INSERT INTO categories (id, user_id, name, created_at) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_CUSTOMER_DEBT =
+            "INSERT INTO customer_debts (id, user_id, customer_first_name, customer_last_name, customer_phone, " +
+            "document_number, total_amount, paid_amount, remaining_amount, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_TRANSACTION =
+            "INSERT INTO transactions (id, user_id, type, amount, debt_amount, description, date, customer_debt_id, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ITEM =
+            "INSERT INTO transaction_items (id, transaction_id, category_id, amount, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_LEDGER_ENTRY =
+            "INSERT INTO debt_ledger_entries (id, customer_debt_id, user_id, type, amount, paid_amount, transaction_id, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, NULL, ?, ?)";
+
+    private static final String[] IDENTITY_TABLES = {"users", "categories", "customer_debts", "debt_ledger_entries"};
+
+    private static final String[] SEQUENCE_TABLES = {"transactions", "transaction_items"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Value("${dataset.shops:100}")
+    private int shops;
+
+    @Value("${dataset.seed:42}")
+    private long seed;
+
+    /**
+     * Fija por defecto: con hoy, la misma semilla generaría otras fechas cada día y las corridas no se podrían comparar.
+     */
+    @Value("${dataset.end-date:2025-12-31}")
+    private String endDate;
+
+    @Value("${dataset.days:365}")
+    private int days;
+
+    @Value("${dataset.transactions-per-shop:10000}")
+    private int transactionsPerShop;
+
+    @Value("${dataset.transactions-spread:0.5}")
+    private double transactionsSpread;
+
+    @Value("${dataset.categories-per-shop:10}")
+    private int categoriesPerShop;
+
+    @Value("${dataset.customers-per-shop:60}")
+    private int customersPerShop;
+
+    @Value("${dataset.items-per-sale.mean:2.5}")
+    private double itemsPerSaleMean;
+
+    @Value("${dataset.items-per-sale.max:30}")
+    private int itemsPerSaleMax;
+
+    @Value("${dataset.item-mean-amount:1800}")
+    private double itemMeanAmount;
+
+    @Value("${dataset.expense-ratio:0.1}")
+    private double expenseRatio;
+
+    @Value("${dataset.expense-mean-amount:45000}")
+    private double expenseMeanAmount;
+
+    @Value("${dataset.fiado-ratio:0.15}")
+    private double fiadoRatio;
+
+    @Value("${dataset.payments.paid-ratio:0.5}")
+    private double paidRatio;
+
+    @Value("${dataset.payments.partial-ratio:0.3}")
+    private double partialRatio;
+
+    @Value("${dataset.payments.max-per-debt:6}")
+    private int paymentsPerDebtMax;
+
+    @Value("${dataset.password:Dataset123}")
+    private String password;
+
+    @Value("${dataset.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${dataset.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    private IdCounters ids;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+        if (exitOnFinish) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    /**
+     * Carga los comercios configurados y devuelve cuántas filas insertó por tabla.
+     */
+    public DatasetSummary generate() {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email LIKE ?", Integer.class, "%" + EMAIL_DOMAIN);
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("La base ya tiene " + existing + " comercios generados (" + EMAIL_DOMAIN
+                    + "); use una base vacía");
+        }
+
+        Settings settings = settings();
+        ShopDataGenerator generator = new ShopDataGenerator(settings);
+        String encodedPassword = passwordEncoder.encode(password);
+        ids = IdCounters.read(jdbcTemplate);
+        DatasetSummary summary = new DatasetSummary();
+        long start = System.nanoTime();
+
+        log.info("Generando {} comercios (semilla {}, {} días hasta {})", shops, seed, days, settings.endDate());
+        for (int shop = 0; shop < shops; shop++) {
+            ShopData data = generator.generate(shop);
+            transactionTemplate.executeWithoutResult(status -> write(data, encodedPassword, summary));
+            if ((shop + 1) % 10 == 0 || shop + 1 == shops) {
+                log.info("{}/{} comercios, {} transacciones, {} ítems ({} s)", shop + 1, shops, summary.transactions,
+                        summary.items, (System.nanoTime() - start) / 1_000_000_000);
+            }
+        }
+
+        advanceIdGenerators();
+        int users = reportService.rebuildDailySummaries();
+        log.info("Dataset cargado en {} s: {}; resúmenes diarios recalculados para {} usuarios",
+                (System.nanoTime() - start) / 1_000_000_000, summary, users);
+        return summary;
+    }
+
+    private Settings settings() {
+        return new Settings(seed, LocalDate.parse(endDate), days,
+                transactionsPerShop, transactionsSpread, categoriesPerShop, customersPerShop, itemsPerSaleMean,
+                itemsPerSaleMax, itemMeanAmount, expenseRatio, expenseMeanAmount, fiadoRatio, paidRatio, partialRatio,
+                paymentsPerDebtMax);
+    }
+
+    private void write(ShopData data, String encodedPassword, DatasetSummary summary) {
+        long userId = ids.users++;
+        LocalDateTime openedAt = data.sales().isEmpty()
+                ? LocalDate.parse(endDate).minusDays(days).atStartOfDay()
+                : data.sales().getFirst().date().minusDays(1);
+        Timestamp created = Timestamp.valueOf(openedAt);
+        jdbcTemplate.update(INSERT_USER, userId, "Comercio", "Dataset " + data.index(),
+                "comercio-" + data.index() + EMAIL_DOMAIN, encodedPassword, "1140000000",
+                "Calle " + (data.index() + 1), created);
+
+        long firstCategoryId = ids.categories;
+        ids.categories += data.categories().size();
+        jdbcTemplate.batchUpdate(INSERT_CATEGORY, indexed(data.categories().size()), batchSize, (ps, i) -> {
+            ps.setLong(1, firstCategoryId + i);
+            ps.setLong(2, userId);
+            ps.setString(3, data.categories().get(i));
+            ps.setTimestamp(4, created);
+        });
+
+        // Saldo de cada cliente a partir de sus fiados y pagos
+        int customerCount = data.customers().size();
+        long[] charged = new long[customerCount];
+        long[] paid = new long[customerCount];
+        LocalDateTime[] firstCharge = new LocalDateTime[customerCount];
+        for (Sale sale : data.sales()) {
+            if (sale.customer() >= 0) {
+                charged[sale.customer()] += sale.totalCents();
+                if (firstCharge[sale.customer()] == null) {
+                    firstCharge[sale.customer()] = sale.date();
+                }
+            }
+        }
+        for (Payment payment : data.payments()) {
+            paid[payment.customer()] += payment.cents();
+        }
+        long[] debtIds = new long[customerCount];
+        List<Integer> chargedCustomers = new ArrayList<>();
+        for (int c = 0; c < customerCount; c++) {
+            if (charged[c] > 0) {
+                debtIds[c] = ids.customerDebts++;
+                chargedCustomers.add(c);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER_DEBT, chargedCustomers, batchSize, (ps, c) -> {
+            Customer customer = data.customers().get(c);
+            long remaining = charged[c] - paid[c];
+            ps.setLong(1, debtIds[c]);
+            ps.setLong(2, userId);
+            ps.setString(3, customer.firstName());
+            ps.setString(4, customer.lastName());
+            ps.setString(5, customer.phone());
+            ps.setString(6, customer.documentNumber());
+            ps.setBigDecimal(7, money(charged[c]));
+            ps.setBigDecimal(8, money(paid[c]));
+            ps.setBigDecimal(9, money(remaining));
+            ps.setString(10, paid[c] == 0 ? "PENDIENTE" : remaining == 0 ? "PAGADO" : "PARCIAL");
+            ps.setTimestamp(11, Timestamp.valueOf(firstCharge[c]));
+        });
+
+        long firstTransactionId = ids.transactions;
+        ids.transactions += data.sales().size();
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION, indexed(data.sales().size()), batchSize, (ps, i) -> {
+            Sale sale = data.sales().get(i);
+            long total = sale.totalCents();
+            Timestamp date = Timestamp.valueOf(sale.date());
+            ps.setLong(1, firstTransactionId + i);
+            ps.setLong(2, userId);
+            ps.setString(3, sale.income() ? "INGRESO" : "GASTO");
+            ps.setBigDecimal(4, money(total));
+            if (sale.customer() >= 0) {
+                ps.setBigDecimal(5, money(total));
+                ps.setString(6, "Venta fiada");
+                ps.setLong(8, debtIds[sale.customer()]);
+            } else {
+                ps.setNull(5, Types.DECIMAL);
+                ps.setString(6, sale.income() ? "Venta" : "Compra");
+                ps.setNull(8, Types.BIGINT);
+            }
+            ps.setTimestamp(7, date);
+            ps.setTimestamp(9, date);
+        });
+
+        List<long[]> items = new ArrayList<>();
+        for (int i = 0; i < data.sales().size(); i++) {
+            for (Item item : data.sales().get(i).items()) {
+                items.add(new long[]{ids.items++, firstTransactionId + i, firstCategoryId + item.category(), item.cents()});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_ITEM, items, batchSize, (ps, item) -> {
+            Sale sale = data.sales().get((int) (item[1] - firstTransactionId));
+            ps.setLong(1, item[0]);
+            ps.setLong(2, item[1]);
+            ps.setLong(3, item[2]);
+            ps.setBigDecimal(4, money(item[3]));
+            ps.setTimestamp(5, Timestamp.valueOf(sale.date()));
+        });
+
+        // Registro de movimientos en orden cronológico: un CARGO por venta fiada y un PAGO por pago
+        List<LedgerRow> ledger = new ArrayList<>();
+        for (int i = 0; i < data.sales().size(); i++) {
+            Sale sale = data.sales().get(i);
+            if (sale.customer() >= 0) {
+                ledger.add(new LedgerRow(debtIds[sale.customer()], "CARGO", sale.totalCents(),
+                        firstTransactionId + i, sale.date()));
+            }
+        }
+        for (Payment payment : data.payments()) {
+            ledger.add(new LedgerRow(debtIds[payment.customer()], "PAGO", payment.cents(), null, payment.date()));
+        }
+        ledger.sort(Comparator.comparing(LedgerRow::date));
+        long firstLedgerId = ids.ledgerEntries;
+        ids.ledgerEntries += ledger.size();
+        jdbcTemplate.batchUpdate(INSERT_LEDGER_ENTRY, indexed(ledger.size()), batchSize, (ps, i) -> {
+            LedgerRow row = ledger.get(i);
+            ps.setLong(1, firstLedgerId + i);
+            ps.setLong(2, row.customerDebtId());
+            ps.setLong(3, userId);
+            ps.setString(4, row.type());
+            ps.setBigDecimal(5, money(row.cents()));
+            if (row.transactionId() != null) {
+                ps.setLong(6, row.transactionId());
+            } else {
+                ps.setNull(6, Types.BIGINT);
+            }
+            ps.setTimestamp(7, Timestamp.valueOf(row.date()));
+        });
+
+        summary.users++;
+        summary.categories += data.categories().size();
+        summary.customerDebts += chargedCustomers.size();
+        summary.transactions += data.sales().size();
+        summary.items += items.size();
+        summary.ledgerEntries += ledger.size();
+    }
+
+    /**
+     * Deja las secuencias de Hibernate y los AUTO_INCREMENT por encima de los ids insertados. Con el optimizador
+     * pooled el valor leído es el tope del bloque, así que la secuencia se adelanta un incremento completo.
+     */
+    private void advanceIdGenerators() {
+        DatabaseVendor vendor = DatabaseVendor.of(jdbcTemplate);
+        long[] identityNext = {ids.users, ids.categories, ids.customerDebts, ids.ledgerEntries};
+        for (int i = 0; i < IDENTITY_TABLES.length; i++) {
+            jdbcTemplate.execute(vendor == DatabaseVendor.MYSQL
+                    ? "ALTER TABLE " + IDENTITY_TABLES[i] + " AUTO_INCREMENT = " + identityNext[i]
+                    : "ALTER TABLE " + IDENTITY_TABLES[i] + " ALTER COLUMN id RESTART WITH " + identityNext[i]);
+        }
+        long[] sequenceNext = {ids.transactions, ids.items};
+        for (int i = 0; i < SEQUENCE_TABLES.length; i++) {
+            long next = sequenceNext[i] + SEQUENCE_INCREMENT;
+            if (vendor == DatabaseVendor.MYSQL) {
+                jdbcTemplate.update("UPDATE " + SEQUENCE_TABLES[i] + "_seq SET next_val = GREATEST(next_val, ?)", next);
+            } else {
+                jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE_TABLES[i] + "_seq RESTART WITH " + next);
+            }
+        }
+    }
+
+    private static List<Integer> indexed(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private record LedgerRow(long customerDebtId, String type, long cents, Long transactionId, LocalDateTime date) {
+    }
+
+    /**
+     * Próximo id libre de cada tabla, leído una vez al empezar.
+     */
+    private static final class IdCounters {
+        private long users;
+        private long categories;
+        private long customerDebts;
+        private long transactions;
+        private long items;
+        private long ledgerEntries;
+
+        static IdCounters read(JdbcTemplate jdbcTemplate) {
+            IdCounters ids = new IdCounters();
+            ids.users = nextId(jdbcTemplate, "users");
+            ids.categories = nextId(jdbcTemplate, "categories");
+            ids.customerDebts = nextId(jdbcTemplate, "customer_debts");
+            ids.transactions = nextId(jdbcTemplate, "transactions");
+            ids.items = nextId(jdbcTemplate, "transaction_items");
+            ids.ledgerEntries = nextId(jdbcTemplate, "debt_ledger_entries");
+            return ids;
+        }
+
+        private static long nextId(JdbcTemplate jdbcTemplate, String table) {
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            return max == null ? 1 : max + 1;
+        }
+    }
+
+    /**
+     * Filas insertadas por tabla.
+     */
+    public static final class DatasetSummary {
+        private int users;
+        private int categories;
+        private int customerDebts;
+        private long transactions;
+        private long items;
+        private long ledgerEntries;
+
+        public int users() {
+            return users;
+        }
+
+        public int customerDebts() {
+            return customerDebts;
+        }
+
+        public long transactions() {
+            return transactions;
+        }
+
+        public long items() {
+            return items;
+        }
+
+        public long ledgerEntries() {
+            return ledgerEntries;
+        }
+
+        @Override
+        public String toString() {
+            return users + " comercios, " + categories + " categorías, " + customerDebts + " deudas, "
+                    + transactions + " transacciones, " + items + " ítems, " + ledgerEntries + " movimientos de deuda";
+        }
+    }
+}
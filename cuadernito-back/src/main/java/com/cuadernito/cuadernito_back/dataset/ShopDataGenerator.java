@@ -0,0 +1,239 @@
+package com.cuadernito.cuadernito_back.dataset;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Genera en memoria los datos de un comercio a partir de una semilla, sin tocar la base: el mismo comercio con la
+ * misma semilla produce siempre las mismas filas. Los montos van en centavos para no acumular errores de redondeo.
+ */
+final class ShopDataGenerator {
+
+    private static final String[] CATEGORY_NAMES = {
+            "Almacén", "Bebidas", "Lácteos", "Fiambrería", "Panadería", "Verdulería", "Limpieza", "Perfumería",
+            "Golosinas", "Cigarrillos", "Carnicería", "Congelados", "Proveedores", "Servicios", "Alquiler", "Varios"
+    };
+
+    private static final String[] FIRST_NAMES = {
+            "María", "José", "Ana", "Juan", "Lucía", "Carlos", "Sofía", "Miguel", "Rosa", "Jorge", "Laura", "Pedro",
+            "Carmen", "Luis", "Elena", "Diego", "Marta", "Pablo", "Silvia", "Raúl"
+    };
+
+    private static final String[] LAST_NAMES = {
+            "González", "Rodríguez", "Gómez", "Fernández", "López", "Díaz", "Martínez", "Pérez", "García", "Sánchez",
+            "Romero", "Sosa", "Torres", "Álvarez", "Ruiz", "Ramírez", "Flores", "Benítez", "Acosta", "Medina"
+    };
+
+    private static final int OPENING_HOUR = 8;
+    private static final int OPEN_HOURS = 13;
+
+    private final Settings settings;
+
+    ShopDataGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    ShopData generate(int shopIndex) {
+        SplittableRandom random = new SplittableRandom(settings.seed() * 1_000_003L + shopIndex);
+        LocalDateTime from = settings.endDate().minusDays(settings.days() - 1L).atStartOfDay();
+
+        List<String> categories = new ArrayList<>();
+        for (int i = 0; i < settings.categoriesPerShop(); i++) {
+            categories.add(CATEGORY_NAMES[i % CATEGORY_NAMES.length]
+                    + (i < CATEGORY_NAMES.length ? "" : " " + (i / CATEGORY_NAMES.length + 1)));
+        }
+
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < settings.customersPerShop(); i++) {
+            customers.add(new Customer(
+                    FIRST_NAMES[random.nextInt(FIRST_NAMES.length)],
+                    LAST_NAMES[random.nextInt(LAST_NAMES.length)],
+                    "11" + (40_000_000 + random.nextInt(60_000_000)),
+                    String.valueOf(20_000_000 + i * 1_000 + random.nextInt(1_000))));
+        }
+
+        List<LocalDateTime> dates = new ArrayList<>();
+        int transactionCount = transactionCount(random);
+        for (int i = 0; i < transactionCount; i++) {
+            dates.add(from.plusDays(random.nextInt(settings.days()))
+                    .plusHours(OPENING_HOUR + random.nextInt(OPEN_HOURS))
+                    .plusMinutes(random.nextInt(60))
+                    .plusSeconds(random.nextInt(60)));
+        }
+        dates.sort(Comparator.naturalOrder());
+
+        List<Sale> sales = new ArrayList<>(transactionCount);
+        for (LocalDateTime date : dates) {
+            sales.add(random.nextDouble() < settings.expenseRatio()
+                    ? expense(random, date)
+                    : sale(random, date));
+        }
+
+        List<Payment> payments = new ArrayList<>();
+        for (int customer = 0; customer < customers.size(); customer++) {
+            payments.addAll(payments(random, customer, sales));
+        }
+        payments.sort(Comparator.comparing(Payment::date));
+        return new ShopData(shopIndex, categories, customers, sales, payments);
+    }
+
+    private int transactionCount(SplittableRandom random) {
+        int mean = settings.transactionsPerShop();
+        int spread = (int) (mean * settings.transactionsSpread());
+        return spread == 0 ? mean : Math.max(1, mean - spread + random.nextInt(2 * spread + 1));
+    }
+
+    private Sale expense(SplittableRandom random, LocalDateTime date) {
+        long cents = logNormalCents(random, settings.expenseMeanAmount());
+        return new Sale(date, false, List.of(new Item(random.nextInt(settings.categoriesPerShop()), cents)), -1);
+    }
+
+    private Sale sale(SplittableRandom random, LocalDateTime date) {
+        int itemCount = itemCount(random);
+        List<Item> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(new Item(random.nextInt(settings.categoriesPerShop()),
+                    logNormalCents(random, settings.itemMeanAmount())));
+        }
+        int customer = settings.customersPerShop() > 0 && random.nextDouble() < settings.fiadoRatio()
+                ? skewedCustomer(random)
+                : -1;
+        return new Sale(date, true, items, customer);
+    }
+
+    /**
+     * Geométrica con la media pedida, acotada al máximo: la mayoría de las ventas tienen uno o dos ítems.
+     */
+    private int itemCount(SplittableRandom random) {
+        double mean = Math.max(1, settings.itemsPerSaleMean());
+        if (mean == 1) {
+            return 1;
+        }
+        double p = 1 / mean;
+        int count = 1 + (int) (Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+        return Math.min(count, settings.itemsPerSaleMax());
+    }
+
+    /**
+     * Pocos clientes concentran la mayor parte del fiado.
+     */
+    private int skewedCustomer(SplittableRandom random) {
+        double r = random.nextDouble();
+        return (int) (settings.customersPerShop() * r * r);
+    }
+
+    private long logNormalCents(SplittableRandom random, double meanAmount) {
+        double sigma = 0.8;
+        double mu = Math.log(meanAmount) - sigma * sigma / 2;
+        double amount = Math.exp(mu + sigma * random.nextGaussian());
+        return Math.max(100, Math.min(Math.round(amount * 100), 99_999_999L));
+    }
+
+    /**
+     * Según el comportamiento sorteado el cliente salda todo, paga una parte o no paga nada. Los pagos caen
+     * entre el primer fiado y el fin del período, y nunca superan lo fiado hasta su fecha; el último, posterior
+     * al último fiado, completa el monto sorteado.
+     */
+    private List<Payment> payments(SplittableRandom random, int customer, List<Sale> sales) {
+        List<Sale> charges = sales.stream().filter(sale -> sale.customer() == customer).toList();
+        if (charges.isEmpty()) {
+            return List.of();
+        }
+        long charged = charges.stream().mapToLong(Sale::totalCents).sum();
+        double behaviour = random.nextDouble();
+        long target;
+        if (behaviour < settings.paidRatio()) {
+            target = charged;
+        } else if (behaviour < settings.paidRatio() + settings.partialRatio()) {
+            target = Math.max(1, (long) (charged * (0.1 + 0.8 * random.nextDouble())));
+        } else {
+            return List.of();
+        }
+
+        LocalDateTime end = settings.endDate().atTime(OPENING_HOUR + OPEN_HOURS, 0);
+        LocalDateTime first = charges.getFirst().date();
+        LocalDateTime last = charges.getLast().date();
+        int count = 1 + random.nextInt(Math.max(1, settings.paymentsPerDebtMax()));
+        List<LocalDateTime> dates = new ArrayList<>();
+        for (int i = 0; i < count - 1; i++) {
+            dates.add(between(random, first, last));
+        }
+        dates.sort(Comparator.naturalOrder());
+
+        List<Payment> payments = new ArrayList<>();
+        long paid = 0;
+        int charge = 0;
+        long chargedSoFar = 0;
+        for (LocalDateTime date : dates) {
+            while (charge < charges.size() && !charges.get(charge).date().isAfter(date)) {
+                chargedSoFar += charges.get(charge++).totalCents();
+            }
+            long share = Math.min(chargedSoFar - paid, (long) ((target - paid) * random.nextDouble()));
+            if (share > 0) {
+                payments.add(new Payment(customer, date, share));
+                paid += share;
+            }
+        }
+        payments.add(new Payment(customer, between(random, last, end), target - paid));
+        return payments;
+    }
+
+    private LocalDateTime between(SplittableRandom random, LocalDateTime from, LocalDateTime to) {
+        long seconds = ChronoUnit.SECONDS.between(from, to);
+        return seconds <= 0 ? to : from.plusSeconds(1 + random.nextLong(seconds));
+    }
+
+    /**
+     * Distribuciones del dataset; ver dataset.* en application-dataset.properties.
+     */
+    record Settings(
+            long seed,
+            LocalDate endDate,
+            int days,
+            int transactionsPerShop,
+            double transactionsSpread,
+            int categoriesPerShop,
+            int customersPerShop,
+            double itemsPerSaleMean,
+            int itemsPerSaleMax,
+            double itemMeanAmount,
+            double expenseRatio,
+            double expenseMeanAmount,
+            double fiadoRatio,
+            double paidRatio,
+            double partialRatio,
+            int paymentsPerDebtMax
+    ) {
+    }
+
+    record ShopData(int index, List<String> categories, List<Customer> customers, List<Sale> sales,
+                    List<Payment> payments) {
+    }
+
+    record Customer(String firstName, String lastName, String phone, String documentNumber) {
+    }
+
+    /**
+     * Venta (ingreso) o gasto. {@code customer} es el índice del cliente si es fiado, -1 si no.
+     */
+    record Sale(LocalDateTime date, boolean income, List<Item> items, int customer) {
+        long totalCents() {
+            long total = 0;
+            for (Item item : items) {
+                total += item.cents();
+            }
+            return total;
+        }
+    }
+
+    record Item(int category, long cents) {
+    }
+
+    record Payment(int customer, LocalDateTime date, long cents) {
+    }
+}
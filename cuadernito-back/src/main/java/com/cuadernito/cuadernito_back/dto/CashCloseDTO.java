@@ -0,0 +1,30 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Cierre de caja de un día")
+public class CashCloseDTO {
+    private LocalDate date;
+    private BigDecimal income;
+    private BigDecimal expense;
+    @Schema(description = "Parte de los ingresos del día que quedó fiada")
+    private BigDecimal fiadoIssued;
+    @Schema(description = "Cobros de deudas registrados en el día")
+    private BigDecimal paymentsReceived;
+    private Integer transactionCount;
+    @Schema(description = "Movimiento de caja del día: ingresos - fiado + cobros - gastos")
+    private BigDecimal cashFlow;
+    @Schema(description = "Saldo de caja acumulado al cierre del día")
+    private BigDecimal runningBalance;
+}
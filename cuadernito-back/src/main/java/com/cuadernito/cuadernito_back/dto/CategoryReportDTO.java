@@ -0,0 +1,25 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Total por categoría y tipo de transacción en el rango pedido")
+public class CategoryReportDTO {
+    private Long categoryId;
+    private String categoryName;
+    @Schema(description = "INGRESO o GASTO")
+    private String type;
+    @Schema(description = "Suma de los items de la categoría")
+    private BigDecimal total;
+    @Schema(description = "Cantidad de items")
+    private Long itemCount;
+}
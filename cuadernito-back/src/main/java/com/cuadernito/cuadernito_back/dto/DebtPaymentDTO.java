@@ -0,0 +1,22 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Pago registrado sobre una deuda")
+public class DebtPaymentDTO {
+    private Long id;
+    @Schema(description = "Monto aplicado (recortado al saldo pendiente si el pago lo superaba)")
+    private BigDecimal amount;
+    private LocalDateTime createdAt;
+}
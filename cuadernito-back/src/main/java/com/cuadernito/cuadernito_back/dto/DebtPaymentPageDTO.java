@@ -0,0 +1,23 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página de pagos de una deuda, del más reciente al más antiguo")
+public class DebtPaymentPageDTO {
+    private List<DebtPaymentDTO> content;
+    @Schema(description = "Cursor para pedir la siguiente página; null si no hay más")
+    private String nextCursor;
+    private boolean hasNext;
+    @Schema(description = "Tamaño de página aplicado")
+    private int size;
+}
@@ -0,0 +1,29 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de una importación masiva de transacciones")
+public class ImportResultDTO {
+    @Schema(description = "Filas recibidas")
+    private int totalRows;
+    @Schema(description = "Transacciones creadas")
+    private int importedRows;
+    @Schema(description = "Filas descartadas por error")
+    private int failedRows;
+    @Schema(description = "Deudas de clientes creadas")
+    private int customerDebtsCreated;
+    @Schema(description = "Deudas de clientes existentes actualizadas")
+    private int customerDebtsUpdated;
+    @Schema(description = "Detalle de las filas con error")
+    private List<ImportRowErrorDTO> errors;
+}
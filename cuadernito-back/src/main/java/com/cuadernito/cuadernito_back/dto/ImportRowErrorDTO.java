@@ -0,0 +1,19 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Error de una fila de la importación")
+public class ImportRowErrorDTO {
+    @Schema(description = "Número de fila (1 = primera fila de datos)")
+    private int row;
+    @Schema(description = "Motivo por el que la fila no se importó")
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Ingresos y gastos de un período (día, semana o mes)")
+public class PeriodReportDTO {
+    @Schema(description = "Primer día del período (las semanas empiezan el lunes)")
+    private LocalDate periodStart;
+    private BigDecimal income;
+    private BigDecimal expense;
+    @Schema(description = "Ingresos menos gastos")
+    private BigDecimal balance;
+    private Long incomeCount;
+    private Long expenseCount;
+}
@@ -0,0 +1,25 @@
+package com.cuadernito.cuadernito_back.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página de transacciones ordenadas de la más reciente a la más antigua")
+public class TransactionPageDTO {
+    @Schema(description = "Transacciones de la página")
+    private List<TransactionDTO> content;
+    @Schema(description = "Cursor opaco para pedir la siguiente página; null si no hay más")
+    private String nextCursor;
+    @Schema(description = "Indica si existen más transacciones")
+    private boolean hasNext;
+    @Schema(description = "Tamaño de página aplicado")
+    private int size;
+}
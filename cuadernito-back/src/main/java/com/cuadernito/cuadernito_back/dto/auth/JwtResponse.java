@@ -11,6 +11,8 @@ import lombok.NoArgsConstructor;
 @Builder
 public class JwtResponse {
     private String token;
+    private String refreshToken;
+    private Long expiresIn;
     private String type;
     private Long id;
     private String email;
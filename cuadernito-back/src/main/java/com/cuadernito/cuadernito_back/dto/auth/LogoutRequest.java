@@ -0,0 +1,12 @@
+package com.cuadernito.cuadernito_back.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LogoutRequest {
+    private String refreshToken;
+}
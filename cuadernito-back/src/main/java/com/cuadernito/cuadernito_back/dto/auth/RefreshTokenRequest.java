@@ -0,0 +1,14 @@
+package com.cuadernito.cuadernito_back.dto.auth;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenRequest {
+    @NotBlank(message = "El refresh token es obligatorio")
+    private String refreshToken;
+}
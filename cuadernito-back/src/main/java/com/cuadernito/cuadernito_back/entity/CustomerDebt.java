@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "customer_debts", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"user_id", "document_number"})
+        @UniqueConstraint(name = "uk_customer_debts_user_document", columnNames = {"user_id", "document_number"})
 })
 @Data
 @NoArgsConstructor
@@ -0,0 +1,54 @@
+package com.cuadernito.cuadernito_back.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Totales de un día por usuario (cierre de caja). Se mantiene de forma incremental con upserts
+ * desde los servicios de transacciones y deudas; ver {@code DailySummaryRepositoryCustom}.
+ */
+@Entity
+@Table(name = "daily_summary", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_daily_summary_user_date", columnNames = {"user_id", "summary_date"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal incomeAmount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal expenseAmount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal fiadoAmount;
+
+    @Column(nullable = false, precision = 14, scale = 2)
+    private BigDecimal paymentsAmount;
+
+    @Column(nullable = false)
+    private Integer transactionCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
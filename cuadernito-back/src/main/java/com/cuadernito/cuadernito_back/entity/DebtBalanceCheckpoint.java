@@ -0,0 +1,39 @@
+package com.cuadernito.cuadernito_back.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Saldo de una deuda tras aplicar el movimiento {@code ledgerEntryId}. Reconstruir el saldo
+ * solo requiere los movimientos posteriores, no el historial completo.
+ */
+@Entity
+@Table(name = "debt_balance_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DebtBalanceCheckpoint {
+
+    @Id
+    @Column(name = "customer_debt_id")
+    private Long customerDebtId;
+
+    @Column(name = "ledger_entry_id", nullable = false)
+    private Long ledgerEntryId;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal paidAmount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,73 @@
+package com.cuadernito.cuadernito_back.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Movimiento de una deuda. Solo se insertan filas: el saldo vigente vive en {@link CustomerDebt}
+ * y este registro permite reconstruirlo y consultar el historial de pagos. El id es AUTO_INCREMENT y se
+ * asigna en el INSERT, que siempre va después del UPDATE de la deuda: dentro de una deuda, un id mayor
+ * es un movimiento confirmado después.
+ */
+@Entity
+@Table(name = "debt_ledger_entries", indexes = {
+        @Index(name = "idx_debt_ledger_debt_id", columnList = "customer_debt_id, id"),
+        @Index(name = "idx_debt_ledger_user_type_created", columnList = "user_id, type, created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DebtLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "customer_debt_id", nullable = false)
+    private Long customerDebtId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private EntryType type;
+
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    /**
+     * Solo en AJUSTE: monto pagado que quedó fijado (amount es el nuevo total).
+     */
+    @Column(precision = 10, scale = 2)
+    private BigDecimal paidAmount;
+
+    @Column(name = "transaction_id")
+    private Long transactionId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public enum EntryType {
+        /** Suma al total (venta fiada). */
+        CARGO,
+        /** Resta del total (venta fiada editada o eliminada); lo pagado se recorta al nuevo total. */
+        ANULACION,
+        /** Pago recibido, ya recortado al saldo pendiente. */
+        PAGO,
+        /** Alta o edición manual: fija total y pagado. */
+        AJUSTE
+    }
+}
@@ -0,0 +1,7 @@
+package com.cuadernito.cuadernito_back.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
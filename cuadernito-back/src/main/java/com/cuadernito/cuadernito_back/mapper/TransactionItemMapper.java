@@ -2,6 +2,7 @@ package com.cuadernito.cuadernito_back.mapper;
 
 import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
 import com.cuadernito.cuadernito_back.entity.TransactionItem;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionItemRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -12,4 +13,5 @@ public interface TransactionItemMapper {
     @Mapping(target = "categoryId", source = "category.id")
     TransactionItemDTO toDTO(TransactionItem item);
     List<TransactionItemDTO> toDTOList(List<TransactionItem> items);
+    TransactionItemDTO toDTO(TransactionItemRow row);
 }
@@ -1,10 +1,14 @@
 package com.cuadernito.cuadernito_back.mapper;
 
 import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
 import com.cuadernito.cuadernito_back.entity.Transaction;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.List;
+
 @Mapper(componentModel = "spring", uses = TransactionItemMapper.class)
 public interface TransactionMapper {
     @Mapping(target = "type", expression = "java(transaction.getType().name())")
@@ -17,5 +21,11 @@ public interface TransactionMapper {
     @Mapping(target = "customerLastName", expression = "java(transaction.getCustomerDebt() != null ? transaction.getCustomerDebt().getCustomerLastName() : null)")
     @Mapping(target = "customerPhone", expression = "java(transaction.getCustomerDebt() != null ? transaction.getCustomerDebt().getCustomerPhone() : null)")
     @Mapping(target = "customerDocumentNumber", expression = "java(transaction.getCustomerDebt() != null ? transaction.getCustomerDebt().getDocumentNumber() : null)")
+    @Mapping(target = "removeItemIds", ignore = true)
     TransactionDTO toDTO(Transaction transaction);
+
+    @Mapping(target = "items", source = "items")
+    @Mapping(target = "esFiado", expression = "java(row.getCustomerDebtId() != null)")
+    @Mapping(target = "removeItemIds", ignore = true)
+    TransactionDTO toDTO(TransactionRow row, List<TransactionItemDTO> items);
 }
@@ -4,6 +4,7 @@ import com.cuadernito.cuadernito_back.entity.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +12,6 @@ import java.util.Optional;
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUserId(Long userId);
     Optional<Category> findByIdAndUserId(Long id, Long userId);
+    List<Category> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
     boolean existsByIdAndUserId(Long id, Long userId);
 }
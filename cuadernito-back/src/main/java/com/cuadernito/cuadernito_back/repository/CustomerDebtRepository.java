@@ -1,16 +1,80 @@
 package com.cuadernito.cuadernito_back.repository;
 
 import com.cuadernito.cuadernito_back.entity.CustomerDebt;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Los saldos se modifican con UPDATE atómicos: el incremento y el estado se calculan en la base sobre
+ * los valores vigentes de la fila, sin leerla antes ni bloquearla. En cada SET las expresiones usan solo
+ * columnas que todavía no fueron asignadas (el estado va primero), porque MySQL evalúa las asignaciones
+ * de izquierda a derecha con los valores ya actualizados.
+ */
 @Repository
-public interface CustomerDebtRepository extends JpaRepository<CustomerDebt, Long> {
+public interface CustomerDebtRepository extends JpaRepository<CustomerDebt, Long>, CustomerDebtRepositoryCustom {
     List<CustomerDebt> findByUserId(Long userId);
     Optional<CustomerDebt> findByIdAndUserId(Long id, Long userId);
     boolean existsByIdAndUserId(Long id, Long userId);
     Optional<CustomerDebt> findByUserIdAndDocumentNumber(Long userId, String documentNumber);
+    List<CustomerDebt> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
+    List<CustomerDebt> findByUserIdAndDocumentNumberIn(Long userId, Collection<String> documentNumbers);
+
+    /**
+     * Bloquea la fila (SELECT ... FOR UPDATE) hasta el fin de la transacción, igual que los UPDATE de saldo.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CustomerDebt> findWithLockById(Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CustomerDebt> findWithLockByIdAndUserId(Long id, Long userId);
+
+    @Query(value = "SELECT remaining_amount FROM customer_debts WHERE id = :id AND user_id = :userId", nativeQuery = true)
+    Optional<BigDecimal> findRemainingAmount(@Param("id") Long id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = "UPDATE customer_debts SET " +
+            "status = CASE WHEN total_amount + :amount = 0 THEN 'PAGADO' " +
+            "WHEN paid_amount = 0 THEN 'PENDIENTE' " +
+            "WHEN paid_amount >= total_amount + :amount THEN 'PAGADO' ELSE 'PARCIAL' END, " +
+            "remaining_amount = remaining_amount + :amount, " +
+            "total_amount = total_amount + :amount " +
+            "WHERE id = :id", nativeQuery = true)
+    int addToTotal(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Descuenta del total sin dejarlo negativo; si lo pagado supera el nuevo total, se recorta a ese total.
+     */
+    @Modifying
+    @Query(value = "UPDATE customer_debts SET " +
+            "status = CASE WHEN total_amount <= :amount THEN 'PAGADO' " +
+            "WHEN paid_amount = 0 THEN 'PENDIENTE' " +
+            "WHEN paid_amount >= total_amount - :amount THEN 'PAGADO' ELSE 'PARCIAL' END, " +
+            "remaining_amount = CASE WHEN total_amount <= :amount OR paid_amount >= total_amount - :amount THEN 0 " +
+            "ELSE total_amount - :amount - paid_amount END, " +
+            "paid_amount = CASE WHEN total_amount <= :amount THEN 0 " +
+            "WHEN paid_amount > total_amount - :amount THEN total_amount - :amount ELSE paid_amount END, " +
+            "total_amount = CASE WHEN total_amount <= :amount THEN 0 ELSE total_amount - :amount END " +
+            "WHERE id = :id", nativeQuery = true)
+    int subtractFromTotal(@Param("id") Long id, @Param("amount") BigDecimal amount);
+
+    /**
+     * Registra un pago solo si no supera el saldo pendiente; devuelve 0 si la deuda no existe o no alcanza.
+     */
+    @Modifying
+    @Query(value = "UPDATE customer_debts SET " +
+            "status = CASE WHEN paid_amount + :amount >= total_amount THEN 'PAGADO' ELSE 'PARCIAL' END, " +
+            "remaining_amount = remaining_amount - :amount, " +
+            "paid_amount = paid_amount + :amount " +
+            "WHERE id = :id AND user_id = :userId AND remaining_amount >= :amount", nativeQuery = true)
+    int applyPayment(@Param("id") Long id, @Param("userId") Long userId, @Param("amount") BigDecimal amount);
 }
@@ -0,0 +1,12 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import java.math.BigDecimal;
+
+public interface CustomerDebtRepositoryCustom {
+    /**
+     * Crea la deuda del cliente con {@code amount} o, si ya existe para ese documento, le suma el monto.
+     * Devuelve el id de la deuda.
+     */
+    Long upsertCharge(Long userId, String documentNumber, String firstName, String lastName, String phone,
+                      BigDecimal amount);
+}
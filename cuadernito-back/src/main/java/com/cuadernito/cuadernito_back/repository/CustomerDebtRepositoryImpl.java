@@ -0,0 +1,94 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Alta o cargo de la deuda de un cliente en una sola sentencia sobre la clave única (user_id, document_number).
+ * En H2 el MERGE va dentro de {@code FINAL TABLE} para leer el id en el mismo statement; en MySQL
+ * {@code LAST_INSERT_ID(id)} hace que la clave generada sea la de la fila existente cuando se actualiza.
+ * El cargo sobre una deuda existente usa las mismas expresiones que {@code CustomerDebtRepository.addToTotal}.
+ */
+public class CustomerDebtRepositoryImpl implements CustomerDebtRepositoryCustom {
+
+    private static final String H2_UPSERT =
+            "SELECT id FROM FINAL TABLE (MERGE INTO customer_debts d " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(100)), " +
+            "CAST(? AS VARCHAR(20)), CAST(? AS DECIMAL(10,2)))) " +
+            "s(user_id, document_number, customer_first_name, customer_last_name, customer_phone, amount) " +
+            "ON d.user_id = s.user_id AND d.document_number = s.document_number " +
+            "WHEN MATCHED THEN UPDATE SET " +
+            "status = CASE WHEN d.total_amount + s.amount = 0 THEN 'PAGADO' " +
+            "WHEN d.paid_amount = 0 THEN 'PENDIENTE' " +
+            "WHEN d.paid_amount >= d.total_amount + s.amount THEN 'PAGADO' ELSE 'PARCIAL' END, " +
+            "remaining_amount = d.remaining_amount + s.amount, " +
+            "total_amount = d.total_amount + s.amount " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, document_number, customer_first_name, customer_last_name, " +
+            "customer_phone, total_amount, paid_amount, remaining_amount, status, created_at) " +
+            "VALUES (s.user_id, s.document_number, s.customer_first_name, s.customer_last_name, s.customer_phone, " +
+            "s.amount, 0, s.amount, 'PENDIENTE', CURRENT_TIMESTAMP))";
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO customer_debts (user_id, document_number, customer_first_name, customer_last_name, " +
+            "customer_phone, total_amount, paid_amount, remaining_amount, status, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, 0, ?, 'PENDIENTE', CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE id = LAST_INSERT_ID(id), " +
+            "status = CASE WHEN total_amount + VALUES(total_amount) = 0 THEN 'PAGADO' " +
+            "WHEN paid_amount = 0 THEN 'PENDIENTE' " +
+            "WHEN paid_amount >= total_amount + VALUES(total_amount) THEN 'PAGADO' ELSE 'PARCIAL' END, " +
+            "remaining_amount = remaining_amount + VALUES(total_amount), " +
+            "total_amount = total_amount + VALUES(total_amount)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile DatabaseVendor vendor;
+
+    @Override
+    public Long upsertCharge(Long userId, String documentNumber, String firstName, String lastName, String phone,
+                             BigDecimal amount) {
+        try {
+            return upsert(userId, documentNumber, firstName, lastName, phone, amount);
+        } catch (DuplicateKeyException e) {
+            // Dos altas simultáneas del mismo cliente: la que perdió encuentra la fila en el reintento.
+            return upsert(userId, documentNumber, firstName, lastName, phone, amount);
+        }
+    }
+
+    private Long upsert(Long userId, String documentNumber, String firstName, String lastName, String phone,
+                        BigDecimal amount) {
+        if (vendor() == DatabaseVendor.MYSQL) {
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(MYSQL_UPSERT, Statement.RETURN_GENERATED_KEYS);
+                ps.setLong(1, userId);
+                ps.setString(2, documentNumber);
+                ps.setString(3, firstName);
+                ps.setString(4, lastName);
+                ps.setString(5, phone);
+                ps.setBigDecimal(6, amount);
+                ps.setBigDecimal(7, amount);
+                return ps;
+            }, keyHolder);
+            return keyHolder.getKey().longValue();
+        }
+        return jdbcTemplate.queryForObject(H2_UPSERT, Long.class,
+                userId, documentNumber, firstName, lastName, phone, amount);
+    }
+
+    private DatabaseVendor vendor() {
+        DatabaseVendor current = vendor;
+        if (current == null) {
+            current = DatabaseVendor.of(jdbcTemplate);
+            vendor = current;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,53 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Variación a sumar sobre el resumen de un día. Los montos pueden ser negativos (al editar o borrar).
+ */
+@Data
+@AllArgsConstructor
+public class DailySummaryDelta {
+    private LocalDate day;
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal fiado;
+    private BigDecimal payments;
+    private int transactionCount;
+
+    public static DailySummaryDelta forTransaction(LocalDateTime date, TransactionType type, BigDecimal amount,
+                                                   BigDecimal debtAmount, int sign) {
+        BigDecimal signed = amount.multiply(BigDecimal.valueOf(sign));
+        BigDecimal fiado = debtAmount != null ? debtAmount.multiply(BigDecimal.valueOf(sign)) : BigDecimal.ZERO;
+        return new DailySummaryDelta(date.toLocalDate(),
+                type == TransactionType.INGRESO ? signed : BigDecimal.ZERO,
+                type == TransactionType.GASTO ? signed : BigDecimal.ZERO,
+                fiado,
+                BigDecimal.ZERO,
+                sign);
+    }
+
+    public static DailySummaryDelta forPayment(LocalDate day, BigDecimal amount) {
+        return new DailySummaryDelta(day, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, amount, 0);
+    }
+
+    public DailySummaryDelta add(DailySummaryDelta other) {
+        income = income.add(other.income);
+        expense = expense.add(other.expense);
+        fiado = fiado.add(other.fiado);
+        payments = payments.add(other.payments);
+        transactionCount += other.transactionCount;
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return income.signum() == 0 && expense.signum() == 0 && fiado.signum() == 0
+                && payments.signum() == 0 && transactionCount == 0;
+    }
+}
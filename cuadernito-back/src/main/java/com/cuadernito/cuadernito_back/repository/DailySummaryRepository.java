@@ -0,0 +1,25 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import com.cuadernito.cuadernito_back.entity.DailySummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailySummaryRepository extends JpaRepository<DailySummary, Long>, DailySummaryRepositoryCustom {
+    List<DailySummary> findByUserIdAndSummaryDateBetweenOrderBySummaryDate(Long userId, LocalDate from, LocalDate to);
+
+    @Query("SELECT COALESCE(SUM(d.incomeAmount - d.fiadoAmount + d.paymentsAmount - d.expenseAmount), 0) " +
+            "FROM DailySummary d WHERE d.userId = :userId AND d.summaryDate < :before")
+    BigDecimal sumCashFlowBefore(@Param("userId") Long userId, @Param("before") LocalDate before);
+
+    @Modifying
+    @Query("DELETE FROM DailySummary d WHERE d.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
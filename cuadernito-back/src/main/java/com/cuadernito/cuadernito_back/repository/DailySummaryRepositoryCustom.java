@@ -0,0 +1,20 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+public interface DailySummaryRepositoryCustom {
+    /**
+     * Toma la fila del usuario (SELECT ... FOR UPDATE) hasta el fin de la transacción, para que un recálculo
+     * no se cruce con una escritura que suma su delta. Las escrituras la piden antes de insertar nada: en MySQL
+     * un insert con FK a users ya toma un lock compartido sobre esa fila, y subirlo después termina en deadlock.
+     */
+    void lockForUser(Long userId);
+
+    void applyDelta(Long userId, DailySummaryDelta delta);
+    void applyDeltas(Long userId, Collection<DailySummaryDelta> deltas);
+
+    @Transactional
+    void rebuildForUser(Long userId);
+}
@@ -0,0 +1,147 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Upsert atómico en SQL: el incremento lo resuelve la base, sin leer la fila antes, así dos requests
+ * concurrentes sobre el mismo día nunca pierden una actualización. La sintaxis depende del motor
+ * (MERGE en H2, ON DUPLICATE KEY UPDATE en MySQL).
+ */
+public class DailySummaryRepositoryImpl implements DailySummaryRepositoryCustom {
+
+    private static final String H2_UPSERT =
+            "MERGE INTO daily_summary d " +
+            "USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS DECIMAL(14,2)), CAST(? AS DECIMAL(14,2)), " +
+            "CAST(? AS DECIMAL(14,2)), CAST(? AS DECIMAL(14,2)), CAST(? AS INTEGER))) " +
+            "s(user_id, summary_date, income_amount, expense_amount, fiado_amount, payments_amount, transaction_count) " +
+            "ON d.user_id = s.user_id AND d.summary_date = s.summary_date " +
+            "WHEN MATCHED THEN UPDATE SET income_amount = d.income_amount + s.income_amount, " +
+            "expense_amount = d.expense_amount + s.expense_amount, fiado_amount = d.fiado_amount + s.fiado_amount, " +
+            "payments_amount = d.payments_amount + s.payments_amount, " +
+            "transaction_count = d.transaction_count + s.transaction_count, updated_at = CURRENT_TIMESTAMP " +
+            "WHEN NOT MATCHED THEN INSERT (user_id, summary_date, income_amount, expense_amount, fiado_amount, " +
+            "payments_amount, transaction_count, updated_at) VALUES (s.user_id, s.summary_date, s.income_amount, " +
+            "s.expense_amount, s.fiado_amount, s.payments_amount, s.transaction_count, CURRENT_TIMESTAMP)";
+
+    private static final String MYSQL_UPSERT =
+            "INSERT INTO daily_summary (user_id, summary_date, income_amount, expense_amount, fiado_amount, " +
+            "payments_amount, transaction_count, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP) " +
+            "ON DUPLICATE KEY UPDATE income_amount = income_amount + VALUES(income_amount), " +
+            "expense_amount = expense_amount + VALUES(expense_amount), fiado_amount = fiado_amount + VALUES(fiado_amount), " +
+            "payments_amount = payments_amount + VALUES(payments_amount), " +
+            "transaction_count = transaction_count + VALUES(transaction_count), updated_at = CURRENT_TIMESTAMP";
+
+    private static final String LOCK_USER = "SELECT id FROM users WHERE id = ? FOR UPDATE";
+
+    private static final String RESET_TRANSACTION_TOTALS =
+            "UPDATE daily_summary SET income_amount = 0, expense_amount = 0, fiado_amount = 0, payments_amount = 0, " +
+            "transaction_count = 0 WHERE user_id = ?";
+
+    private static final String TRANSACTION_TOTALS_BY_DAY =
+            "SELECT CAST(t.date AS DATE) AS summary_date, " +
+            "SUM(CASE WHEN t.type = 'INGRESO' THEN t.amount ELSE 0 END) AS income_amount, " +
+            "SUM(CASE WHEN t.type = 'GASTO' THEN t.amount ELSE 0 END) AS expense_amount, " +
+            "SUM(COALESCE(t.debt_amount, 0)) AS fiado_amount, COUNT(*) AS transaction_count " +
+            "FROM transactions t WHERE t.user_id = ? GROUP BY CAST(t.date AS DATE)";
+
+    private static final String PAYMENT_TOTALS_BY_DAY =
+            "SELECT CAST(e.created_at AS DATE) AS summary_date, SUM(e.amount) AS payments_amount " +
+            "FROM debt_ledger_entries e WHERE e.user_id = ? AND e.type = 'PAGO' GROUP BY CAST(e.created_at AS DATE)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private volatile String upsertSql;
+
+    @Override
+    public void applyDelta(Long userId, DailySummaryDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        Object[] args = toArgs(userId, delta);
+        try {
+            jdbcTemplate.update(upsertSql(), args);
+        } catch (DuplicateKeyException e) {
+            // Otro request insertó el mismo día entre el chequeo y el insert: ahora la fila existe.
+            jdbcTemplate.update(upsertSql(), args);
+        }
+    }
+
+    @Override
+    public void applyDeltas(Long userId, Collection<DailySummaryDelta> deltas) {
+        upsertBatch(toBatch(userId, deltas));
+    }
+
+    /**
+     * Recalcula los totales del usuario: ingresos, gastos y fiado desde las transacciones,
+     * cobros desde los pagos del registro de deudas. Con la fila del usuario tomada, una escritura concurrente
+     * o ya terminó (y las consultas la ven) o espera a que termine el recálculo para sumar su delta. Los días que
+     * quedan en cero se conservan, igual que cuando una baja o una edición vacía un día: así el recálculo deja la
+     * misma tabla que los deltas.
+     */
+    @Override
+    public void rebuildForUser(Long userId) {
+        lockForUser(userId);
+        jdbcTemplate.update(RESET_TRANSACTION_TOTALS, userId);
+        List<DailySummaryDelta> totals = jdbcTemplate.query(TRANSACTION_TOTALS_BY_DAY, (rs, rowNum) -> new DailySummaryDelta(
+                rs.getDate("summary_date").toLocalDate(),
+                rs.getBigDecimal("income_amount"),
+                rs.getBigDecimal("expense_amount"),
+                rs.getBigDecimal("fiado_amount"),
+                BigDecimal.ZERO,
+                rs.getInt("transaction_count")), userId);
+        List<DailySummaryDelta> payments = jdbcTemplate.query(PAYMENT_TOTALS_BY_DAY, (rs, rowNum) -> DailySummaryDelta.forPayment(
+                rs.getDate("summary_date").toLocalDate(),
+                rs.getBigDecimal("payments_amount")), userId);
+        upsertBatch(toBatch(userId, totals));
+        upsertBatch(toBatch(userId, payments));
+    }
+
+    @Override
+    public void lockForUser(Long userId) {
+        jdbcTemplate.queryForList(LOCK_USER, Long.class, userId);
+    }
+
+    private List<Object[]> toBatch(Long userId, Collection<DailySummaryDelta> deltas) {
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        for (DailySummaryDelta delta : deltas) {
+            if (!delta.isEmpty()) {
+                batch.add(toArgs(userId, delta));
+            }
+        }
+        return batch;
+    }
+
+    private void upsertBatch(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            jdbcTemplate.batchUpdate(upsertSql(), batch);
+        } catch (DuplicateKeyException e) {
+            batch.forEach(args -> jdbcTemplate.update(upsertSql(), args));
+        }
+    }
+
+    private Object[] toArgs(Long userId, DailySummaryDelta delta) {
+        return new Object[]{userId, Date.valueOf(delta.getDay()), delta.getIncome(), delta.getExpense(),
+                delta.getFiado(), delta.getPayments(), delta.getTransactionCount()};
+    }
+
+    private String upsertSql() {
+        String sql = upsertSql;
+        if (sql == null) {
+            sql = DatabaseVendor.of(jdbcTemplate) == DatabaseVendor.MYSQL ? MYSQL_UPSERT : H2_UPSERT;
+            upsertSql = sql;
+        }
+        return sql;
+    }
+}
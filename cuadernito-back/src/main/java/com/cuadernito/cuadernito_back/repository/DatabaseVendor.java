@@ -0,0 +1,18 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Motores con SQL propio en los fragmentos JDBC de los repositorios. Todo lo que no es MySQL se trata como H2.
+ */
+public enum DatabaseVendor {
+    H2,
+    MYSQL;
+
+    public static DatabaseVendor of(JdbcTemplate jdbcTemplate) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql") ? MYSQL : H2;
+    }
+}
@@ -0,0 +1,16 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import com.cuadernito.cuadernito_back.entity.DebtBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DebtBalanceCheckpointRepository extends JpaRepository<DebtBalanceCheckpoint, Long> {
+    @Modifying
+    @Query("DELETE FROM DebtBalanceCheckpoint c WHERE c.customerDebtId IN " +
+            "(SELECT d.id FROM CustomerDebt d WHERE d.user.id = :userId)")
+    void deleteByUserId(@Param("userId") Long userId);
+}
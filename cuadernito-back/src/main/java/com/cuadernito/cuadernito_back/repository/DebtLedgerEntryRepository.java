@@ -0,0 +1,41 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry.EntryType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DebtLedgerEntryRepository extends JpaRepository<DebtLedgerEntry, Long>, DebtLedgerEntryRepositoryCustom {
+    List<DebtLedgerEntry> findByCustomerDebtIdAndTypeOrderByIdDesc(Long customerDebtId, EntryType type, Limit limit);
+
+    List<DebtLedgerEntry> findByCustomerDebtIdAndTypeAndIdLessThanOrderByIdDesc(Long customerDebtId, EntryType type,
+                                                                               Long id, Limit limit);
+
+    List<DebtLedgerEntry> findByCustomerDebtIdAndIdGreaterThanOrderById(Long customerDebtId, Long id);
+
+    long countByCustomerDebtIdAndIdGreaterThan(Long customerDebtId, Long id);
+
+    @Query("SELECT MAX(e.id) FROM DebtLedgerEntry e")
+    Optional<Long> findMaxId();
+
+    /**
+     * Deudas con movimientos en el rango de ids (afterId, upToId]; recorre la clave primaria, no el registro entero.
+     */
+    @Query("SELECT DISTINCT e.customerDebtId FROM DebtLedgerEntry e WHERE e.id > :afterId AND e.id <= :upToId")
+    List<Long> findDebtIdsWithEntriesBetween(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+
+    /**
+     * Solo al eliminar la cuenta: es la única baja de movimientos.
+     */
+    @Modifying
+    @Query("DELETE FROM DebtLedgerEntry e WHERE e.userId = :userId")
+    void deleteByUserId(@Param("userId") Long userId);
+}
@@ -0,0 +1,13 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry;
+
+import java.util.List;
+
+public interface DebtLedgerEntryRepositoryCustom {
+    /**
+     * Inserta los movimientos en lotes JDBC. Con id AUTO_INCREMENT Hibernate inserta de a uno, y una importación
+     * puede traer miles de cargos.
+     */
+    void insertAll(List<DebtLedgerEntry> entries);
+}
@@ -0,0 +1,45 @@
+package com.cuadernito.cuadernito_back.repository;
+
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class DebtLedgerEntryRepositoryImpl implements DebtLedgerEntryRepositoryCustom {
+
+    private static final String INSERT_ENTRY =
+            "INSERT INTO debt_ledger_entries (customer_debt_id, user_id, type, amount, paid_amount, transaction_id, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<DebtLedgerEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_ENTRY, entries, batchSize, (ps, entry) -> {
+            ps.setLong(1, entry.getCustomerDebtId());
+            ps.setLong(2, entry.getUserId());
+            ps.setString(3, entry.getType().name());
+            ps.setBigDecimal(4, entry.getAmount());
+            ps.setBigDecimal(5, entry.getPaidAmount());
+            if (entry.getTransactionId() != null) {
+                ps.setLong(6, entry.getTransactionId());
+            } else {
+                ps.setNull(6, Types.BIGINT);
+            }
+            ps.setTimestamp(7, createdAt);
+        });
+    }
+}
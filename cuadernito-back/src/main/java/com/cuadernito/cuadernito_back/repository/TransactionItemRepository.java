@@ -1,13 +1,58 @@
 package com.cuadernito.cuadernito_back.repository;
 
+import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
 import com.cuadernito.cuadernito_back.entity.TransactionItem;
+import com.cuadernito.cuadernito_back.repository.projection.CategoryTotalRow;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionExportRow;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionItemRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionItemRepository extends JpaRepository<TransactionItem, Long> {
     List<TransactionItem> findByTransactionId(Long transactionId);
+
+    @Query("SELECT new com.cuadernito.cuadernito_back.repository.projection.TransactionItemRow(" +
+            "i.id, i.transaction.id, i.category.id, i.amount, i.createdAt) " +
+            "FROM TransactionItem i WHERE i.transaction.id IN :transactionIds ORDER BY i.id")
+    List<TransactionItemRow> findRowsByTransactionIdIn(@Param("transactionIds") Collection<Long> transactionIds);
+
+    @Query("SELECT new com.cuadernito.cuadernito_back.repository.projection.CategoryTotalRow(" +
+            "c.id, c.name, t.type, SUM(i.amount), COUNT(i)) " +
+            "FROM TransactionItem i JOIN i.transaction t JOIN i.category c " +
+            "WHERE t.user.id = :userId AND t.date >= :from AND t.date < :to " +
+            "AND (:type IS NULL OR t.type = :type) " +
+            "GROUP BY c.id, c.name, t.type " +
+            "ORDER BY SUM(i.amount) DESC")
+    List<CategoryTotalRow> sumByCategory(@Param("userId") Long userId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to,
+                                         @Param("type") TransactionType type);
+
+    @Query("SELECT new com.cuadernito.cuadernito_back.repository.projection.TransactionExportRow(" +
+            "t.id, t.date, t.type, t.amount, t.description, t.user.id, d.id, t.debtAmount, " +
+            "d.customerFirstName, d.customerLastName, d.customerPhone, d.documentNumber, t.createdAt, " +
+            "i.id, c.id, c.name, i.amount, i.createdAt) " +
+            "FROM TransactionItem i JOIN i.transaction t JOIN i.category c LEFT JOIN t.customerDebt d " +
+            "WHERE t.user.id = :userId AND t.date >= :from AND t.date < :to " +
+            "ORDER BY t.date, t.id, i.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<TransactionExportRow> streamExportRows(@Param("userId") Long userId,
+                                                  @Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
     void deleteByTransactionId(Long transactionId);
 }
@@ -1,21 +1,50 @@
 package com.cuadernito.cuadernito_back.repository;
 
 import com.cuadernito.cuadernito_back.entity.Transaction;
+import com.cuadernito.cuadernito_back.repository.projection.DailyTotalRow;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.items WHERE t.user.id = :userId")
-    List<Transaction> findByUserId(@Param("userId") Long userId);
+    String ROW_SELECT = "SELECT new com.cuadernito.cuadernito_back.repository.projection.TransactionRow(" +
+            "t.id, t.amount, t.description, t.type, t.date, t.user.id, d.id, t.debtAmount, " +
+            "d.customerFirstName, d.customerLastName, d.customerPhone, d.documentNumber, t.createdAt) " +
+            "FROM Transaction t LEFT JOIN t.customerDebt d ";
+
+    @Query(ROW_SELECT + "WHERE t.user.id = :userId ORDER BY t.date DESC, t.id DESC")
+    List<TransactionRow> findFirstPageRowsByUserId(@Param("userId") Long userId, Limit limit);
+
+    @Query(ROW_SELECT + "WHERE t.user.id = :userId " +
+            "AND (t.date < :date OR (t.date = :date AND t.id < :id)) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<TransactionRow> findPageRowsByUserIdBefore(@Param("userId") Long userId,
+                                                    @Param("date") LocalDateTime date,
+                                                    @Param("id") Long id,
+                                                    Limit limit);
+
+    @Query(ROW_SELECT + "WHERE t.id = :id AND t.user.id = :userId")
+    Optional<TransactionRow> findRowByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
     
     @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.items WHERE t.id = :id AND t.user.id = :userId")
     Optional<Transaction> findByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
     
     boolean existsByIdAndUserId(Long id, Long userId);
+
+    @Query("SELECT new com.cuadernito.cuadernito_back.repository.projection.DailyTotalRow(" +
+            "cast(t.date as LocalDate), t.type, SUM(t.amount), COUNT(t)) " +
+            "FROM Transaction t WHERE t.user.id = :userId AND t.date >= :from AND t.date < :to " +
+            "GROUP BY cast(t.date as LocalDate), t.type " +
+            "ORDER BY cast(t.date as LocalDate)")
+    List<DailyTotalRow> sumByDayAndType(@Param("userId") Long userId,
+                                        @Param("from") LocalDateTime from,
+                                        @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,15 @@
+package com.cuadernito.cuadernito_back.repository.projection;
+
+import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+@Value
+public class CategoryTotalRow {
+    Long categoryId;
+    String categoryName;
+    TransactionType type;
+    BigDecimal total;
+    Long itemCount;
+}
@@ -0,0 +1,15 @@
+package com.cuadernito.cuadernito_back.repository.projection;
+
+import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Value
+public class DailyTotalRow {
+    LocalDate day;
+    TransactionType type;
+    BigDecimal total;
+    Long transactionCount;
+}
@@ -0,0 +1,33 @@
+package com.cuadernito.cuadernito_back.repository.projection;
+
+import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Una fila por item de transacción, con los datos de la transacción y del cliente repetidos.
+ * Las filas llegan ordenadas por transacción para poder agruparlas mientras se recorren.
+ */
+@Value
+public class TransactionExportRow {
+    Long transactionId;
+    LocalDateTime date;
+    TransactionType type;
+    BigDecimal amount;
+    String description;
+    Long userId;
+    Long customerDebtId;
+    BigDecimal debtAmount;
+    String customerFirstName;
+    String customerLastName;
+    String customerPhone;
+    String customerDocumentNumber;
+    LocalDateTime createdAt;
+    Long itemId;
+    Long categoryId;
+    String categoryName;
+    BigDecimal itemAmount;
+    LocalDateTime itemCreatedAt;
+}
@@ -0,0 +1,15 @@
+package com.cuadernito.cuadernito_back.repository.projection;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Value
+public class TransactionItemRow {
+    Long id;
+    Long transactionId;
+    Long categoryId;
+    BigDecimal amount;
+    LocalDateTime createdAt;
+}
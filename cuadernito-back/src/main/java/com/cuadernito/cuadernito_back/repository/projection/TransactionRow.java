@@ -0,0 +1,28 @@
+package com.cuadernito.cuadernito_back.repository.projection;
+
+import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fila de lectura de una transacción con los datos del cliente fiado ya resueltos por JOIN.
+ * No es una entidad administrada: no pasa por dirty checking ni genera proxies lazy.
+ */
+@Value
+public class TransactionRow {
+    Long id;
+    BigDecimal amount;
+    String description;
+    TransactionType type;
+    LocalDateTime date;
+    Long userId;
+    Long customerDebtId;
+    BigDecimal debtAmount;
+    String customerFirstName;
+    String customerLastName;
+    String customerPhone;
+    String customerDocumentNumber;
+    LocalDateTime createdAt;
+}
@@ -0,0 +1,277 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.config.DatabaseAdmissionInterceptor;
+import com.cuadernito.cuadernito_back.exception.ErrorResponse;
+import com.cuadernito.cuadernito_back.exception.ServiceUnavailableException;
+import com.cuadernito.cuadernito_back.security.IdempotencyStore.Claim;
+import com.cuadernito.cuadernito_back.security.IdempotencyStore.StoredResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Aplica el header Idempotency-Key al alta de transacciones y al registro de pagos. Un reintento con la misma
+ * clave recibe la respuesta guardada sin llegar al controller; si la clave se reutiliza con otro cuerpo se
+ * responde 422. Corre después de la cadena de Spring Security, así que las claves se aíslan por usuario.
+ * Con hilos virtuales toma el permiso de {@link DatabaseAdmissionInterceptor} antes de reservar la clave y lo
+ * conserva hasta guardar la respuesta: el handler lo comparte y un duplicado que espera al original también ocupa uno.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 100;
+    private static final Pattern PAYMENTS_PATH = Pattern.compile("/api/v1/customer-debts/\\d+/payments");
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired(required = false)
+    private DatabaseAdmissionInterceptor admission;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || !StringUtils.hasText(request.getHeader(HEADER))) {
+            return true;
+        }
+        String path = request.getServletPath();
+        return !path.equals("/api/v1/transactions") && !PAYMENTS_PATH.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser user)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String key = request.getHeader(HEADER).trim();
+        if (key.length() > MAX_KEY_LENGTH) {
+            writeError(request, response, HttpStatus.BAD_REQUEST, "Solicitud Incorrecta",
+                    "El header " + HEADER + " no puede superar " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        String requestHash = hash(request, cachedRequest.body);
+
+        if (admission != null) {
+            try {
+                admission.admit(request);
+            } catch (ServiceUnavailableException e) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(request, response, HttpStatus.SERVICE_UNAVAILABLE, "Servicio No Disponible", e.getMessage());
+                return;
+            }
+        }
+        try {
+            processOnce(cachedRequest, response, filterChain, user, key, requestHash);
+        } finally {
+            if (admission != null) {
+                admission.release(request);
+            }
+        }
+    }
+
+    private void processOnce(CachedBodyRequest request, HttpServletResponse response, FilterChain filterChain,
+                               AuthenticatedUser user, String key, String requestHash)
+            throws ServletException, IOException {
+        Claim claim;
+        try {
+            claim = store.acquireOrReplay(user.getId(), key, requestHash);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException(e);
+        }
+        if (claim.timedOut()) {
+            writeError(request, response, HttpStatus.CONFLICT, "Conflicto",
+                    "Hay una solicitud con la misma " + HEADER + " en curso. Reintente más tarde");
+            return;
+        }
+        if (!claim.acquired()) {
+            replay(request, response, claim.response(), requestHash);
+            return;
+        }
+
+        Set<String> presetHeaders = new HashSet<>(response.getHeaderNames());
+        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        boolean handled = false;
+        try {
+            filterChain.doFilter(request, cachedResponse);
+            if (cachedResponse.getStatus() < 500) {
+                // La operación ya se confirmó: aunque no se pueda guardar la respuesta, la clave no se libera.
+                handled = true;
+                try {
+                    store.complete(user.getId(), key, new StoredResponse(requestHash, cachedResponse.getStatus(),
+                            cachedResponse.getContentType(), handlerHeaders(cachedResponse, presetHeaders),
+                            new String(cachedResponse.getContentAsByteArray(), StandardCharsets.UTF_8)));
+                } catch (RuntimeException e) {
+                    logger.error("No se pudo guardar la respuesta de la " + HEADER + " " + key, e);
+                }
+            }
+        } finally {
+            if (!handled) {
+                store.release(user.getId(), key);
+            }
+            cachedResponse.copyBodyToResponse();
+        }
+    }
+
+    private void replay(HttpServletRequest request, HttpServletResponse response, StoredResponse stored,
+                        String requestHash) throws IOException {
+        if (!stored.requestHash().equals(requestHash)) {
+            writeError(request, response, HttpStatus.UNPROCESSABLE_ENTITY, "Solicitud No Procesable",
+                    "La " + HEADER + " ya se usó con una solicitud distinta");
+            return;
+        }
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        stored.headers().forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.body() != null ? stored.body().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Headers que agregó la cadena después de este filtro. Los anteriores (seguridad, CORS) se vuelven a escribir
+     * en el reintento, y Content-Type y Content-Length se guardan aparte.
+     */
+    private Map<String, List<String>> handlerHeaders(HttpServletResponse response, Set<String> presetHeaders) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : response.getHeaderNames()) {
+            if (!presetHeaders.contains(name)
+                    && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)
+                    && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return headers;
+    }
+
+    private void writeError(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                            String error, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(error)
+                .message(message)
+                .path(request.getRequestURI())
+                .build());
+    }
+
+    private String hash(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethod() + " " + request.getRequestURI() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Lee el cuerpo completo antes de procesar el request: hace falta para el hash y el controller lo vuelve a leer.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                /**
+                 * El cuerpo ya está en memoria: todo está disponible desde el principio, así que se avisa en el acto.
+                 */
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        if (!isFinished()) {
+                            readListener.onDataAvailable();
+                        }
+                        if (isFinished()) {
+                            readListener.onAllDataRead();
+                        }
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return input.read(b, off, len);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+        }
+    }
+}
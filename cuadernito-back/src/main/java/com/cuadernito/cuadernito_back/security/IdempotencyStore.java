@@ -0,0 +1,232 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.entity.IdempotencyRecord;
+import com.cuadernito.cuadernito_back.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Respuestas por Idempotency-Key en dos niveles: una cache en memoria con las ya completadas y la tabla
+ * idempotency_keys, que reserva la clave entre instancias con su restricción única. Los duplicados que llegan
+ * a la misma instancia mientras la original está en curso esperan su future en lugar de consultar la base.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final long REMOTE_POLL_MS = 100;
+    private static final TypeReference<Map<String, List<String>>> HEADERS_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${idempotency.ttl-hours:24}")
+    private long ttlHours;
+
+    @Value("${idempotency.cache.max-size:10000}")
+    private long cacheMaxSize;
+
+    @Value("${idempotency.wait-timeout-ms:10000}")
+    private long waitTimeoutMs;
+
+    @Value("${idempotency.pending-timeout-seconds:60}")
+    private long pendingTimeoutSeconds;
+
+    private Cache<String, StoredResponse> completed;
+
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .build();
+    }
+
+    /**
+     * Reserva la clave para este request o devuelve la respuesta ya guardada. Si otro request con la
+     * misma clave está en curso, espera a que termine; si termina sin respuesta, vuelve a intentar la reserva.
+     */
+    public Claim acquireOrReplay(Long userId, String key, String requestHash) throws InterruptedException {
+        String cacheKey = cacheKey(userId, key);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(waitTimeoutMs);
+        while (true) {
+            StoredResponse cached = completed.getIfPresent(cacheKey);
+            if (cached != null) {
+                return Claim.replay(cached);
+            }
+
+            CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+            CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running != null) {
+                try {
+                    StoredResponse response = running.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    if (response != null) {
+                        return Claim.replay(response);
+                    }
+                    continue;
+                } catch (TimeoutException e) {
+                    return Claim.timeout();
+                } catch (ExecutionException e) {
+                    continue;
+                }
+            }
+
+            try {
+                Optional<IdempotencyRecord> existing = repository.findByUserIdAndIdempotencyKey(userId, key);
+                if (existing.isPresent() && isReusable(existing.get())) {
+                    IdempotencyRecord record = existing.get();
+                    if (record.getStatusCode() != null) {
+                        StoredResponse response = toStoredResponse(record);
+                        completed.put(cacheKey, response);
+                        finish(cacheKey, mine, response);
+                        return Claim.replay(response);
+                    }
+                    // Reservada por otra instancia: se consulta la base hasta que la complete o la libere.
+                    finish(cacheKey, mine, null);
+                    if (System.nanoTime() >= deadline) {
+                        return Claim.timeout();
+                    }
+                    Thread.sleep(REMOTE_POLL_MS);
+                    continue;
+                }
+                existing.ifPresent(stale -> repository.release(userId, key));
+
+                try {
+                    repository.saveAndFlush(IdempotencyRecord.builder()
+                            .userId(userId)
+                            .idempotencyKey(key)
+                            .requestHash(requestHash)
+                            .expiresAt(LocalDateTime.now().plusHours(ttlHours))
+                            .build());
+                    return Claim.granted();
+                } catch (DataIntegrityViolationException e) {
+                    finish(cacheKey, mine, null);
+                }
+            } catch (RuntimeException e) {
+                finish(cacheKey, mine, null);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Guarda la respuesta primero en memoria: si después falla la base, la operación ya se ejecutó y los
+     * reintentos que llegan a esta instancia la reciben igual. La reserva en idempotency_keys queda pendiente.
+     */
+    public void complete(Long userId, String key, StoredResponse response) {
+        String cacheKey = cacheKey(userId, key);
+        completed.put(cacheKey, response);
+        try {
+            repository.complete(userId, key, response.status(), response.contentType(),
+                    writeHeaders(response.headers()), response.body());
+        } finally {
+            finish(cacheKey, inFlight.get(cacheKey), response);
+        }
+    }
+
+    /**
+     * Libera la clave sin guardar respuesta (error del servidor): el próximo reintento se procesa de nuevo.
+     */
+    public void release(Long userId, String key) {
+        String cacheKey = cacheKey(userId, key);
+        try {
+            repository.release(userId, key);
+        } finally {
+            finish(cacheKey, inFlight.get(cacheKey), null);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        repository.deleteExpired(LocalDateTime.now());
+    }
+
+    private boolean isReusable(IdempotencyRecord record) {
+        if (record.getExpiresAt().isBefore(LocalDateTime.now())) {
+            return false;
+        }
+        return record.getStatusCode() != null
+                || record.getCreatedAt().isAfter(LocalDateTime.now().minusSeconds(pendingTimeoutSeconds));
+    }
+
+    private void finish(String cacheKey, CompletableFuture<StoredResponse> future, StoredResponse response) {
+        if (future != null) {
+            inFlight.remove(cacheKey, future);
+            future.complete(response);
+        }
+    }
+
+    private StoredResponse toStoredResponse(IdempotencyRecord record) {
+        return new StoredResponse(record.getRequestHash(), record.getStatusCode(), record.getContentType(),
+                readHeaders(record.getResponseHeaders()), record.getResponseBody());
+    }
+
+    private String writeHeaders(Map<String, List<String>> headers) {
+        try {
+            return objectMapper.writeValueAsString(headers);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, List<String>> readHeaders(String json) {
+        if (json == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(json, HEADERS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+
+    /**
+     * {@code headers} son los que puso el handler; Content-Type va aparte.
+     */
+    public record StoredResponse(String requestHash, int status, String contentType, Map<String, List<String>> headers,
+                                 String body) {
+    }
+
+    public record Claim(boolean acquired, boolean timedOut, StoredResponse response) {
+        static Claim granted() {
+            return new Claim(true, false, null);
+        }
+
+        static Claim replay(StoredResponse response) {
+            return new Claim(false, false, response);
+        }
+
+        static Claim timeout() {
+            return new Claim(false, true, null);
+        }
+    }
+}
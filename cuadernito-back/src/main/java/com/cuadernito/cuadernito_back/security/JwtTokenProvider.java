@@ -1,60 +1,179 @@
 package com.cuadernito.cuadernito_back.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.time.Clock;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtTokenProvider {
 
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLE_CLAIM = "role";
+    public static final String TYPE_CLAIM = "typ";
+    public static final String ACCESS_TYPE = "access";
+    public static final String REFRESH_TYPE = "refresh";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpirationMs;
+
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    private Clock clock = Clock.systemUTC();
+
+    private SecretKey signingKey;
+
+    private JwtParser jwtParser;
+
+    private Cache<String, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .clock(this::now)
+                .build();
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(new ExpireAtTokenExpiration())
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
-        UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-        Date now = new Date();
+        return generateAccessToken((AuthenticatedUser) authentication.getPrincipal());
+    }
+
+    public String generateAccessToken(AuthenticatedUser user) {
+        Date now = now();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
-                .subject(userDetails.getUsername())
+                .id(UUID.randomUUID().toString())
+                .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(ROLE_CLAIM, user.getRole().name())
+                .claim(TYPE_CLAIM, ACCESS_TYPE)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public String generateRefreshToken(AuthenticatedUser user, String jti, Date expiryDate) {
+        return Jwts.builder()
+                .id(jti)
+                .subject(user.getUsername())
+                .claim(USER_ID_CLAIM, user.getId())
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .issuedAt(now())
+                .expiration(expiryDate)
+                .signWith(signingKey)
+                .compact();
+    }
 
-        return claims.getSubject();
+    public Date nextRefreshExpiration() {
+        return new Date(clock.millis() + refreshExpirationMs);
     }
 
-    public boolean validateToken(String token) {
+    public long getAccessTokenExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    /**
+     * Los refresh tokens se verifican siempre contra la firma y no pasan por la caché:
+     * se usan una sola vez y su estado real vive en la base.
+     */
+    public Optional<Claims> parseRefreshClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            return REFRESH_TYPE.equals(claims.get(TYPE_CLAIM, String.class)) ? Optional.of(claims) : Optional.empty();
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Verifica la firma y la expiración del token una sola vez y devuelve sus claims.
+     * Los tokens ya verificados se sirven desde memoria hasta su {@code exp}, que se vuelve a mirar en cada
+     * acierto: la cache vence las entradas con su propio reloj y puede retenerlas unos instantes más.
+     */
+    public Optional<Claims> parseClaims(String token) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        Claims cached = verifiedClaims.getIfPresent(token);
+        if (cached != null) {
+            // Mismo criterio que el parser: vence recién cuando el reloj pasa el exp.
+            if (!now().after(cached.getExpiration())) {
+                return Optional.of(cached);
+            }
+            verifiedClaims.invalidate(token);
+            return Optional.empty();
+        }
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedClaims.put(token, claims);
+            }
+            return Optional.of(claims);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String getUsernameFromToken(String token) {
+        return parseClaims(token)
+                .map(Claims::getSubject)
+                .orElseThrow(() -> new JwtException("Token JWT inválido"));
+    }
+
+    public boolean validateToken(String token) {
+        return parseClaims(token).isPresent();
+    }
+
+    private Date now() {
+        return new Date(clock.millis());
+    }
+
+    private final class ExpireAtTokenExpiration implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String token, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - clock.millis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMs));
+        }
+
+        @Override
+        public long expireAfterUpdate(String token, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(token, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String token, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
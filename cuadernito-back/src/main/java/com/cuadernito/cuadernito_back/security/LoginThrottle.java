@@ -0,0 +1,104 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limita los intentos de login por email y por IP antes de calcular cualquier hash.
+ * Los buckets viven en una cache acotada que descarta las claves inactivas. Buckets y cache usan el mismo
+ * {@link Ticker} como reloj, que los tests reemplazan.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final String TOO_MANY_ATTEMPTS = "Demasiados intentos de inicio de sesión. Intente nuevamente más tarde";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${security.login-throttle.email.capacity:5}")
+    private int emailCapacity;
+
+    @Value("${security.login-throttle.email.refill-seconds:300}")
+    private long emailRefillSeconds;
+
+    @Value("${security.login-throttle.ip.capacity:30}")
+    private int ipCapacity;
+
+    @Value("${security.login-throttle.ip.refill-seconds:60}")
+    private long ipRefillSeconds;
+
+    @Value("${security.login-throttle.max-keys:100000}")
+    private long maxKeys;
+
+    @Value("${security.login-throttle.idle-eviction-seconds:900}")
+    private long idleEvictionSeconds;
+
+    private Ticker ticker = Ticker.systemTicker();
+
+    private Cache<String, TokenBucket> emailBuckets;
+    private Cache<String, TokenBucket> ipBuckets;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        emailBuckets = newBucketCache();
+        ipBuckets = newBucketCache();
+        rejectedCounter = Counter.builder("cuadernito.login.throttled")
+                .description("Intentos de login rechazados por exceso de intentos")
+                .register(meterRegistry);
+    }
+
+    public void checkAttempt(String email, String clientIp) {
+        if (!enabled) {
+            return;
+        }
+        long now = ticker.read();
+        if (clientIp != null) {
+            consume(ipBuckets, clientIp, ipCapacity, ipRefillSeconds, now);
+        }
+        if (email != null) {
+            consume(emailBuckets, normalize(email), emailCapacity, emailRefillSeconds, now);
+        }
+    }
+
+    public void onSuccessfulLogin(String email) {
+        if (email != null) {
+            emailBuckets.invalidate(normalize(email));
+        }
+    }
+
+    private void consume(Cache<String, TokenBucket> buckets, String key, int capacity, long refillSeconds, long now) {
+        TokenBucket bucket = buckets.get(key, k -> new TokenBucket(capacity, Duration.ofSeconds(refillSeconds).toNanos(), now));
+        if (!bucket.tryConsume(now)) {
+            rejectedCounter.increment();
+            throw new TooManyRequestsException(TOO_MANY_ATTEMPTS, bucket.secondsUntilNextToken(now));
+        }
+    }
+
+    private Cache<String, TokenBucket> newBucketCache() {
+        return Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(idleEvictionSeconds))
+                .ticker(ticker)
+                .build();
+    }
+
+    private String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,54 @@
+package com.cuadernito.cuadernito_back.security;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token bucket sin locks: el estado (tokens, último refill) es inmutable y se reemplaza con CAS.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final AtomicReference<State> state;
+
+    TokenBucket(int capacity, long refillPeriodNanos, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) refillPeriodNanos;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    boolean tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double available = refill(current, nowNanos);
+            if (available < 1) {
+                return false;
+            }
+            if (state.compareAndSet(current, new State(available - 1, nowNanos))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Redondea hacia arriba: un cliente que espera lo indicado encuentra el token disponible.
+     */
+    long secondsUntilNextToken(long nowNanos) {
+        double missing = 1 - refill(state.get(), nowNanos);
+        if (missing <= 0) {
+            return 0;
+        }
+        long nanos = (long) Math.ceil(missing / tokensPerNano);
+        long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (nanos + nanosPerSecond - 1) / nanosPerSecond);
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.lastRefillNanos());
+        return Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+    }
+
+    private record State(double tokens, long lastRefillNanos) {
+    }
+}
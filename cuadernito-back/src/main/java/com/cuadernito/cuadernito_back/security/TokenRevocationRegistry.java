@@ -0,0 +1,109 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.entity.RevokedToken;
+import com.cuadernito.cuadernito_back.repository.RefreshTokenRepository;
+import com.cuadernito.cuadernito_back.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Set en memoria de los jti de access tokens revocados, respaldado por la tabla revoked_tokens.
+ * El filtro JWT lo consulta en cada request sin ir a la base: el Bloom filter descarta en O(1)
+ * casi todos los tokens válidos y el mapa exacto confirma los positivos.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.revocation.expected-entries:100000}")
+    private long expectedEntries;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter bloomFilter;
+
+    /**
+     * Ordena las escrituras en el Bloom filter contra su reconstrucción: sin él, un jti agregado al filtro viejo
+     * después de copiar las claves se perdería con el reemplazo. Las lecturas no lo toman.
+     */
+    private final Object bloomFilterLock = new Object();
+
+    private volatile LocalDateTime lastSync = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    @PostConstruct
+    void init() {
+        bloomFilter = new BloomFilter(expectedEntries, falsePositiveRate);
+        syncFromDatabase();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        return bloomFilter.mightContain(jti) && revoked.containsKey(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.isBefore(Instant.now())) {
+            return;
+        }
+        if (!revokedTokenRepository.existsByJti(jti)) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .jti(jti)
+                    .expiresAt(LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()))
+                    .build());
+        }
+        add(jti, expiresAt);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:60000}")
+    @Transactional
+    public void purgeAndSync() {
+        Instant now = Instant.now();
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        boolean removed = revoked.entrySet().removeIf(entry -> entry.getValue().isBefore(now));
+        if (removed) {
+            synchronized (bloomFilterLock) {
+                BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, revoked.size() * 2L), falsePositiveRate);
+                revoked.keySet().forEach(rebuilt::put);
+                bloomFilter = rebuilt;
+            }
+        }
+        syncFromDatabase();
+    }
+
+    private void syncFromDatabase() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfterAndCreatedAtAfter(syncStart, lastSync.minusMinutes(1))) {
+            add(token.getJti(), token.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant());
+        }
+        lastSync = syncStart;
+    }
+
+    private void add(String jti, Instant expiresAt) {
+        synchronized (bloomFilterLock) {
+            revoked.put(jti, expiresAt);
+            bloomFilter.put(jti);
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.cuadernito.cuadernito_back.dto.UserDTO;
 import com.cuadernito.cuadernito_back.dto.auth.*;
 
 public interface AuthService {
-    JwtResponse login(LoginRequest loginRequest);
+    JwtResponse login(LoginRequest loginRequest, String clientIp);
+    JwtResponse refresh(RefreshTokenRequest request);
+    void logout(String accessToken, LogoutRequest request);
     UserDTO register(RegisterRequest registerRequest);
     void forgotPassword(ForgotPasswordRequest request);
     void resetPassword(ResetPasswordRequest request);
@@ -1,12 +1,13 @@
 package com.cuadernito.cuadernito_back.service;
 
 import com.cuadernito.cuadernito_back.dto.CategoryDTO;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 
 import java.util.List;
 
 public interface CategoryService {
-    CategoryDTO createCategory(CategoryDTO categoryDTO, String userEmail);
-    CategoryDTO getCategoryById(Long id, String userEmail);
-    List<CategoryDTO> getAllCategoriesByUser(String userEmail);
-    CategoryDTO updateCategory(Long id, CategoryDTO categoryDTO, String userEmail);
+    CategoryDTO createCategory(CategoryDTO categoryDTO, AuthenticatedUser currentUser);
+    CategoryDTO getCategoryById(Long id, AuthenticatedUser currentUser);
+    List<CategoryDTO> getAllCategoriesByUser(AuthenticatedUser currentUser);
+    CategoryDTO updateCategory(Long id, CategoryDTO categoryDTO, AuthenticatedUser currentUser);
 }
@@ -1,15 +1,18 @@
 package com.cuadernito.cuadernito_back.service;
 
 import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.dto.DebtPaymentPageDTO;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 
 import java.math.BigDecimal;
 import java.util.List;
 
 public interface CustomerDebtService {
-    CustomerDebtDTO createCustomerDebt(CustomerDebtDTO customerDebtDTO, String userEmail);
-    CustomerDebtDTO getCustomerDebtById(Long id, String userEmail);
-    List<CustomerDebtDTO> getAllCustomerDebtsByUser(String userEmail);
-    CustomerDebtDTO updateCustomerDebt(Long id, CustomerDebtDTO customerDebtDTO, String userEmail);
-    CustomerDebtDTO registerPayment(Long id, BigDecimal amount, String userEmail);
-    void deleteCustomerDebt(Long id, String userEmail);
+    CustomerDebtDTO createCustomerDebt(CustomerDebtDTO customerDebtDTO, AuthenticatedUser currentUser);
+    CustomerDebtDTO getCustomerDebtById(Long id, AuthenticatedUser currentUser);
+    List<CustomerDebtDTO> getAllCustomerDebtsByUser(AuthenticatedUser currentUser);
+    CustomerDebtDTO updateCustomerDebt(Long id, CustomerDebtDTO customerDebtDTO, AuthenticatedUser currentUser);
+    CustomerDebtDTO registerPayment(Long id, BigDecimal amount, AuthenticatedUser currentUser);
+    void deleteCustomerDebt(Long id, AuthenticatedUser currentUser);
+    DebtPaymentPageDTO getPayments(Long id, AuthenticatedUser currentUser, String cursor, Integer size);
 }
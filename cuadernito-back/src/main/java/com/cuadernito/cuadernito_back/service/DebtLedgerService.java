@@ -0,0 +1,25 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.DebtPaymentPageDTO;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry.EntryType;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface DebtLedgerService {
+    void record(Long customerDebtId, Long userId, EntryType type, BigDecimal amount, Long transactionId);
+    void recordAdjustment(Long customerDebtId, Long userId, BigDecimal totalAmount, BigDecimal paidAmount);
+    void recordAll(List<DebtLedgerEntry> entries);
+    void recordClosure(Long customerDebtId, Long userId);
+    DebtPaymentPageDTO getPayments(Long customerDebtId, AuthenticatedUser currentUser, String cursor, Integer size);
+    DebtBalance replay(Long customerDebtId);
+    int checkpointDebts();
+
+    record DebtBalance(BigDecimal totalAmount, BigDecimal paidAmount, Long lastEntryId) {
+        public BigDecimal remainingAmount() {
+            return totalAmount.subtract(paidAmount);
+        }
+    }
+}
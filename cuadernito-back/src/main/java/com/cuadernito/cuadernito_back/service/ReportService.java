@@ -0,0 +1,16 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.CashCloseDTO;
+import com.cuadernito.cuadernito_back.dto.CategoryReportDTO;
+import com.cuadernito.cuadernito_back.dto.PeriodReportDTO;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReportService {
+    List<CategoryReportDTO> getTotalsByCategory(AuthenticatedUser currentUser, LocalDate from, LocalDate to, String type);
+    List<PeriodReportDTO> getTotalsByPeriod(AuthenticatedUser currentUser, LocalDate from, LocalDate to, String granularity);
+    List<CashCloseDTO> getCashClose(AuthenticatedUser currentUser, LocalDate from, LocalDate to);
+    int rebuildDailySummaries();
+}
@@ -0,0 +1,32 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface TransactionExportService {
+    void exportTransactions(AuthenticatedUser currentUser, LocalDate from, LocalDate to, ExportFormat format, OutputStream out) throws IOException;
+
+    enum ExportFormat {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+}
@@ -1,13 +1,20 @@
 package com.cuadernito.cuadernito_back.service;
 
+import com.cuadernito.cuadernito_back.dto.ImportResultDTO;
 import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionPageDTO;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.util.List;
 
 public interface TransactionService {
-    TransactionDTO createTransaction(TransactionDTO transactionDTO, String userEmail);
-    TransactionDTO getTransactionById(Long id, String userEmail);
-    List<TransactionDTO> getAllTransactionsByUser(String userEmail);
-    TransactionDTO updateTransaction(Long id, TransactionDTO transactionDTO, String userEmail);
-    void deleteTransaction(Long id, String userEmail);
+    TransactionDTO createTransaction(TransactionDTO transactionDTO, AuthenticatedUser currentUser);
+    TransactionDTO getTransactionById(Long id, AuthenticatedUser currentUser);
+    TransactionPageDTO getTransactionsPage(AuthenticatedUser currentUser, String cursor, Integer size);
+    TransactionDTO updateTransaction(Long id, TransactionDTO transactionDTO, AuthenticatedUser currentUser);
+    void deleteTransaction(Long id, AuthenticatedUser currentUser);
+    ImportResultDTO importTransactions(List<TransactionDTO> transactions, AuthenticatedUser currentUser);
+    ImportResultDTO importTransactionsCsv(Reader reader, AuthenticatedUser currentUser) throws IOException;
 }
@@ -2,22 +2,37 @@ package com.cuadernito.cuadernito_back.service.impl;
 
 import com.cuadernito.cuadernito_back.dto.UserDTO;
 import com.cuadernito.cuadernito_back.dto.auth.*;
+import com.cuadernito.cuadernito_back.entity.RefreshToken;
 import com.cuadernito.cuadernito_back.entity.User;
 import com.cuadernito.cuadernito_back.exception.BadRequestException;
 import com.cuadernito.cuadernito_back.exception.ResourceNotFoundException;
 import com.cuadernito.cuadernito_back.mapper.UserMapper;
+import com.cuadernito.cuadernito_back.repository.RefreshTokenRepository;
 import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 import com.cuadernito.cuadernito_back.security.JwtTokenProvider;
+import com.cuadernito.cuadernito_back.security.LoginThrottle;
+import com.cuadernito.cuadernito_back.security.TokenRevocationRegistry;
+import com.cuadernito.cuadernito_back.security.UserDetailsCache;
 import com.cuadernito.cuadernito_back.service.AuthService;
+import io.jsonwebtoken.Claims;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.CredentialsExpiredException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.UUID;
 
 @Service
 public class AuthServiceImpl implements AuthService {
@@ -37,8 +52,29 @@ public class AuthServiceImpl implements AuthService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Sin transacción propia y sin open-in-view (WebConfig lo excluye de /api/v1/auth): la autenticación puede
+     * esperar en la cola de BCrypt y no debe retener una conexión del pool mientras tanto. El refresh token se
+     * guarda después, en una transacción corta.
+     */
     @Override
-    public JwtResponse login(LoginRequest loginRequest) {
+    public JwtResponse login(LoginRequest loginRequest, String clientIp) {
+        loginThrottle.checkAttempt(loginRequest.getEmail(), clientIp);
         try {
             Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -48,51 +84,88 @@ public class AuthServiceImpl implements AuthService {
             );
 
             SecurityContextHolder.getContext().setAuthentication(authentication);
-            String token = tokenProvider.generateToken(authentication);
-
-            User user = userRepository.findByEmail(loginRequest.getEmail())
-                    .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-            return JwtResponse.builder()
-                    .token(token)
-                    .type("Bearer")
-                    .id(user.getId())
-                    .email(user.getEmail())
-                    .role(user.getRole().name())
-                    .build();
+
+            AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+            loginThrottle.onSuccessfulLogin(loginRequest.getEmail());
+
+            return issueTokens(user, UUID.randomUUID().toString());
         } catch (BadCredentialsException e) {
             throw new BadCredentialsException("Email o contraseña incorrectos");
         }
     }
 
+    /**
+     * Rota el refresh token: el recibido queda revocado y apunta al nuevo. Si llega un token
+     * ya revocado se asume robo y se revocan todas las sesiones del usuario.
+     */
+    @Override
+    @Transactional(noRollbackFor = CredentialsExpiredException.class)
+    public JwtResponse refresh(RefreshTokenRequest request) {
+        Claims claims = tokenProvider.parseRefreshClaims(request.getRefreshToken())
+                .orElseThrow(this::invalidRefreshToken);
+        RefreshToken stored = refreshTokenRepository.findByJti(claims.getId())
+                .orElseThrow(this::invalidRefreshToken);
+        User user = stored.getUser();
+
+        if (!user.getId().equals(claims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class))
+                || stored.getExpiresAt().isBefore(LocalDateTime.now())
+                || !Boolean.TRUE.equals(user.getEnabled())) {
+            throw invalidRefreshToken();
+        }
+
+        String newJti = UUID.randomUUID().toString();
+        if (Boolean.TRUE.equals(stored.getRevoked())
+                || refreshTokenRepository.markReplaced(stored.getId(), newJti) == 0) {
+            refreshTokenRepository.revokeAllByUserId(user.getId());
+            throw invalidRefreshToken();
+        }
+
+        return issueTokens(AuthenticatedUser.from(user), newJti);
+    }
+
     @Override
     @Transactional
+    public void logout(String accessToken, LogoutRequest request) {
+        Claims accessClaims = tokenProvider.parseClaims(accessToken)
+                .orElseThrow(() -> new BadRequestException("Token de acceso inválido"));
+        revocationRegistry.revoke(accessClaims.getId(), accessClaims.getExpiration().toInstant());
+
+        if (request != null && request.getRefreshToken() != null) {
+            Long userId = accessClaims.get(JwtTokenProvider.USER_ID_CLAIM, Long.class);
+            tokenProvider.parseRefreshClaims(request.getRefreshToken())
+                    .flatMap(claims -> refreshTokenRepository.findByJti(claims.getId()))
+                    .filter(token -> token.getUser().getId().equals(userId))
+                    .ifPresent(token -> token.setRevoked(true));
+        }
+    }
+
+    /**
+     * El hash se calcula antes de guardar, fuera de una transacción y sin open-in-view (WebConfig lo excluye de
+     * /api/v1/auth): la conexión de {@code existsByEmail} ya volvió al pool mientras se espera a BCrypt. Si el pool
+     * de BCrypt está saturado, la {@code ServiceUnavailableException} llega al cliente como 503 con Retry-After.
+     */
+    @Override
     public UserDTO register(RegisterRequest registerRequest) {
         if (userRepository.existsByEmail(registerRequest.getEmail())) {
             throw new BadRequestException("El email ya está registrado");
         }
 
+        User user = User.builder()
+                .firstName(registerRequest.getFirstName())
+                .lastName(registerRequest.getLastName())
+                .email(registerRequest.getEmail())
+                .password(passwordEncoder.encode(registerRequest.getPassword()))
+                .phone(registerRequest.getPhone())
+                .address(registerRequest.getAddress())
+                .role(User.Role.ROLE_USER)
+                .enabled(true)
+                .build();
+
         try {
-            User user = User.builder()
-                    .firstName(registerRequest.getFirstName())
-                    .lastName(registerRequest.getLastName())
-                    .email(registerRequest.getEmail())
-                    .password(passwordEncoder.encode(registerRequest.getPassword()))
-                    .phone(registerRequest.getPhone())
-                    .address(registerRequest.getAddress())
-                    .role(User.Role.ROLE_USER)
-                    .enabled(true)
-                    .build();
-
-            User savedUser = userRepository.save(user);
-            
-            if (userMapper == null) {
-                throw new IllegalStateException("UserMapper no está inicializado");
-            }
-            
-            return userMapper.toDTO(savedUser);
-        } catch (Exception e) {
-            throw new BadRequestException("Error al registrar usuario: " + e.getMessage());
+            return userMapper.toDTO(userRepository.save(user));
+        } catch (DataIntegrityViolationException e) {
+            // Otro registro con el mismo email entró entre el chequeo y el insert.
+            throw new BadRequestException("El email ya está registrado");
         }
     }
 
@@ -123,5 +196,30 @@ public class AuthServiceImpl implements AuthService {
 
         user.setPassword(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        refreshTokenRepository.revokeAllByUserId(user.getId());
+        userDetailsCache.evict(email);
+    }
+
+    private JwtResponse issueTokens(AuthenticatedUser user, String refreshJti) {
+        Date refreshExpiration = tokenProvider.nextRefreshExpiration();
+        transactionTemplate.executeWithoutResult(status -> refreshTokenRepository.save(RefreshToken.builder()
+                .jti(refreshJti)
+                .user(userRepository.getReferenceById(user.getId()))
+                .expiresAt(LocalDateTime.ofInstant(refreshExpiration.toInstant(), ZoneId.systemDefault()))
+                .build()));
+
+        return JwtResponse.builder()
+                .token(tokenProvider.generateAccessToken(user))
+                .refreshToken(tokenProvider.generateRefreshToken(user, refreshJti, refreshExpiration))
+                .expiresIn(tokenProvider.getAccessTokenExpirationMs() / 1000)
+                .type("Bearer")
+                .id(user.getId())
+                .email(user.getEmail())
+                .role(user.getRole().name())
+                .build();
+    }
+
+    private CredentialsExpiredException invalidRefreshToken() {
+        return new CredentialsExpiredException("Refresh token inválido o expirado");
     }
 }
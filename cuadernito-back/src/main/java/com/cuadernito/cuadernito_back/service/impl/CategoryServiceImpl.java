@@ -8,6 +8,7 @@ import com.cuadernito.cuadernito_back.exception.ResourceNotFoundException;
 import com.cuadernito.cuadernito_back.mapper.CategoryMapper;
 import com.cuadernito.cuadernito_back.repository.CategoryRepository;
 import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 import com.cuadernito.cuadernito_back.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -30,9 +31,8 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional
-    public CategoryDTO createCategory(CategoryDTO categoryDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public CategoryDTO createCategory(CategoryDTO categoryDTO, AuthenticatedUser currentUser) {
+        User user = userRepository.getReferenceById(currentUser.getId());
 
         Category category = Category.builder()
                 .name(categoryDTO.getName())
@@ -45,11 +45,8 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional(readOnly = true)
-    public CategoryDTO getCategoryById(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        Category category = categoryRepository.findByIdAndUserId(id, user.getId())
+    public CategoryDTO getCategoryById(Long id, AuthenticatedUser currentUser) {
+        Category category = categoryRepository.findByIdAndUserId(id, currentUser.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría no encontrada"));
 
         return categoryMapper.toDTO(category);
@@ -57,11 +54,8 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CategoryDTO> getAllCategoriesByUser(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        List<Category> categories = categoryRepository.findByUserId(user.getId());
+    public List<CategoryDTO> getAllCategoriesByUser(AuthenticatedUser currentUser) {
+        List<Category> categories = categoryRepository.findByUserId(currentUser.getId());
         return categories.stream()
                 .map(categoryMapper::toDTO)
                 .collect(Collectors.toList());
@@ -69,11 +63,8 @@ public class CategoryServiceImpl implements CategoryService {
 
     @Override
     @Transactional
-    public CategoryDTO updateCategory(Long id, CategoryDTO categoryDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        Category category = categoryRepository.findByIdAndUserId(id, user.getId())
+    public CategoryDTO updateCategory(Long id, CategoryDTO categoryDTO, AuthenticatedUser currentUser) {
+        Category category = categoryRepository.findByIdAndUserId(id, currentUser.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Categoría no encontrada"));
 
         if (categoryDTO.getName() == null || categoryDTO.getName().trim().isEmpty()) {
@@ -1,20 +1,27 @@
 package com.cuadernito.cuadernito_back.service.impl;
 
 import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.dto.DebtPaymentPageDTO;
 import com.cuadernito.cuadernito_back.entity.CustomerDebt;
 import com.cuadernito.cuadernito_back.entity.CustomerDebt.DebtStatus;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry.EntryType;
 import com.cuadernito.cuadernito_back.entity.User;
 import com.cuadernito.cuadernito_back.exception.BadRequestException;
 import com.cuadernito.cuadernito_back.exception.ResourceNotFoundException;
 import com.cuadernito.cuadernito_back.mapper.CustomerDebtMapper;
 import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.DailySummaryDelta;
+import com.cuadernito.cuadernito_back.repository.DailySummaryRepository;
 import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
 import com.cuadernito.cuadernito_back.service.CustomerDebtService;
+import com.cuadernito.cuadernito_back.service.DebtLedgerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -31,11 +38,16 @@ public class CustomerDebtServiceImpl implements CustomerDebtService {
     @Autowired
     private CustomerDebtMapper customerDebtMapper;
 
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Autowired
+    private DebtLedgerService debtLedgerService;
+
     @Override
     @Transactional
-    public CustomerDebtDTO createCustomerDebt(CustomerDebtDTO customerDebtDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public CustomerDebtDTO createCustomerDebt(CustomerDebtDTO customerDebtDTO, AuthenticatedUser currentUser) {
+        User user = userRepository.getReferenceById(currentUser.getId());
 
         validateCustomerNames(customerDebtDTO.getCustomerFirstName(), customerDebtDTO.getCustomerLastName());
         validateCustomerPhone(customerDebtDTO.getCustomerPhone());
@@ -65,16 +77,14 @@ public class CustomerDebtServiceImpl implements CustomerDebtService {
                 .build();
 
         CustomerDebt saved = customerDebtRepository.save(customerDebt);
+        debtLedgerService.recordAdjustment(saved.getId(), currentUser.getId(), totalAmount, paidAmount);
         return customerDebtMapper.toDTO(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public CustomerDebtDTO getCustomerDebtById(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        CustomerDebt customerDebt = customerDebtRepository.findByIdAndUserId(id, user.getId())
+    public CustomerDebtDTO getCustomerDebtById(Long id, AuthenticatedUser currentUser) {
+        CustomerDebt customerDebt = customerDebtRepository.findByIdAndUserId(id, currentUser.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
 
         return customerDebtMapper.toDTO(customerDebt);
@@ -82,22 +92,20 @@ public class CustomerDebtServiceImpl implements CustomerDebtService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<CustomerDebtDTO> getAllCustomerDebtsByUser(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        return customerDebtRepository.findByUserId(user.getId()).stream()
+    public List<CustomerDebtDTO> getAllCustomerDebtsByUser(AuthenticatedUser currentUser) {
+        return customerDebtRepository.findByUserId(currentUser.getId()).stream()
                 .map(customerDebtMapper::toDTO)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Es la única escritura de la deuda que guarda la entidad completa, así que lee la fila bloqueada: espera a
+     * los UPDATE atómicos en curso y los siguientes esperan a este commit, y ningún cargo o pago queda pisado.
+     */
     @Override
     @Transactional
-    public CustomerDebtDTO updateCustomerDebt(Long id, CustomerDebtDTO customerDebtDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        CustomerDebt customerDebt = customerDebtRepository.findByIdAndUserId(id, user.getId())
+    public CustomerDebtDTO updateCustomerDebt(Long id, CustomerDebtDTO customerDebtDTO, AuthenticatedUser currentUser) {
+        CustomerDebt customerDebt = customerDebtRepository.findWithLockByIdAndUserId(id, currentUser.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
 
         if (customerDebtDTO.getCustomerFirstName() != null) {
@@ -118,7 +126,7 @@ public class CustomerDebtServiceImpl implements CustomerDebtService {
         }
         if (customerDebtDTO.getDocumentNumber() != null) {
             String doc = validateDocumentNumber(customerDebtDTO.getDocumentNumber());
-            Optional<CustomerDebt> existing = customerDebtRepository.findByUserIdAndDocumentNumber(user.getId(), doc);
+            Optional<CustomerDebt> existing = customerDebtRepository.findByUserIdAndDocumentNumber(currentUser.getId(), doc);
             if (existing.isPresent() && !existing.get().getId().equals(customerDebt.getId())) {
                 throw new BadRequestException("Ya existe una deuda con ese número de documento");
             }
@@ -142,45 +150,53 @@ public class CustomerDebtServiceImpl implements CustomerDebtService {
         }
 
         CustomerDebt updated = customerDebtRepository.save(customerDebt);
+        if (customerDebtDTO.getTotalAmount() != null || customerDebtDTO.getPaidAmount() != null) {
+            debtLedgerService.recordAdjustment(updated.getId(), currentUser.getId(), updated.getTotalAmount(), updated.getPaidAmount());
+        }
         return customerDebtMapper.toDTO(updated);
     }
 
     @Override
     @Transactional
-    public CustomerDebtDTO registerPayment(Long id, BigDecimal amount, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        CustomerDebt customerDebt = customerDebtRepository.findByIdAndUserId(id, user.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
-
+    public CustomerDebtDTO registerPayment(Long id, BigDecimal amount, AuthenticatedUser currentUser) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new BadRequestException("El monto del pago debe ser mayor que cero");
         }
-
-        BigDecimal newPaidAmount = customerDebt.getPaidAmount().add(amount);
-        if (newPaidAmount.compareTo(customerDebt.getTotalAmount()) > 0) {
-            newPaidAmount = customerDebt.getTotalAmount();
+        dailySummaryRepository.lockForUser(currentUser.getId());
+
+        // Si el pago supera el saldo, se aplica solo lo pendiente: se relee el saldo y se reintenta
+        // el UPDATE condicional con ese monto, hasta que ninguna otra escritura se cruce en el medio.
+        BigDecimal appliedAmount = amount;
+        while (customerDebtRepository.applyPayment(id, currentUser.getId(), appliedAmount) == 0) {
+            BigDecimal remaining = customerDebtRepository.findRemainingAmount(id, currentUser.getId())
+                    .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
+            if (remaining.compareTo(BigDecimal.ZERO) <= 0) {
+                appliedAmount = BigDecimal.ZERO;
+                break;
+            }
+            appliedAmount = remaining.min(amount);
         }
-        customerDebt.setPaidAmount(newPaidAmount);
-        customerDebt.setRemainingAmount(customerDebt.getTotalAmount().subtract(newPaidAmount));
-        customerDebt.setStatus(computeStatus(newPaidAmount, customerDebt.getTotalAmount()));
 
-        CustomerDebt updated = customerDebtRepository.save(customerDebt);
+        debtLedgerService.record(id, currentUser.getId(), EntryType.PAGO, appliedAmount, null);
+        dailySummaryRepository.applyDelta(currentUser.getId(), DailySummaryDelta.forPayment(LocalDate.now(), appliedAmount));
+        CustomerDebt updated = customerDebtRepository.findByIdAndUserId(id, currentUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
         return customerDebtMapper.toDTO(updated);
     }
 
     @Override
     @Transactional
-    public void deleteCustomerDebt(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public void deleteCustomerDebt(Long id, AuthenticatedUser currentUser) {
+        CustomerDebt customerDebt = customerDebtRepository.findWithLockByIdAndUserId(id, currentUser.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
+        debtLedgerService.recordClosure(id, currentUser.getId());
+        customerDebtRepository.delete(customerDebt);
+    }
 
-        boolean exists = customerDebtRepository.existsByIdAndUserId(id, user.getId());
-        if (!exists) {
-            throw new ResourceNotFoundException("Deuda del cliente no encontrada");
-        }
-        customerDebtRepository.deleteById(id);
+    @Override
+    @Transactional(readOnly = true)
+    public DebtPaymentPageDTO getPayments(Long id, AuthenticatedUser currentUser, String cursor, Integer size) {
+        return debtLedgerService.getPayments(id, currentUser, cursor, size);
     }
 
     private void validateCustomerNames(String firstName, String lastName) {
@@ -0,0 +1,249 @@
+package com.cuadernito.cuadernito_back.service.impl;
+
+import com.cuadernito.cuadernito_back.dto.DebtPaymentDTO;
+import com.cuadernito.cuadernito_back.dto.DebtPaymentPageDTO;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt;
+import com.cuadernito.cuadernito_back.entity.DebtBalanceCheckpoint;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry.EntryType;
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+import com.cuadernito.cuadernito_back.exception.ResourceNotFoundException;
+import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.DebtBalanceCheckpointRepository;
+import com.cuadernito.cuadernito_back.repository.DebtLedgerEntryRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.DebtLedgerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Cada cambio de saldo escribe un movimiento junto al UPDATE atómico de {@code customer_debts}, dentro de
+ * la misma transacción y después del UPDATE: el lock de fila ordena los movimientos de una misma deuda, y como
+ * el id AUTO_INCREMENT se asigna en el INSERT, un movimiento confirmado más tarde siempre tiene un id mayor.
+ * El checkpoint periódico guarda el saldo plegado hasta un movimiento, así reconstruir una deuda lee solo
+ * la cola posterior. Se toma con la fila de la deuda bloqueada, de modo que no hay movimientos de esa deuda
+ * en curso y ninguno posterior puede quedar con un id menor al del checkpoint.
+ */
+@Service
+public class DebtLedgerServiceImpl implements DebtLedgerService {
+
+    private static final Logger log = LoggerFactory.getLogger(DebtLedgerServiceImpl.class);
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private DebtLedgerEntryRepository ledgerRepository;
+
+    @Autowired
+    private DebtBalanceCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private CustomerDebtRepository customerDebtRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${debts.ledger.checkpoint-min-entries:50}")
+    private long checkpointMinEntries;
+
+    /** Id de movimiento hasta el que ya se buscaron deudas candidatas en esta instancia. */
+    private volatile long scannedUpTo;
+
+    @Override
+    @Transactional
+    public void record(Long customerDebtId, Long userId, EntryType type, BigDecimal amount, Long transactionId) {
+        if (amount == null || amount.signum() == 0) {
+            return;
+        }
+        ledgerRepository.save(DebtLedgerEntry.builder()
+                .customerDebtId(customerDebtId)
+                .userId(userId)
+                .type(type)
+                .amount(amount)
+                .transactionId(transactionId)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void recordAdjustment(Long customerDebtId, Long userId, BigDecimal totalAmount, BigDecimal paidAmount) {
+        ledgerRepository.save(DebtLedgerEntry.builder()
+                .customerDebtId(customerDebtId)
+                .userId(userId)
+                .type(EntryType.AJUSTE)
+                .amount(totalAmount)
+                .paidAmount(paidAmount)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public void recordAll(List<DebtLedgerEntry> entries) {
+        ledgerRepository.insertAll(entries);
+    }
+
+    /**
+     * Baja de la deuda: el registro no se borra, un ajuste a cero deja constancia. El checkpoint sí se borra,
+     * porque es un dato derivado.
+     */
+    @Override
+    @Transactional
+    public void recordClosure(Long customerDebtId, Long userId) {
+        recordAdjustment(customerDebtId, userId, BigDecimal.ZERO, BigDecimal.ZERO);
+        checkpointRepository.findById(customerDebtId).ifPresent(checkpointRepository::delete);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DebtPaymentPageDTO getPayments(Long customerDebtId, AuthenticatedUser currentUser, String cursor, Integer size) {
+        if (!customerDebtRepository.existsByIdAndUserId(customerDebtId, currentUser.getId())) {
+            throw new ResourceNotFoundException("Deuda del cliente no encontrada");
+        }
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<DebtLedgerEntry> entries = cursor == null || cursor.isBlank()
+                ? ledgerRepository.findByCustomerDebtIdAndTypeOrderByIdDesc(customerDebtId, EntryType.PAGO, limit)
+                : ledgerRepository.findByCustomerDebtIdAndTypeAndIdLessThanOrderByIdDesc(customerDebtId, EntryType.PAGO,
+                decodeCursor(cursor), limit);
+
+        boolean hasNext = entries.size() > pageSize;
+        List<DebtLedgerEntry> page = hasNext ? entries.subList(0, pageSize) : entries;
+        return DebtPaymentPageDTO.builder()
+                .content(page.stream()
+                        .map(entry -> DebtPaymentDTO.builder()
+                                .id(entry.getId())
+                                .amount(entry.getAmount())
+                                .createdAt(entry.getCreatedAt())
+                                .build())
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNext ? String.valueOf(page.get(page.size() - 1).getId()) : null)
+                .hasNext(hasNext)
+                .size(pageSize)
+                .build();
+    }
+
+    /**
+     * Saldo de la deuda según el registro: último checkpoint más los movimientos posteriores.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public DebtBalance replay(Long customerDebtId) {
+        return fold(customerDebtId, checkpointRepository.findById(customerDebtId).orElse(null));
+    }
+
+    /**
+     * Busca deudas con movimientos nuevos desde la corrida anterior, recorriendo solo ese rango de ids, y guarda
+     * el checkpoint de las que acumulan {@code checkpoint-min-entries} movimientos tras el último. Cada deuda va
+     * en su propia transacción para no retener los locks. Un movimiento con id menor al tope leído que confirma
+     * después de la búsqueda solo demora el checkpoint de su deuda hasta su próximo movimiento.
+     */
+    @Override
+    @Scheduled(initialDelayString = "${debts.ledger.checkpoint-interval-ms:300000}",
+            fixedDelayString = "${debts.ledger.checkpoint-interval-ms:300000}")
+    public int checkpointDebts() {
+        Long upTo = ledgerRepository.findMaxId().orElse(null);
+        if (upTo == null || upTo <= scannedUpTo) {
+            return 0;
+        }
+        int saved = 0;
+        for (Long debtId : ledgerRepository.findDebtIdsWithEntriesBetween(scannedUpTo, upTo)) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> checkpoint(debtId)))) {
+                saved++;
+            }
+        }
+        scannedUpTo = upTo;
+        return saved;
+    }
+
+    /**
+     * El SELECT ... FOR UPDATE espera a las transacciones en curso sobre la deuda y va antes de cualquier lectura
+     * del registro, así en MySQL la vista de REPEATABLE READ ya incluye sus movimientos. Con la fila bloqueada el
+     * registro plegado tiene que dar el saldo de la fila; si no, se avisa en el log.
+     */
+    private boolean checkpoint(Long debtId) {
+        CustomerDebt debt = customerDebtRepository.findWithLockById(debtId).orElse(null);
+        if (debt == null) {
+            return false;
+        }
+        DebtBalanceCheckpoint current = checkpointRepository.findById(debtId).orElse(null);
+        long afterId = current != null ? current.getLedgerEntryId() : 0L;
+        if (ledgerRepository.countByCustomerDebtIdAndIdGreaterThan(debtId, afterId) < checkpointMinEntries) {
+            return false;
+        }
+        DebtBalance balance = fold(debtId, current);
+        if (balance.totalAmount().compareTo(debt.getTotalAmount()) != 0
+                || balance.paidAmount().compareTo(debt.getPaidAmount()) != 0) {
+            log.warn("El registro de la deuda {} no coincide con su saldo: registro total={} pagado={}, deuda total={} pagado={}",
+                    debtId, balance.totalAmount(), balance.paidAmount(), debt.getTotalAmount(), debt.getPaidAmount());
+        }
+        checkpointRepository.save(DebtBalanceCheckpoint.builder()
+                .customerDebtId(debtId)
+                .ledgerEntryId(balance.lastEntryId())
+                .totalAmount(balance.totalAmount())
+                .paidAmount(balance.paidAmount())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        return true;
+    }
+
+    /**
+     * Aplica los movimientos posteriores al checkpoint con las mismas reglas que los UPDATE de
+     * {@code CustomerDebtRepository}.
+     */
+    private DebtBalance fold(Long customerDebtId, DebtBalanceCheckpoint checkpoint) {
+        BigDecimal total = checkpoint != null ? checkpoint.getTotalAmount() : BigDecimal.ZERO;
+        BigDecimal paid = checkpoint != null ? checkpoint.getPaidAmount() : BigDecimal.ZERO;
+        Long lastEntryId = checkpoint != null ? checkpoint.getLedgerEntryId() : null;
+
+        List<DebtLedgerEntry> tail = ledgerRepository.findByCustomerDebtIdAndIdGreaterThanOrderById(
+                customerDebtId, lastEntryId != null ? lastEntryId : 0L);
+        for (DebtLedgerEntry entry : tail) {
+            switch (entry.getType()) {
+                case CARGO -> total = total.add(entry.getAmount());
+                case ANULACION -> {
+                    total = total.subtract(entry.getAmount()).max(BigDecimal.ZERO);
+                    paid = paid.min(total);
+                }
+                case PAGO -> paid = paid.add(entry.getAmount());
+                case AJUSTE -> {
+                    total = entry.getAmount();
+                    paid = entry.getPaidAmount();
+                }
+            }
+            lastEntryId = entry.getId();
+        }
+        return new DebtBalance(total, paid, lastEntryId);
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1) {
+            throw new BadRequestException("El tamaño de página debe ser mayor que cero");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private Long decodeCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor.trim());
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+}
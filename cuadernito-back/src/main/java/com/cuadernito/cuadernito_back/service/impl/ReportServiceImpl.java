@@ -0,0 +1,211 @@
+package com.cuadernito.cuadernito_back.service.impl;
+
+import com.cuadernito.cuadernito_back.dto.CashCloseDTO;
+import com.cuadernito.cuadernito_back.dto.CategoryReportDTO;
+import com.cuadernito.cuadernito_back.dto.PeriodReportDTO;
+import com.cuadernito.cuadernito_back.entity.DailySummary;
+import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+import com.cuadernito.cuadernito_back.repository.DailySummaryRepository;
+import com.cuadernito.cuadernito_back.repository.TransactionItemRepository;
+import com.cuadernito.cuadernito_back.repository.TransactionRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.repository.projection.DailyTotalRow;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.ReportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Los totales se agregan en la base con GROUP BY; a la aplicación solo llegan filas ya sumadas
+ * (una por categoría, o una por día y tipo que se consolidan en semanas o meses). El cierre de caja
+ * se lee de daily_summary, que los servicios mantienen al escribir: una fila por día, sin recorrer transacciones.
+ */
+@Service
+public class ReportServiceImpl implements ReportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReportServiceImpl.class);
+
+    private static final int MAX_RANGE_DAYS = 3660;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private TransactionItemRepository transactionItemRepository;
+
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${reports.daily-summary.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CategoryReportDTO> getTotalsByCategory(AuthenticatedUser currentUser, LocalDate from, LocalDate to, String type) {
+        DateRange range = resolveRange(from, to);
+        TransactionType transactionType = parseType(type);
+        return transactionItemRepository.sumByCategory(currentUser.getId(), range.from().atStartOfDay(),
+                        range.to().plusDays(1).atStartOfDay(), transactionType).stream()
+                .map(row -> CategoryReportDTO.builder()
+                        .categoryId(row.getCategoryId())
+                        .categoryName(row.getCategoryName())
+                        .type(row.getType().name())
+                        .total(row.getTotal())
+                        .itemCount(row.getItemCount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<PeriodReportDTO> getTotalsByPeriod(AuthenticatedUser currentUser, LocalDate from, LocalDate to, String granularity) {
+        DateRange range = resolveRange(from, to);
+        Granularity periodGranularity = parseGranularity(granularity);
+        List<DailyTotalRow> rows = transactionRepository.sumByDayAndType(currentUser.getId(),
+                range.from().atStartOfDay(), range.to().plusDays(1).atStartOfDay());
+
+        Map<LocalDate, PeriodReportDTO> periods = new TreeMap<>();
+        for (DailyTotalRow row : rows) {
+            LocalDate periodStart = periodGranularity.periodStart(row.getDay());
+            PeriodReportDTO period = periods.computeIfAbsent(periodStart, start -> PeriodReportDTO.builder()
+                    .periodStart(start)
+                    .income(BigDecimal.ZERO)
+                    .expense(BigDecimal.ZERO)
+                    .incomeCount(0L)
+                    .expenseCount(0L)
+                    .build());
+            if (row.getType() == TransactionType.INGRESO) {
+                period.setIncome(period.getIncome().add(row.getTotal()));
+                period.setIncomeCount(period.getIncomeCount() + row.getTransactionCount());
+            } else {
+                period.setExpense(period.getExpense().add(row.getTotal()));
+                period.setExpenseCount(period.getExpenseCount() + row.getTransactionCount());
+            }
+        }
+        List<PeriodReportDTO> result = new ArrayList<>(periods.values());
+        result.forEach(period -> period.setBalance(period.getIncome().subtract(period.getExpense())));
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CashCloseDTO> getCashClose(AuthenticatedUser currentUser, LocalDate from, LocalDate to) {
+        DateRange range = resolveRange(from, to);
+        BigDecimal balance = dailySummaryRepository.sumCashFlowBefore(currentUser.getId(), range.from());
+        List<DailySummary> days = dailySummaryRepository.findByUserIdAndSummaryDateBetweenOrderBySummaryDate(
+                currentUser.getId(), range.from(), range.to());
+
+        List<CashCloseDTO> result = new ArrayList<>(days.size());
+        for (DailySummary day : days) {
+            if (day.getTransactionCount() == 0 && day.getPaymentsAmount().signum() == 0) {
+                // Día que quedó vacío por bajas o ediciones.
+                continue;
+            }
+            BigDecimal cashFlow = day.getIncomeAmount()
+                    .subtract(day.getFiadoAmount())
+                    .add(day.getPaymentsAmount())
+                    .subtract(day.getExpenseAmount());
+            balance = balance.add(cashFlow);
+            result.add(CashCloseDTO.builder()
+                    .date(day.getSummaryDate())
+                    .income(day.getIncomeAmount())
+                    .expense(day.getExpenseAmount())
+                    .fiadoIssued(day.getFiadoAmount())
+                    .paymentsReceived(day.getPaymentsAmount())
+                    .transactionCount(day.getTransactionCount())
+                    .cashFlow(cashFlow)
+                    .runningBalance(balance)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Recalcula los resúmenes de todos los usuarios, una transacción por usuario.
+     */
+    @Override
+    public int rebuildDailySummaries() {
+        List<Long> userIds = userRepository.findAllIds();
+        userIds.forEach(dailySummaryRepository::rebuildForUser);
+        return userIds.size();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildDailySummariesOnStartup() {
+        if (rebuildOnStartup) {
+            int users = rebuildDailySummaries();
+            log.info("Resúmenes diarios recalculados para {} usuarios", users);
+        }
+    }
+
+    private DateRange resolveRange(LocalDate from, LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.withDayOfMonth(1);
+        if (start.isAfter(end)) {
+            throw new BadRequestException("La fecha desde no puede ser posterior a la fecha hasta");
+        }
+        if (start.plusDays(MAX_RANGE_DAYS).isBefore(end)) {
+            throw new BadRequestException("El rango del reporte no puede superar " + MAX_RANGE_DAYS + " días");
+        }
+        return new DateRange(start, end);
+    }
+
+    private TransactionType parseType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return TransactionType.valueOf(type.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Tipo de transacción no válido. Use INGRESO o GASTO");
+        }
+    }
+
+    private Granularity parseGranularity(String granularity) {
+        if (granularity == null || granularity.isBlank()) {
+            return Granularity.DAY;
+        }
+        try {
+            return Granularity.valueOf(granularity.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Agrupación no válida. Use day, week o month");
+        }
+    }
+
+    private record DateRange(LocalDate from, LocalDate to) {
+    }
+
+    private enum Granularity {
+        DAY,
+        WEEK,
+        MONTH;
+
+        LocalDate periodStart(LocalDate day) {
+            return switch (this) {
+                case DAY -> day;
+                case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> day.withDayOfMonth(1);
+            };
+        }
+    }
+}
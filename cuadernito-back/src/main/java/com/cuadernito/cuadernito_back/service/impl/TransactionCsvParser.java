@@ -0,0 +1,185 @@
+package com.cuadernito.cuadernito_back.service.impl;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Lee el CSV de importación. La primera línea es el encabezado (columnas en cualquier orden);
+ * los items van en una sola columna con el formato {@code categoriaId:monto;categoriaId:monto}.
+ */
+class TransactionCsvParser {
+
+    private static final String COLUMN_DATE = "date";
+    private static final String COLUMN_TYPE = "type";
+    private static final String COLUMN_DESCRIPTION = "description";
+    private static final String COLUMN_ITEMS = "items";
+    private static final String COLUMN_ES_FIADO = "esfiado";
+    private static final String COLUMN_CUSTOMER_DEBT_ID = "customerdebtid";
+    private static final String COLUMN_DEBT_AMOUNT = "debtamount";
+    private static final String COLUMN_FIRST_NAME = "customerfirstname";
+    private static final String COLUMN_LAST_NAME = "customerlastname";
+    private static final String COLUMN_PHONE = "customerphone";
+    private static final String COLUMN_DOCUMENT_NUMBER = "customerdocumentnumber";
+
+    record ParsedRow(int row, TransactionDTO request, String error) {
+    }
+
+    private final Reader reader;
+
+    private int next = -2;
+
+    TransactionCsvParser(Reader reader) {
+        this.reader = reader;
+    }
+
+    List<ParsedRow> parse(int maxRows) throws IOException {
+        List<String> header = readRecord();
+        if (header == null) {
+            throw new BadRequestException("El archivo CSV está vacío");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey(COLUMN_ITEMS)) {
+            throw new BadRequestException("El CSV debe tener la columna 'items'");
+        }
+
+        List<ParsedRow> rows = new ArrayList<>();
+        List<String> record;
+        int rowNumber = 0;
+        while ((record = readRecord()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            rowNumber++;
+            if (rowNumber > maxRows) {
+                throw new BadRequestException("La importación no puede superar " + maxRows + " filas");
+            }
+            try {
+                rows.add(new ParsedRow(rowNumber, toRequest(record, columns), null));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                rows.add(new ParsedRow(rowNumber, null, "Formato inválido: " + e.getMessage()));
+            }
+        }
+        return rows;
+    }
+
+    private TransactionDTO toRequest(List<String> record, Map<String, Integer> columns) {
+        String date = value(record, columns, COLUMN_DATE);
+        String debtId = value(record, columns, COLUMN_CUSTOMER_DEBT_ID);
+        String debtAmount = value(record, columns, COLUMN_DEBT_AMOUNT);
+        return TransactionDTO.builder()
+                .date(date == null ? null : parseDate(date))
+                .type(value(record, columns, COLUMN_TYPE))
+                .description(value(record, columns, COLUMN_DESCRIPTION))
+                .items(parseItems(value(record, columns, COLUMN_ITEMS)))
+                .esFiado(Boolean.parseBoolean(value(record, columns, COLUMN_ES_FIADO)))
+                .customerDebtId(debtId == null ? null : Long.valueOf(debtId))
+                .debtAmount(debtAmount == null ? null : new BigDecimal(debtAmount))
+                .customerFirstName(value(record, columns, COLUMN_FIRST_NAME))
+                .customerLastName(value(record, columns, COLUMN_LAST_NAME))
+                .customerPhone(value(record, columns, COLUMN_PHONE))
+                .customerDocumentNumber(value(record, columns, COLUMN_DOCUMENT_NUMBER))
+                .build();
+    }
+
+    private LocalDateTime parseDate(String value) {
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    private List<TransactionItemDTO> parseItems(String value) {
+        List<TransactionItemDTO> items = new ArrayList<>();
+        if (value == null) {
+            return items;
+        }
+        for (String part : value.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int separator = part.indexOf(':');
+            if (separator < 0) {
+                throw new IllegalArgumentException("item '" + part.trim() + "' debe tener el formato categoriaId:monto");
+            }
+            items.add(TransactionItemDTO.builder()
+                    .categoryId(Long.valueOf(part.substring(0, separator).trim()))
+                    .amount(new BigDecimal(part.substring(separator + 1).trim()))
+                    .build());
+        }
+        return items;
+    }
+
+    private String value(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (next != -2) {
+            int c = next;
+            next = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (next == -2) {
+            next = reader.read();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,156 @@
+package com.cuadernito.cuadernito_back.service.impl;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.repository.TransactionItemRepository;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionExportRow;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.TransactionExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Exporta el historial recorriendo un cursor de la base y escribiendo cada fila apenas se lee:
+ * en memoria solo vive la transacción que se está armando, sin importar el tamaño del historial.
+ */
+@Service
+public class TransactionExportServiceImpl implements TransactionExportService {
+
+    private static final String CSV_HEADER = "transaction_id,date,type,amount,description,debt_amount," +
+            "customer_document_number,customer_first_name,customer_last_name,customer_phone," +
+            "item_id,category_id,category_name,item_amount";
+
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1900, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    @Autowired
+    private TransactionItemRepository transactionItemRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTransactions(AuthenticatedUser currentUser, LocalDate from, LocalDate to, ExportFormat format, OutputStream out)
+            throws IOException {
+        LocalDateTime fromDate = from != null ? from.atStartOfDay() : MIN_DATE;
+        LocalDateTime toDate = to != null ? to.plusDays(1).atStartOfDay() : MAX_DATE;
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (Stream<TransactionExportRow> rows = transactionItemRepository.streamExportRows(currentUser.getId(), fromDate, toDate)) {
+            if (format == ExportFormat.CSV) {
+                writeCsv(rows.iterator(), writer);
+            } else {
+                writeNdjson(rows.iterator(), writer);
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsv(Iterator<TransactionExportRow> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            writer.write(String.valueOf(row.getTransactionId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getDate()));
+            writer.write(',');
+            writer.write(row.getType().name());
+            writer.write(',');
+            writer.write(row.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(csv(row.getDescription()));
+            writer.write(',');
+            writer.write(row.getDebtAmount() != null ? row.getDebtAmount().toPlainString() : "");
+            writer.write(',');
+            writer.write(csv(row.getCustomerDocumentNumber()));
+            writer.write(',');
+            writer.write(csv(row.getCustomerFirstName()));
+            writer.write(',');
+            writer.write(csv(row.getCustomerLastName()));
+            writer.write(',');
+            writer.write(csv(row.getCustomerPhone()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getItemId()));
+            writer.write(',');
+            writer.write(String.valueOf(row.getCategoryId()));
+            writer.write(',');
+            writer.write(csv(row.getCategoryName()));
+            writer.write(',');
+            writer.write(row.getItemAmount().toPlainString());
+            writer.write('\n');
+        }
+    }
+
+    private void writeNdjson(Iterator<TransactionExportRow> rows, Writer writer) throws IOException {
+        TransactionDTO current = null;
+        while (rows.hasNext()) {
+            TransactionExportRow row = rows.next();
+            if (current == null || !current.getId().equals(row.getTransactionId())) {
+                if (current != null) {
+                    writeJsonLine(current, writer);
+                }
+                current = toTransactionDTO(row);
+            }
+            current.getItems().add(TransactionItemDTO.builder()
+                    .id(row.getItemId())
+                    .categoryId(row.getCategoryId())
+                    .amount(row.getItemAmount())
+                    .createdAt(row.getItemCreatedAt())
+                    .build());
+        }
+        if (current != null) {
+            writeJsonLine(current, writer);
+        }
+    }
+
+    private void writeJsonLine(TransactionDTO transaction, Writer writer) throws IOException {
+        writer.write(objectMapper.writeValueAsString(transaction));
+        writer.write('\n');
+    }
+
+    private TransactionDTO toTransactionDTO(TransactionExportRow row) {
+        return TransactionDTO.builder()
+                .id(row.getTransactionId())
+                .amount(row.getAmount())
+                .description(row.getDescription())
+                .type(row.getType().name())
+                .date(row.getDate())
+                .items(new ArrayList<>())
+                .userId(row.getUserId())
+                .customerDebtId(row.getCustomerDebtId())
+                .debtAmount(row.getDebtAmount())
+                .esFiado(row.getCustomerDebtId() != null)
+                .customerFirstName(row.getCustomerFirstName())
+                .customerLastName(row.getCustomerLastName())
+                .customerPhone(row.getCustomerPhone())
+                .customerDocumentNumber(row.getCustomerDocumentNumber())
+                .createdAt(row.getCreatedAt())
+                .build();
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,37 +1,66 @@
 package com.cuadernito.cuadernito_back.service.impl;
 
+import com.cuadernito.cuadernito_back.dto.ImportResultDTO;
+import com.cuadernito.cuadernito_back.dto.ImportRowErrorDTO;
 import com.cuadernito.cuadernito_back.dto.TransactionDTO;
 import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionPageDTO;
 import com.cuadernito.cuadernito_back.entity.Category;
 import com.cuadernito.cuadernito_back.entity.CustomerDebt;
-import com.cuadernito.cuadernito_back.entity.CustomerDebt.DebtStatus;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry.EntryType;
 import com.cuadernito.cuadernito_back.entity.Transaction;
 import com.cuadernito.cuadernito_back.entity.Transaction.TransactionType;
 import com.cuadernito.cuadernito_back.entity.TransactionItem;
 import com.cuadernito.cuadernito_back.entity.User;
 import com.cuadernito.cuadernito_back.exception.BadRequestException;
 import com.cuadernito.cuadernito_back.exception.ResourceNotFoundException;
+import com.cuadernito.cuadernito_back.mapper.TransactionItemMapper;
 import com.cuadernito.cuadernito_back.mapper.TransactionMapper;
 import com.cuadernito.cuadernito_back.repository.CategoryRepository;
 import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.DailySummaryDelta;
+import com.cuadernito.cuadernito_back.repository.DailySummaryRepository;
 import com.cuadernito.cuadernito_back.repository.TransactionItemRepository;
 import com.cuadernito.cuadernito_back.repository.TransactionRepository;
 import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionItemRow;
+import com.cuadernito.cuadernito_back.repository.projection.TransactionRow;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.DebtLedgerService;
 import com.cuadernito.cuadernito_back.service.TransactionService;
+import com.cuadernito.cuadernito_back.service.impl.TransactionCsvParser.ParsedRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.Reader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class TransactionServiceImpl implements TransactionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
@@ -50,11 +79,29 @@ public class TransactionServiceImpl implements TransactionService {
     @Autowired
     private TransactionMapper transactionMapper;
 
+    @Autowired
+    private TransactionItemMapper transactionItemMapper;
+
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Autowired
+    private DebtLedgerService debtLedgerService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${transactions.import.max-rows:10000}")
+    private int importMaxRows;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int importBatchSize;
+
     @Override
     @Transactional
-    public TransactionDTO createTransaction(TransactionDTO transactionDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public TransactionDTO createTransaction(TransactionDTO transactionDTO, AuthenticatedUser currentUser) {
+        dailySummaryRepository.lockForUser(currentUser.getId());
+        User user = userRepository.getReferenceById(currentUser.getId());
 
         List<TransactionItemDTO> itemsDTO = transactionDTO.getItems();
         if (itemsDTO == null || itemsDTO.isEmpty()) {
@@ -82,6 +129,7 @@ public class TransactionServiceImpl implements TransactionService {
         boolean esFiado = Boolean.TRUE.equals(transactionDTO.getEsFiado());
         CustomerDebt customerDebt = null;
         BigDecimal debtAmount = null;
+        boolean deudaCargada = false;
 
         if (esFiado) {
             debtAmount = (transactionDTO.getDebtAmount() != null && transactionDTO.getDebtAmount().compareTo(BigDecimal.ZERO) > 0)
@@ -90,24 +138,13 @@ public class TransactionServiceImpl implements TransactionService {
             validateDebtAmount(debtAmount, totalAmount);
 
             if (isValidExistingDebtId(transactionDTO.getCustomerDebtId())) {
-                customerDebt = customerDebtRepository.findByIdAndUserId(transactionDTO.getCustomerDebtId(), user.getId())
+                customerDebt = customerDebtRepository.findByIdAndUserId(transactionDTO.getCustomerDebtId(), currentUser.getId())
                         .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
-                addToDebt(customerDebt, debtAmount);
             } else {
                 validateNewCustomerForFiado(transactionDTO);
                 String doc = validateDocumentNumber(transactionDTO.getCustomerDocumentNumber());
-                Optional<CustomerDebt> existing = customerDebtRepository.findByUserIdAndDocumentNumber(user.getId(), doc);
-                if (existing.isPresent()) {
-                    customerDebt = existing.get();
-                    addToDebt(customerDebt, debtAmount);
-                } else {
-                    customerDebt = createNewCustomerDebt(user,
-                            transactionDTO.getCustomerFirstName().trim(),
-                            transactionDTO.getCustomerLastName().trim(),
-                            transactionDTO.getCustomerPhone().trim(),
-                            doc,
-                            debtAmount);
-                }
+                customerDebt = chargeCustomerByDocument(currentUser.getId(), transactionDTO, doc, debtAmount);
+                deudaCargada = true;
             }
         }
 
@@ -119,58 +156,85 @@ public class TransactionServiceImpl implements TransactionService {
                 .user(user)
                 .customerDebt(customerDebt)
                 .debtAmount(debtAmount)
-                .items(new ArrayList<>())
                 .build();
 
-        Transaction saved = transactionRepository.save(transaction);
-
+        Map<Long, Category> categories = getCategoriesOwnedByUser(itemsDTO, currentUser.getId());
         for (TransactionItemDTO itemDTO : itemsDTO) {
-            Category category = getCategoryOwnedByUser(itemDTO.getCategoryId(), user.getId());
-            TransactionItem item = TransactionItem.builder()
-                    .transaction(saved)
-                    .category(category)
+            transaction.getItems().add(TransactionItem.builder()
+                    .transaction(transaction)
+                    .category(categories.get(itemDTO.getCategoryId()))
                     .amount(itemDTO.getAmount())
-                    .build();
-            saved.getItems().add(transactionItemRepository.save(item));
+                    .build());
         }
 
+        Transaction saved = transactionRepository.save(transaction);
+        if (customerDebt != null) {
+            if (deudaCargada) {
+                debtLedgerService.record(customerDebt.getId(), currentUser.getId(), EntryType.CARGO, debtAmount, saved.getId());
+            } else {
+                addToDebt(customerDebt, debtAmount, currentUser.getId(), saved.getId());
+            }
+        }
+        dailySummaryRepository.applyDelta(currentUser.getId(),
+                DailySummaryDelta.forTransaction(date, type, totalAmount, debtAmount, 1));
         return transactionMapper.toDTO(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public TransactionDTO getTransactionById(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        Transaction transaction = transactionRepository.findByIdAndUserId(id, user.getId())
+    public TransactionDTO getTransactionById(Long id, AuthenticatedUser currentUser) {
+        TransactionRow row = transactionRepository.findRowByIdAndUserId(id, currentUser.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Transacción no encontrada"));
 
-        return transactionMapper.toDTO(transaction);
+        return transactionMapper.toDTO(row, loadItems(List.of(row.getId())).getOrDefault(row.getId(), List.of()));
     }
 
+    /**
+     * Paginación por keyset sobre (date desc, id desc): cada página arranca donde terminó la anterior
+     * sin OFFSET. Se lee con proyecciones (sin entidades) y los items de la página se cargan con un único IN.
+     */
     @Override
     @Transactional(readOnly = true)
-    public List<TransactionDTO> getAllTransactionsByUser(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
+    public TransactionPageDTO getTransactionsPage(AuthenticatedUser currentUser, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<TransactionRow> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findFirstPageRowsByUserId(currentUser.getId(), limit);
+        } else {
+            PageCursor position = decodeCursor(cursor);
+            rows = transactionRepository.findPageRowsByUserIdBefore(currentUser.getId(), position.date(), position.id(), limit);
+        }
 
-        return transactionRepository.findByUserId(user.getId()).stream()
-                .map(transactionMapper::toDTO)
-                .collect(Collectors.toList());
+        boolean hasNext = rows.size() > pageSize;
+        List<TransactionRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        Map<Long, List<TransactionItemDTO>> items = page.isEmpty()
+                ? Map.of()
+                : loadItems(page.stream().map(TransactionRow::getId).toList());
+
+        TransactionRow last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return TransactionPageDTO.builder()
+                .content(page.stream()
+                        .map(row -> transactionMapper.toDTO(row, items.getOrDefault(row.getId(), List.of())))
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNext ? encodeCursor(last) : null)
+                .hasNext(hasNext)
+                .size(pageSize)
+                .build();
     }
 
     @Override
     @Transactional
-    public TransactionDTO updateTransaction(Long id, TransactionDTO transactionDTO, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        Transaction transaction = transactionRepository.findByIdAndUserId(id, user.getId())
+    public TransactionDTO updateTransaction(Long id, TransactionDTO transactionDTO, AuthenticatedUser currentUser) {
+        dailySummaryRepository.lockForUser(currentUser.getId());
+        Transaction transaction = transactionRepository.findByIdAndUserId(id, currentUser.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Transacción no encontrada"));
 
         BigDecimal debtAmountAnterior = transaction.getDebtAmount();
         CustomerDebt deudaAnterior = transaction.getCustomerDebt();
+        DailySummaryDelta resumenAnterior = DailySummaryDelta.forTransaction(transaction.getDate(), transaction.getType(),
+                transaction.getAmount(), debtAmountAnterior, -1);
 
         if (transactionDTO.getDescription() != null) {
             transaction.setDescription(transactionDTO.getDescription());
@@ -183,7 +247,7 @@ public class TransactionServiceImpl implements TransactionService {
         }
 
         if (transactionDTO.getItems() != null || (transactionDTO.getRemoveItemIds() != null && !transactionDTO.getRemoveItemIds().isEmpty())) {
-            updateTransactionItems(transaction, transactionDTO.getItems(), transactionDTO.getRemoveItemIds(), user.getId());
+            updateTransactionItems(transaction, transactionDTO.getItems(), transactionDTO.getRemoveItemIds(), currentUser.getId());
             BigDecimal nuevoAmount = transaction.getItems().stream()
                     .map(TransactionItem::getAmount)
                     .reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -193,7 +257,7 @@ public class TransactionServiceImpl implements TransactionService {
         Boolean esFiadoEnRequest = transactionDTO.getEsFiado();
         if (esFiadoEnRequest != null) {
             if (deudaAnterior != null && debtAmountAnterior != null) {
-                subtractFromDebt(deudaAnterior, debtAmountAnterior);
+                subtractFromDebt(deudaAnterior, debtAmountAnterior, currentUser.getId(), transaction.getId());
             }
             transaction.setCustomerDebt(null);
             transaction.setDebtAmount(null);
@@ -206,24 +270,15 @@ public class TransactionServiceImpl implements TransactionService {
 
                 CustomerDebt nuevaDeuda;
                 if (isValidExistingDebtId(transactionDTO.getCustomerDebtId())) {
-                    nuevaDeuda = customerDebtRepository.findByIdAndUserId(transactionDTO.getCustomerDebtId(), user.getId())
+                    nuevaDeuda = customerDebtRepository.findByIdAndUserId(transactionDTO.getCustomerDebtId(), currentUser.getId())
                             .orElseThrow(() -> new ResourceNotFoundException("Deuda del cliente no encontrada"));
-                    addToDebt(nuevaDeuda, nuevoDebtAmount);
+                    addToDebt(nuevaDeuda, nuevoDebtAmount, currentUser.getId(), transaction.getId());
                 } else if (transactionDTO.getCustomerDocumentNumber() != null && !transactionDTO.getCustomerDocumentNumber().trim().isEmpty()) {
                     validateNewCustomerForFiado(transactionDTO);
                     String doc = validateDocumentNumber(transactionDTO.getCustomerDocumentNumber());
-                    Optional<CustomerDebt> existing = customerDebtRepository.findByUserIdAndDocumentNumber(user.getId(), doc);
-                    if (existing.isPresent()) {
-                        nuevaDeuda = existing.get();
-                        addToDebt(nuevaDeuda, nuevoDebtAmount);
-                    } else {
-                        nuevaDeuda = createNewCustomerDebt(user,
-                                transactionDTO.getCustomerFirstName().trim(),
-                                transactionDTO.getCustomerLastName().trim(),
-                                transactionDTO.getCustomerPhone().trim(),
-                                doc,
-                                nuevoDebtAmount);
-                    }
+                    nuevaDeuda = chargeCustomerByDocument(currentUser.getId(), transactionDTO, doc, nuevoDebtAmount);
+                    debtLedgerService.record(nuevaDeuda.getId(), currentUser.getId(), EntryType.CARGO, nuevoDebtAmount,
+                            transaction.getId());
                 } else {
                     throw new BadRequestException("Para marcar como fiado debe indicar customerDebtId o los datos del cliente (nombre, apellido, teléfono, número de documento)");
                 }
@@ -236,13 +291,20 @@ public class TransactionServiceImpl implements TransactionService {
             BigDecimal nuevoDebtAmount = transaction.getDebtAmount().min(nuevoAmount);
             
             if (nuevoDebtAmount.compareTo(debtAmountAnterior) != 0) {
-                subtractFromDebt(transaction.getCustomerDebt(), debtAmountAnterior);
-                addToDebt(transaction.getCustomerDebt(), nuevoDebtAmount);
+                subtractFromDebt(transaction.getCustomerDebt(), debtAmountAnterior, currentUser.getId(), transaction.getId());
+                addToDebt(transaction.getCustomerDebt(), nuevoDebtAmount, currentUser.getId(), transaction.getId());
                 transaction.setDebtAmount(nuevoDebtAmount);
             }
         }
 
         Transaction updated = transactionRepository.save(transaction);
+        DailySummaryDelta resumenNuevo = DailySummaryDelta.forTransaction(updated.getDate(), updated.getType(),
+                updated.getAmount(), updated.getDebtAmount(), 1);
+        if (resumenAnterior.getDay().equals(resumenNuevo.getDay())) {
+            dailySummaryRepository.applyDelta(currentUser.getId(), resumenAnterior.add(resumenNuevo));
+        } else {
+            dailySummaryRepository.applyDeltas(currentUser.getId(), List.of(resumenAnterior, resumenNuevo));
+        }
         return transactionMapper.toDTO(updated);
     }
 
@@ -263,7 +325,10 @@ public class TransactionServiceImpl implements TransactionService {
                 if (itemDTO.getAmount() == null || itemDTO.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
                     throw new BadRequestException("Todos los items deben tener un monto mayor que cero");
                 }
-                Category category = getCategoryOwnedByUser(itemDTO.getCategoryId(), userId);
+            }
+            Map<Long, Category> categories = getCategoriesOwnedByUser(itemsDTO, userId);
+            for (TransactionItemDTO itemDTO : itemsDTO) {
+                Category category = categories.get(itemDTO.getCategoryId());
 
                 if (itemDTO.getId() != null) {
                     TransactionItem item = transaction.getItems().stream()
@@ -292,17 +357,268 @@ public class TransactionServiceImpl implements TransactionService {
 
     @Override
     @Transactional
-    public void deleteTransaction(Long id, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado"));
-
-        Transaction transaction = transactionRepository.findByIdAndUserId(id, user.getId())
+    public void deleteTransaction(Long id, AuthenticatedUser currentUser) {
+        dailySummaryRepository.lockForUser(currentUser.getId());
+        Transaction transaction = transactionRepository.findByIdAndUserId(id, currentUser.getId())
                 .orElseThrow(() -> new ResourceNotFoundException("Transacción no encontrada"));
 
         if (transaction.getCustomerDebt() != null && transaction.getDebtAmount() != null) {
-            subtractFromDebt(transaction.getCustomerDebt(), transaction.getDebtAmount());
+            subtractFromDebt(transaction.getCustomerDebt(), transaction.getDebtAmount(), currentUser.getId(), transaction.getId());
         }
         transactionRepository.delete(transaction);
+        dailySummaryRepository.applyDelta(currentUser.getId(), DailySummaryDelta.forTransaction(transaction.getDate(),
+                transaction.getType(), transaction.getAmount(), transaction.getDebtAmount(), -1));
+    }
+
+    @Override
+    @Transactional
+    public ImportResultDTO importTransactions(List<TransactionDTO> transactions, AuthenticatedUser currentUser) {
+        if (transactions == null || transactions.isEmpty()) {
+            throw new BadRequestException("La importación no tiene filas");
+        }
+        if (transactions.size() > importMaxRows) {
+            throw new BadRequestException("La importación no puede superar " + importMaxRows + " filas");
+        }
+        List<ParsedRow> rows = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionDTO transaction = transactions.get(i);
+            rows.add(new ParsedRow(i + 1, transaction, transaction == null ? "La fila está vacía" : null));
+        }
+        return importRows(rows, currentUser);
+    }
+
+    @Override
+    @Transactional
+    public ImportResultDTO importTransactionsCsv(Reader reader, AuthenticatedUser currentUser) throws IOException {
+        List<ParsedRow> rows = new TransactionCsvParser(reader).parse(importMaxRows);
+        if (rows.isEmpty()) {
+            throw new BadRequestException("La importación no tiene filas");
+        }
+        return importRows(rows, currentUser);
+    }
+
+    /**
+     * Valida todas las filas antes de escribir (categorías y deudas se resuelven con un IN cada una),
+     * acumula el monto fiado por cliente para tocar cada deuda una sola vez y persiste las transacciones
+     * en lotes JDBC, vaciando el contexto de persistencia cada lote para que la memoria no crezca.
+     */
+    private ImportResultDTO importRows(List<ParsedRow> rows, AuthenticatedUser currentUser) {
+        Long userId = currentUser.getId();
+        dailySummaryRepository.lockForUser(userId);
+
+        Set<Long> categoryIds = new HashSet<>();
+        Set<Long> debtIds = new HashSet<>();
+        Set<String> documentNumbers = new HashSet<>();
+        for (ParsedRow row : rows) {
+            TransactionDTO dto = row.request();
+            if (dto == null) {
+                continue;
+            }
+            if (dto.getItems() != null) {
+                dto.getItems().stream()
+                        .filter(item -> item != null && item.getCategoryId() != null)
+                        .forEach(item -> categoryIds.add(item.getCategoryId()));
+            }
+            if (Boolean.TRUE.equals(dto.getEsFiado())) {
+                if (isValidExistingDebtId(dto.getCustomerDebtId())) {
+                    debtIds.add(dto.getCustomerDebtId());
+                } else if (dto.getCustomerDocumentNumber() != null) {
+                    documentNumbers.add(dto.getCustomerDocumentNumber().trim());
+                }
+            }
+        }
+
+        Set<Long> ownedCategoryIds = categoryIds.isEmpty() ? Set.of()
+                : categoryRepository.findByUserIdAndIdIn(userId, categoryIds).stream()
+                .map(Category::getId)
+                .collect(Collectors.toSet());
+        Map<Long, CustomerDebt> debtsById = new HashMap<>();
+        Map<String, CustomerDebt> debtsByDocument = new HashMap<>();
+        if (!debtIds.isEmpty()) {
+            customerDebtRepository.findByUserIdAndIdIn(userId, debtIds)
+                    .forEach(debt -> debtsById.put(debt.getId(), debt));
+        }
+        if (!documentNumbers.isEmpty()) {
+            customerDebtRepository.findByUserIdAndDocumentNumberIn(userId, documentNumbers).forEach(debt -> {
+                debtsById.put(debt.getId(), debt);
+                debtsByDocument.put(debt.getDocumentNumber(), debt);
+            });
+        }
+
+        List<ImportRowErrorDTO> errors = new ArrayList<>();
+        List<ImportRow> validRows = new ArrayList<>();
+        Map<LocalDate, DailySummaryDelta> summaryByDay = new HashMap<>();
+        Map<Long, BigDecimal> existingDebtDeltas = new LinkedHashMap<>();
+        Map<String, TransactionDTO> newDebtCustomers = new LinkedHashMap<>();
+        Map<String, BigDecimal> newDebtTotals = new LinkedHashMap<>();
+        for (ParsedRow row : rows) {
+            if (row.error() != null) {
+                errors.add(ImportRowErrorDTO.builder().row(row.row()).message(row.error()).build());
+                continue;
+            }
+            try {
+                ImportRow importRow = validateImportRow(row, ownedCategoryIds, debtsById, debtsByDocument);
+                if (importRow.existingDebtId() != null) {
+                    existingDebtDeltas.merge(importRow.existingDebtId(), importRow.debtAmount(), BigDecimal::add);
+                } else if (importRow.newDebtDocument() != null) {
+                    newDebtCustomers.putIfAbsent(importRow.newDebtDocument(), row.request());
+                    newDebtTotals.merge(importRow.newDebtDocument(), importRow.debtAmount(), BigDecimal::add);
+                }
+                validRows.add(importRow);
+                DailySummaryDelta delta = DailySummaryDelta.forTransaction(importRow.date(), importRow.type(),
+                        importRow.totalAmount(), importRow.debtAmount(), 1);
+                summaryByDay.merge(delta.getDay(), delta, DailySummaryDelta::add);
+            } catch (BadRequestException | ResourceNotFoundException e) {
+                errors.add(ImportRowErrorDTO.builder().row(row.row()).message(e.getMessage()).build());
+            }
+        }
+
+        existingDebtDeltas.forEach(customerDebtRepository::addToTotal);
+        Map<String, Long> newDebtIds = new HashMap<>();
+        newDebtTotals.forEach((document, total) ->
+                newDebtIds.put(document, chargeCustomerByDocument(userId, newDebtCustomers.get(document), document, total).getId()));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<DebtLedgerEntry> ledgerEntries = new ArrayList<>();
+        for (int i = 0; i < validRows.size(); i++) {
+            ImportRow importRow = validRows.get(i);
+            Long debtId = importRow.existingDebtId() != null
+                    ? importRow.existingDebtId()
+                    : newDebtIds.get(importRow.newDebtDocument());
+            Transaction transaction = Transaction.builder()
+                    .amount(importRow.totalAmount())
+                    .description(importRow.request().getDescription())
+                    .type(importRow.type())
+                    .date(importRow.date())
+                    .user(entityManager.getReference(User.class, userId))
+                    .customerDebt(debtId != null ? entityManager.getReference(CustomerDebt.class, debtId) : null)
+                    .debtAmount(debtId != null ? importRow.debtAmount() : null)
+                    .build();
+            for (TransactionItemDTO itemDTO : importRow.request().getItems()) {
+                transaction.getItems().add(TransactionItem.builder()
+                        .transaction(transaction)
+                        .category(entityManager.getReference(Category.class, itemDTO.getCategoryId()))
+                        .amount(itemDTO.getAmount())
+                        .build());
+            }
+            entityManager.persist(transaction);
+            if (debtId != null) {
+                ledgerEntries.add(DebtLedgerEntry.builder()
+                        .customerDebtId(debtId)
+                        .userId(userId)
+                        .type(EntryType.CARGO)
+                        .amount(importRow.debtAmount())
+                        .transactionId(transaction.getId())
+                        .build());
+            }
+            if ((i + 1) % importBatchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        debtLedgerService.recordAll(ledgerEntries);
+        dailySummaryRepository.applyDeltas(userId, summaryByDay.values());
+
+        return ImportResultDTO.builder()
+                .totalRows(rows.size())
+                .importedRows(validRows.size())
+                .failedRows(errors.size())
+                .customerDebtsCreated(newDebtIds.size())
+                .customerDebtsUpdated(existingDebtDeltas.size())
+                .errors(errors)
+                .build();
+    }
+
+    private ImportRow validateImportRow(ParsedRow row, Set<Long> ownedCategoryIds,
+                                        Map<Long, CustomerDebt> debtsById, Map<String, CustomerDebt> debtsByDocument) {
+        TransactionDTO dto = row.request();
+        List<TransactionItemDTO> itemsDTO = dto.getItems();
+        if (itemsDTO == null || itemsDTO.isEmpty()) {
+            throw new BadRequestException("La transacción debe tener al menos un item");
+        }
+        if (dto.getDescription() != null && dto.getDescription().length() > 500) {
+            throw new BadRequestException("La descripción no puede superar 500 caracteres");
+        }
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (TransactionItemDTO item : itemsDTO) {
+            if (item == null || item.getAmount() == null || item.getAmount().compareTo(BigDecimal.ZERO) <= 0) {
+                throw new BadRequestException("Todos los items deben tener un monto mayor que cero");
+            }
+            if (item.getCategoryId() == null) {
+                throw new BadRequestException("La categoría es obligatoria");
+            }
+            if (!ownedCategoryIds.contains(item.getCategoryId())) {
+                throw new ResourceNotFoundException("Categoría no encontrada");
+            }
+            totalAmount = totalAmount.add(item.getAmount());
+        }
+
+        TransactionType type = (dto.getType() == null || dto.getType().isBlank())
+                ? TransactionType.INGRESO
+                : parseAndValidateType(dto.getType());
+        LocalDateTime date = dto.getDate() != null ? dto.getDate() : LocalDateTime.now();
+
+        if (!Boolean.TRUE.equals(dto.getEsFiado())) {
+            return new ImportRow(dto, type, date, totalAmount, null, null, null);
+        }
+        BigDecimal debtAmount = (dto.getDebtAmount() != null && dto.getDebtAmount().compareTo(BigDecimal.ZERO) > 0)
+                ? dto.getDebtAmount()
+                : totalAmount;
+        validateDebtAmount(debtAmount, totalAmount);
+
+        if (isValidExistingDebtId(dto.getCustomerDebtId())) {
+            if (!debtsById.containsKey(dto.getCustomerDebtId())) {
+                throw new ResourceNotFoundException("Deuda del cliente no encontrada");
+            }
+            return new ImportRow(dto, type, date, totalAmount, debtAmount, dto.getCustomerDebtId(), null);
+        }
+        validateNewCustomerForFiado(dto);
+        String doc = validateDocumentNumber(dto.getCustomerDocumentNumber());
+        CustomerDebt existing = debtsByDocument.get(doc);
+        return existing != null
+                ? new ImportRow(dto, type, date, totalAmount, debtAmount, existing.getId(), null)
+                : new ImportRow(dto, type, date, totalAmount, debtAmount, null, doc);
+    }
+
+    private record ImportRow(TransactionDTO request, TransactionType type, LocalDateTime date, BigDecimal totalAmount,
+                             BigDecimal debtAmount, Long existingDebtId, String newDebtDocument) {
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1) {
+            throw new BadRequestException("El tamaño de página debe ser mayor que cero");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private Map<Long, List<TransactionItemDTO>> loadItems(List<Long> transactionIds) {
+        return transactionItemRepository.findRowsByTransactionIdIn(transactionIds).stream()
+                .collect(Collectors.groupingBy(TransactionItemRow::getTransactionId,
+                        Collectors.mapping(transactionItemMapper::toDTO, Collectors.toList())));
+    }
+
+    private String encodeCursor(TransactionRow last) {
+        String raw = last.getDate() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor de paginación inválido");
+        }
+    }
+
+    private record PageCursor(LocalDateTime date, Long id) {
     }
 
     private void validateDebtAmount(BigDecimal debtAmount, BigDecimal transactionAmount) {
@@ -329,7 +645,7 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
 
-    private String validateDocumentNumber(String documentNumber) {
+    String validateDocumentNumber(String documentNumber) {
         if (documentNumber == null || documentNumber.trim().isEmpty()) {
             throw new BadRequestException("El número de documento es obligatorio");
         }
@@ -355,56 +671,51 @@ public class TransactionServiceImpl implements TransactionService {
         return customerDebtId != null && customerDebtId > 0;
     }
 
-    private Category getCategoryOwnedByUser(Long categoryId, Long userId) {
-        if (categoryId == null) {
-            throw new BadRequestException("La categoría es obligatoria");
+    /**
+     * Resuelve en una sola consulta las categorías de todos los items; falla si alguna no existe
+     * o pertenece a otro usuario.
+     */
+    private Map<Long, Category> getCategoriesOwnedByUser(List<TransactionItemDTO> itemsDTO, Long userId) {
+        Set<Long> categoryIds = new HashSet<>();
+        for (TransactionItemDTO itemDTO : itemsDTO) {
+            if (itemDTO.getCategoryId() == null) {
+                throw new BadRequestException("La categoría es obligatoria");
+            }
+            categoryIds.add(itemDTO.getCategoryId());
         }
-        return categoryRepository.findByIdAndUserId(categoryId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Categoría no encontrada"));
-    }
-
-    private CustomerDebt createNewCustomerDebt(User user, String firstName, String lastName, String phone, String documentNumber, BigDecimal totalAmount) {
-        CustomerDebt debt = CustomerDebt.builder()
-                .documentNumber(documentNumber)
-                .customerFirstName(firstName)
-                .customerLastName(lastName)
-                .customerPhone(phone)
-                .totalAmount(totalAmount)
-                .paidAmount(BigDecimal.ZERO)
-                .remainingAmount(totalAmount)
-                .status(DebtStatus.PENDIENTE)
-                .user(user)
-                .build();
-        return customerDebtRepository.save(debt);
+        Map<Long, Category> categories = categoryRepository.findByUserIdAndIdIn(userId, categoryIds).stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        if (categories.size() != categoryIds.size()) {
+            throw new ResourceNotFoundException("Categoría no encontrada");
+        }
+        return categories;
     }
 
-    private void addToDebt(CustomerDebt debt, BigDecimal amount) {
-        debt.setTotalAmount(debt.getTotalAmount().add(amount));
-        debt.setRemainingAmount(debt.getRemainingAmount().add(amount));
-        debt.setStatus(computeDebtStatus(debt.getPaidAmount(), debt.getTotalAmount()));
-        customerDebtRepository.save(debt);
+    /**
+     * Crea la deuda del cliente o le suma el monto en un solo upsert sobre (usuario, documento), así dos ventas
+     * simultáneas a un cliente nuevo no chocan con la clave única. Los datos del cliente solo se usan al crearla.
+     */
+    private CustomerDebt chargeCustomerByDocument(Long userId, TransactionDTO dto, String documentNumber, BigDecimal amount) {
+        Long debtId = customerDebtRepository.upsertCharge(userId, documentNumber,
+                dto.getCustomerFirstName().trim(),
+                dto.getCustomerLastName().trim(),
+                dto.getCustomerPhone().trim(),
+                amount);
+        return customerDebtRepository.getReferenceById(debtId);
     }
 
-    private void subtractFromDebt(CustomerDebt debt, BigDecimal amount) {
-        BigDecimal newTotal = debt.getTotalAmount().subtract(amount).max(BigDecimal.ZERO);
-        debt.setTotalAmount(newTotal);
-        BigDecimal paid = debt.getPaidAmount().min(newTotal);
-        debt.setPaidAmount(paid);
-        debt.setRemainingAmount(newTotal.subtract(paid));
-        debt.setStatus(computeDebtStatus(paid, newTotal));
-        customerDebtRepository.save(debt);
+    /**
+     * Los saldos se actualizan con un UPDATE atómico en la base; la instancia en memoria no se modifica
+     * (no se vuelve a guardar, así que sus totales desactualizados no pisan los de la fila).
+     * El movimiento del registro se inserta después del UPDATE, con la fila ya bloqueada.
+     */
+    private void addToDebt(CustomerDebt debt, BigDecimal amount, Long userId, Long transactionId) {
+        customerDebtRepository.addToTotal(debt.getId(), amount);
+        debtLedgerService.record(debt.getId(), userId, EntryType.CARGO, amount, transactionId);
     }
 
-    private DebtStatus computeDebtStatus(BigDecimal paidAmount, BigDecimal totalAmount) {
-        if (totalAmount.compareTo(BigDecimal.ZERO) == 0) {
-            return DebtStatus.PAGADO;
-        }
-        if (paidAmount.compareTo(BigDecimal.ZERO) == 0) {
-            return DebtStatus.PENDIENTE;
-        }
-        if (paidAmount.compareTo(totalAmount) >= 0) {
-            return DebtStatus.PAGADO;
-        }
-        return DebtStatus.PARCIAL;
+    private void subtractFromDebt(CustomerDebt debt, BigDecimal amount, Long userId, Long transactionId) {
+        customerDebtRepository.subtractFromTotal(debt.getId(), amount);
+        debtLedgerService.record(debt.getId(), userId, EntryType.ANULACION, amount, transactionId);
     }
 }
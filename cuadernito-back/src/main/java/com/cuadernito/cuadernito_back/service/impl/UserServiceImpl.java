@@ -5,7 +5,12 @@ import com.cuadernito.cuadernito_back.entity.User;
 import com.cuadernito.cuadernito_back.exception.BadRequestException;
 import com.cuadernito.cuadernito_back.exception.ResourceNotFoundException;
 import com.cuadernito.cuadernito_back.mapper.UserMapper;
+import com.cuadernito.cuadernito_back.repository.DailySummaryRepository;
+import com.cuadernito.cuadernito_back.repository.DebtBalanceCheckpointRepository;
+import com.cuadernito.cuadernito_back.repository.DebtLedgerEntryRepository;
+import com.cuadernito.cuadernito_back.repository.RefreshTokenRepository;
 import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.UserDetailsCache;
 import com.cuadernito.cuadernito_back.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -23,6 +28,21 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserMapper userMapper;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Autowired
+    private DebtLedgerEntryRepository debtLedgerEntryRepository;
+
+    @Autowired
+    private DebtBalanceCheckpointRepository debtBalanceCheckpointRepository;
+
     @Override
     @Transactional(readOnly = true)
     public UserDTO getUserById(Long id) {
@@ -45,6 +65,7 @@ public class UserServiceImpl implements UserService {
     public UserDTO updateUser(Long id, UserDTO userDTO) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
+        String previousEmail = user.getEmail();
 
         if (userDTO.getFirstName() != null && !userDTO.getFirstName().trim().isEmpty()) {
             user.setFirstName(userDTO.getFirstName().trim());
@@ -81,9 +102,14 @@ public class UserServiceImpl implements UserService {
 
         if (userDTO.getEnabled() != null) {
             user.setEnabled(userDTO.getEnabled());
+            if (!userDTO.getEnabled()) {
+                refreshTokenRepository.revokeAllByUserId(user.getId());
+            }
         }
 
         User updatedUser = userRepository.save(user);
+        userDetailsCache.evict(previousEmail);
+        userDetailsCache.evict(updatedUser.getEmail());
         return userMapper.toDTO(updatedUser);
     }
 
@@ -94,7 +120,12 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("Usuario no encontrado con ID: " + id));
         
         UserDTO userDTO = userMapper.toDTO(user);
+        refreshTokenRepository.deleteByUserId(id);
+        dailySummaryRepository.deleteByUserId(id);
+        debtBalanceCheckpointRepository.deleteByUserId(id);
+        debtLedgerEntryRepository.deleteByUserId(id);
         userRepository.deleteById(id);
+        userDetailsCache.evict(user.getEmail());
         
         return userDTO;
     }
@@ -0,0 +1,159 @@
+-- Esquema inicial. SQL comun a MySQL 8 y a H2 en modo MySQL; los generadores de ids van en cada motor (V2).
+
+CREATE TABLE users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    first_name VARCHAR(100) NOT NULL,
+    last_name VARCHAR(100) NOT NULL,
+    email VARCHAR(100) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    phone VARCHAR(20) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    role ENUM ('ROLE_ADMIN','ROLE_USER') NOT NULL,
+    enabled BIT NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE categories (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_categories_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE customer_debts (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    customer_first_name VARCHAR(100) NOT NULL,
+    customer_last_name VARCHAR(100) NOT NULL,
+    customer_phone VARCHAR(20) NOT NULL,
+    document_number VARCHAR(50),
+    total_amount DECIMAL(10,2) NOT NULL,
+    paid_amount DECIMAL(10,2) NOT NULL,
+    remaining_amount DECIMAL(10,2) NOT NULL,
+    status ENUM ('PAGADO','PARCIAL','PENDIENTE') NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_customer_debts_user_document UNIQUE (user_id, document_number),
+    CONSTRAINT fk_customer_debts_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    type ENUM ('GASTO','INGRESO') NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    debt_amount DECIMAL(10,2),
+    description VARCHAR(500),
+    date DATETIME(6) NOT NULL,
+    customer_debt_id BIGINT,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transactions_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_transactions_customer_debt FOREIGN KEY (customer_debt_id) REFERENCES customer_debts (id)
+) ENGINE=InnoDB;
+
+-- Listado paginado por fecha y reportes por periodo / tipo
+CREATE INDEX idx_transactions_user_date_id ON transactions (user_id, date, id);
+CREATE INDEX idx_transactions_user_date_type_amount ON transactions (user_id, date, type, amount);
+
+CREATE TABLE transaction_items (
+    id BIGINT NOT NULL,
+    transaction_id BIGINT NOT NULL,
+    category_id BIGINT NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_transaction_items_transaction FOREIGN KEY (transaction_id) REFERENCES transactions (id),
+    CONSTRAINT fk_transaction_items_category FOREIGN KEY (category_id) REFERENCES categories (id)
+) ENGINE=InnoDB;
+
+-- Reporte por categoria: se resuelve solo con el indice
+CREATE INDEX idx_transaction_items_tx_category_amount ON transaction_items (transaction_id, category_id, amount);
+
+CREATE TABLE refresh_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    jti VARCHAR(36) NOT NULL,
+    user_id BIGINT NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    revoked BIT NOT NULL,
+    replaced_by VARCHAR(36),
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_refresh_tokens_jti UNIQUE (jti),
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_refresh_tokens_user ON refresh_tokens (user_id);
+-- Purga periodica de refresh tokens vencidos
+CREATE INDEX idx_refresh_tokens_expires_at ON refresh_tokens (expires_at);
+
+CREATE TABLE revoked_tokens (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    jti VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_revoked_tokens_jti UNIQUE (jti)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_revoked_tokens_created_at ON revoked_tokens (created_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
+
+CREATE TABLE daily_summary (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    summary_date DATE NOT NULL,
+    income_amount DECIMAL(14,2) NOT NULL,
+    expense_amount DECIMAL(14,2) NOT NULL,
+    fiado_amount DECIMAL(14,2) NOT NULL,
+    payments_amount DECIMAL(14,2) NOT NULL,
+    transaction_count INT NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_daily_summary_user_date UNIQUE (user_id, summary_date)
+) ENGINE=InnoDB;
+
+CREATE TABLE debt_ledger_entries (
+    id BIGINT NOT NULL,
+    customer_debt_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    type ENUM ('AJUSTE','ANULACION','CARGO','PAGO') NOT NULL,
+    amount DECIMAL(10,2) NOT NULL,
+    paid_amount DECIMAL(10,2),
+    transaction_id BIGINT,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
+
+-- Replay desde un checkpoint e historial de pagos paginado por id
+CREATE INDEX idx_debt_ledger_debt_id ON debt_ledger_entries (customer_debt_id, id);
+CREATE INDEX idx_debt_ledger_user_type_created ON debt_ledger_entries (user_id, type, created_at);
+
+CREATE TABLE debt_balance_checkpoints (
+    customer_debt_id BIGINT NOT NULL,
+    ledger_entry_id BIGINT NOT NULL,
+    total_amount DECIMAL(10,2) NOT NULL,
+    paid_amount DECIMAL(10,2) NOT NULL,
+    updated_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (customer_debt_id)
+) ENGINE=InnoDB;
+
+CREATE TABLE idempotency_keys (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    user_id BIGINT NOT NULL,
+    idempotency_key VARCHAR(100) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INT,
+    content_type VARCHAR(100),
+    response_body MEDIUMTEXT,
+    expires_at DATETIME(6) NOT NULL,
+    created_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+) ENGINE=InnoDB;
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,2 @@
+-- Headers que puso el handler en la respuesta original (JSON nombre -> valores), para devolverlos en los reintentos
+ALTER TABLE idempotency_keys ADD COLUMN response_headers MEDIUMTEXT;
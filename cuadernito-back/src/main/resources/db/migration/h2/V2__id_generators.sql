@@ -0,0 +1,4 @@
+-- Secuencias de los ids asignados por Hibernate en lotes (allocationSize = 50)
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE transaction_items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE debt_ledger_entries_seq START WITH 1 INCREMENT BY 50;
@@ -0,0 +1,4 @@
+-- Los movimientos pasan a AUTO_INCREMENT: el id se asigna en el INSERT, con la fila de la deuda ya bloqueada,
+-- asi dentro de una deuda el orden de los ids es el orden de commit (los bloques de una secuencia no lo cumplen)
+ALTER TABLE debt_ledger_entries MODIFY id BIGINT NOT NULL AUTO_INCREMENT;
+DROP SEQUENCE debt_ledger_entries_seq;
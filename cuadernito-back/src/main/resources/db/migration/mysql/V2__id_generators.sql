@@ -0,0 +1,9 @@
+-- MySQL no tiene secuencias: Hibernate usa una tabla por generador con el proximo valor (allocationSize = 50)
+CREATE TABLE transactions_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO transactions_seq VALUES (1);
+
+CREATE TABLE transaction_items_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO transaction_items_seq VALUES (1);
+
+CREATE TABLE debt_ledger_entries_seq (next_val BIGINT) ENGINE=InnoDB;
+INSERT INTO debt_ledger_entries_seq VALUES (1);
@@ -0,0 +1,70 @@
+package com.cuadernito.cuadernito_back;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.TransactionService;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Perfil "prod" contra H2 en modo MySQL: aplica las migraciones de MySQL, Hibernate valida el esquema con
+ * MySQLDialect y una venta fiada usa los generadores por tabla en lugar de secuencias.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cuadernito_prod;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/mysql"
+})
+@ActiveProfiles("prod")
+class ProdProfileSchemaTest {
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Test
+    void mysqlMigrationsMatchEntities() {
+        assertEquals(4, flyway.info().applied().length);
+
+        User owner = TestUsers.create(userRepository, "prod");
+        Long categoryId = categoryRepository.save(Category.builder().name("Almacen").user(owner).build()).getId();
+
+        TransactionDTO created = transactionService.createTransaction(TransactionDTO.builder()
+                .description("fiado prod")
+                .items(List.of(TransactionItemDTO.builder().categoryId(categoryId).amount(BigDecimal.TEN).build()))
+                .esFiado(true)
+                .customerFirstName("Ana")
+                .customerLastName("Paz")
+                .customerPhone("123")
+                .customerDocumentNumber("40111222")
+                .build(), AuthenticatedUser.from(owner));
+
+        assertNotNull(created.getId());
+        assertNotNull(created.getCustomerDebtId());
+    }
+}
@@ -0,0 +1,100 @@
+package com.cuadernito.cuadernito_back.controller;
+
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los endpoints de /api/v1/auth no deben tener una conexión de Hikari tomada mientras BCrypt trabaja (o espera en
+ * su cola): se mira el pool desde adentro de {@code matches} y {@code encode}. Con open-in-view la conexión de la
+ * primera consulta quedaría tomada hasta el final del request.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class AuthPoolConnectionTest {
+
+    private static final String PASSWORD = "Clave123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoSpyBean
+    private PasswordEncoder passwordEncoder;
+
+    private final List<Integer> activeWhileHashing = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        HikariDataSource pool = dataSource.unwrap(HikariDataSource.class);
+        doAnswer(invocation -> {
+            activeWhileHashing.add(pool.getHikariPoolMXBean().getActiveConnections());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).encode(any());
+        doAnswer(invocation -> {
+            activeWhileHashing.add(pool.getHikariPoolMXBean().getActiveConnections());
+            return invocation.callRealMethod();
+        }).when(passwordEncoder).matches(any(), any());
+    }
+
+    @Test
+    void loginDoesNotHoldAConnectionWhileHashing() throws Exception {
+        User user = TestUsers.create(userRepository, "pool");
+        user.setPassword(new BCryptPasswordEncoder().encode(PASSWORD));
+        userRepository.save(user);
+
+        mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"%s\",\"password\":\"%s\"}".formatted(user.getEmail(), PASSWORD)))
+                .andExpect(status().isOk());
+
+        assertNoConnectionWhileHashing();
+    }
+
+    @Test
+    void registerDoesNotHoldAConnectionWhileHashing() throws Exception {
+        String email = "pool-" + System.nanoTime() + "@cuadernito.com";
+
+        mockMvc.perform(post("/api/v1/auth/register").with(user("admin").roles("ADMIN"))
+                        .contentType(MediaType.APPLICATION_JSON).content("""
+                        {"firstName":"Ana","lastName":"Paz","email":"%s","password":"%s",
+                         "phone":"1234567890","address":"Calle 123"}
+                        """.formatted(email, PASSWORD)))
+                .andExpect(status().isCreated());
+
+        assertNoConnectionWhileHashing();
+    }
+
+    private void assertNoConnectionWhileHashing() {
+        assertFalse(activeWhileHashing.isEmpty());
+        assertTrue(activeWhileHashing.stream().allMatch(active -> active == 0), "conexiones activas: " + activeWhileHashing);
+    }
+}
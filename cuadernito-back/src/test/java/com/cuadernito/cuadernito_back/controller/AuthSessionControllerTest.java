@@ -0,0 +1,149 @@
+package com.cuadernito.cuadernito_back.controller;
+
+import com.cuadernito.cuadernito_back.dto.auth.JwtResponse;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.RefreshTokenRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.JwtTokenProvider;
+import com.cuadernito.cuadernito_back.security.TokenRevocationRegistry;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Sesiones con access token corto y refresh token rotativo: cada refresh invalida el anterior, reusar uno ya
+ * rotado revoca todas las sesiones del usuario, el logout revoca ambos tokens y el filtro solo acepta access
+ * tokens no revocados.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class AuthSessionControllerTest {
+
+    private static final String PASSWORD = "Clave123";
+
+    private static final String PROTECTED_URL = "/api/v1/categories";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtTokenProvider tokenProvider;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "sesion");
+        user.setPassword(new BCryptPasswordEncoder().encode(PASSWORD));
+        userRepository.save(user);
+    }
+
+    @Test
+    void refreshRotatesBothTokens() throws Exception {
+        JwtResponse session = login();
+
+        JwtResponse rotated = read(refresh(session.getRefreshToken()).andExpect(status().isOk()));
+
+        assertNotEquals(session.getRefreshToken(), rotated.getRefreshToken());
+        assertNotEquals(session.getToken(), rotated.getToken());
+        String oldJti = jti(session.getRefreshToken());
+        assertEquals(jti(rotated.getRefreshToken()), refreshTokenRepository.findByJti(oldJti).orElseThrow().getReplacedBy());
+        authorized(rotated.getToken()).andExpect(status().isOk());
+        refresh(rotated.getRefreshToken()).andExpect(status().isOk());
+    }
+
+    @Test
+    void reusingARotatedRefreshTokenRevokesEverySession() throws Exception {
+        JwtResponse phone = login();
+        JwtResponse laptop = login();
+        JwtResponse rotated = read(refresh(phone.getRefreshToken()).andExpect(status().isOk()));
+
+        refresh(phone.getRefreshToken()).andExpect(status().isUnauthorized());
+
+        refresh(rotated.getRefreshToken()).andExpect(status().isUnauthorized());
+        refresh(laptop.getRefreshToken()).andExpect(status().isUnauthorized());
+        assertTrue(refreshTokenRepository.findByJti(jti(laptop.getRefreshToken())).orElseThrow().getRevoked());
+    }
+
+    @Test
+    void logoutRevokesTheAccessAndRefreshTokens() throws Exception {
+        JwtResponse session = login();
+        authorized(session.getToken()).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + session.getToken())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"refreshToken\":\"" + session.getRefreshToken() + "\"}"))
+                .andExpect(status().isNoContent());
+
+        assertTrue(revocationRegistry.isRevoked(jti(session.getToken())));
+        authorized(session.getToken()).andExpect(status().isForbidden());
+        refresh(session.getRefreshToken()).andExpect(status().isUnauthorized());
+
+        revocationRegistry.purgeAndSync();
+        authorized(session.getToken()).andExpect(status().isForbidden());
+    }
+
+    @Test
+    void filterRejectsRefreshTokensAsBearer() throws Exception {
+        JwtResponse session = login();
+
+        authorized(session.getRefreshToken()).andExpect(status().isForbidden());
+        authorized(session.getToken()).andExpect(status().isOk());
+    }
+
+    private JwtResponse login() throws Exception {
+        return read(mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"%s\",\"password\":\"%s\"}".formatted(user.getEmail(), PASSWORD)))
+                .andExpect(status().isOk()));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/v1/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"" + refreshToken + "\"}"));
+    }
+
+    private ResultActions authorized(String token) throws Exception {
+        return mockMvc.perform(get(PROTECTED_URL).header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+    }
+
+    private JwtResponse read(ResultActions result) throws Exception {
+        return objectMapper.readValue(result.andReturn().getResponse().getContentAsString(), JwtResponse.class);
+    }
+
+    private String jti(String token) {
+        Claims claims = tokenProvider.parseRefreshClaims(token)
+                .or(() -> tokenProvider.parseClaims(token))
+                .orElseThrow();
+        return claims.getId();
+    }
+}
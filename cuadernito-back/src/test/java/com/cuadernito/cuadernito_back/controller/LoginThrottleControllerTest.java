@@ -0,0 +1,88 @@
+package com.cuadernito.cuadernito_back.controller;
+
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Límite de intentos de login por email (5 cada 300 s): el sexto intento recibe 429 con Retry-After aunque la
+ * contraseña sea correcta, y un login correcto reinicia el contador. Los requests salen de una IP propia para no
+ * compartir el límite por IP (30 por minuto) con el resto de los tests del contexto.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class LoginThrottleControllerTest {
+
+    private static final String PASSWORD = "Clave123";
+
+    private static final String CLIENT_IP = "10.20.30.40";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "limite");
+        user.setPassword(new BCryptPasswordEncoder().encode(PASSWORD));
+        userRepository.save(user);
+    }
+
+    @Test
+    void sixthAttemptIsRejectedWithRetryAfter() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            login("incorrecta").andExpect(status().isUnauthorized());
+        }
+
+        String retryAfter = login(PASSWORD)
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.status").value(429))
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+
+        // Un intento cada 60 s: lo que falta para el próximo, menos lo que ya pasó desde el primer intento.
+        long seconds = Long.parseLong(retryAfter);
+        assertTrue(seconds > 50 && seconds <= 60, "Retry-After: " + retryAfter);
+    }
+
+    @Test
+    void successfulLoginResetsTheEmailLimit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            login("incorrecta").andExpect(status().isUnauthorized());
+        }
+        login(PASSWORD).andExpect(status().isOk());
+
+        for (int i = 0; i < 5; i++) {
+            login("incorrecta").andExpect(status().isUnauthorized());
+        }
+        login("incorrecta").andExpect(status().isTooManyRequests());
+    }
+
+    private ResultActions login(String password) throws Exception {
+        return mockMvc.perform(post("/api/v1/auth/login")
+                .with(request -> {
+                    request.setRemoteAddr(CLIENT_IP);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"%s\",\"password\":\"%s\"}".formatted(user.getEmail(), password)));
+    }
+}
@@ -0,0 +1,163 @@
+package com.cuadernito.cuadernito_back.controller;
+
+import com.cuadernito.cuadernito_back.dto.ImportResultDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.TransactionExportService;
+import com.cuadernito.cuadernito_back.service.TransactionExportService.ExportFormat;
+import com.cuadernito.cuadernito_back.service.TransactionService;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exportación del historial con más filas que el fetch size del cursor (500): se exportan todas, y la salida
+ * llega al stream en trozos del tamaño del buffer mientras se recorre el cursor, no armada entera al final.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class TransactionExportControllerTest {
+
+    private static final String EXPORT_URL = "/api/v1/transactions/export";
+
+    private static final int TRANSACTIONS = 400;
+
+    private static final int ITEMS_PER_TRANSACTION = 2;
+
+    private static final int ITEMS = TRANSACTIONS * ITEMS_PER_TRANSACTION;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private TransactionExportService transactionExportService;
+
+    private AuthenticatedUser currentUser;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestUsers.create(userRepository, "exportacion");
+        currentUser = AuthenticatedUser.from(owner);
+        Long categoryId = categoryRepository.save(Category.builder().name("Almacén").user(owner).build()).getId();
+
+        List<TransactionDTO> rows = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            rows.add(TransactionDTO.builder()
+                    .type("INGRESO")
+                    .date(start.plusHours(i))
+                    .description("venta " + i + ", contado")
+                    .items(List.of(
+                            TransactionItemDTO.builder().categoryId(categoryId).amount(new BigDecimal("10.50")).build(),
+                            TransactionItemDTO.builder().categoryId(categoryId).amount(new BigDecimal("2")).build()))
+                    .build());
+        }
+        ImportResultDTO result = transactionService.importTransactions(rows, currentUser);
+        assertEquals(TRANSACTIONS, result.getImportedRows());
+    }
+
+    @Test
+    void csvExportHasOneLinePerItem() throws Exception {
+        String body = mockMvc.perform(get(EXPORT_URL).param("format", "csv").with(user(currentUser)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"transacciones.csv\""))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(1 + ITEMS, lines.length);
+        assertTrue(lines[0].startsWith("transaction_id,date,type,amount,description,"), lines[0]);
+        assertTrue(lines[1].contains(",INGRESO,12.50,\"venta 0, contado\","), lines[1]);
+        assertTrue(lines[ITEMS].contains("\"venta " + (TRANSACTIONS - 1) + ", contado\""), lines[ITEMS]);
+    }
+
+    @Test
+    void ndjsonExportHasOneLinePerTransaction() throws Exception {
+        String body = mockMvc.perform(get(EXPORT_URL).with(user(currentUser)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals(TRANSACTIONS, lines.length);
+        assertTrue(lines[0].contains("\"description\":\"venta 0, contado\""), lines[0]);
+    }
+
+    @Test
+    void csvIsWrittenInChunksWhileTheCursorIsRead() throws Exception {
+        RecordingOutputStream out = new RecordingOutputStream();
+
+        transactionExportService.exportTransactions(currentUser, null, null, ExportFormat.CSV, out);
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertEquals(1 + ITEMS, body.split("\n").length);
+        assertTrue(out.writes > 1, "la salida llegó en una sola escritura");
+        assertTrue(out.largestWrite <= 8192, "escritura de " + out.largestWrite + " bytes");
+        assertTrue(out.bytesBeforeFlush > out.size() / 2,
+                "solo " + out.bytesBeforeFlush + " de " + out.size() + " bytes se escribieron antes del flush final");
+    }
+
+    /**
+     * Registra cuántas escrituras llegan, la más grande y cuántos bytes se escribieron antes del primer flush.
+     */
+    private static class RecordingOutputStream extends ByteArrayOutputStream {
+
+        private int writes;
+
+        private int largestWrite;
+
+        private int bytesBeforeFlush = -1;
+
+        @Override
+        public synchronized void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            super.write(b, off, len);
+            writes++;
+            largestWrite = Math.max(largestWrite, len);
+        }
+
+        @Override
+        public void flush() {
+            if (bytesBeforeFlush < 0) {
+                bytesBeforeFlush = size();
+            }
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.cuadernito.cuadernito_back.controller;
+
+import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.CustomerDebtService;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Importación masiva por CSV y por JSON: las filas inválidas se informan con su número y motivo, y las válidas
+ * se guardan igual. Los fiados del mismo cliente se agrupan en una sola deuda.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+@AutoConfigureMockMvc
+class TransactionImportControllerTest {
+
+    private static final String IMPORT_URL = "/api/v1/transactions/import";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerDebtRepository customerDebtRepository;
+
+    @Autowired
+    private CustomerDebtService customerDebtService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthenticatedUser currentUser;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestUsers.create(userRepository, "importacion");
+        currentUser = AuthenticatedUser.from(owner);
+        categoryId = categoryRepository.save(Category.builder().name("Almacén").user(owner).build()).getId();
+    }
+
+    @Test
+    void csvImportReportsBadRowsAndSavesTheRest() throws Exception {
+        String csv = "date,type,description,items,esFiado,customerFirstName,customerLastName,customerPhone,customerDocumentNumber\n"
+                + "2024-03-01,INGRESO,\"venta, contado\"," + categoryId + ":100,,,,,\n"
+                + "2024-03-01,INGRESO,otra categoría,999999999:10,,,,,\n"
+                + "2024-02-30,INGRESO,fecha inválida," + categoryId + ":10,,,,,\n"
+                + "2024-03-02,INGRESO,fiado 1," + categoryId + ":40,true,Ana,Paz,123,30111222\n"
+                + "2024-03-03,INGRESO,fiado 2," + categoryId + ":60,true,Ana,Paz,123,30111222\n"
+                + "2024-03-03,INGRESO,monto cero," + categoryId + ":0,,,,,\n";
+
+        mockMvc.perform(post(IMPORT_URL).with(user(currentUser)).contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(6))
+                .andExpect(jsonPath("$.importedRows").value(3))
+                .andExpect(jsonPath("$.failedRows").value(3))
+                .andExpect(jsonPath("$.customerDebtsCreated").value(1))
+                .andExpect(jsonPath("$.customerDebtsUpdated").value(0))
+                .andExpect(jsonPath("$.errors[*].row", contains(2, 3, 6)))
+                .andExpect(jsonPath("$.errors[0].message").value("Categoría no encontrada"))
+                .andExpect(jsonPath("$.errors[1].message", startsWith("Formato inválido")))
+                .andExpect(jsonPath("$.errors[2].message").value("Todos los items deben tener un monto mayor que cero"));
+
+        assertEquals(3, countTransactions());
+        CustomerDebt debt = customerDebtRepository.findByUserIdAndDocumentNumber(currentUser.getId(), "30111222").orElseThrow();
+        assertEquals(0, new BigDecimal("100").compareTo(debt.getTotalAmount()));
+        assertEquals(2, countTransactionsOfDebt(debt.getId()));
+    }
+
+    @Test
+    void jsonImportValidatesEachRowInsteadOfRejectingTheBatch() throws Exception {
+        Long debtId = customerDebtService.createCustomerDebt(CustomerDebtDTO.builder()
+                .customerFirstName("Ana")
+                .customerLastName("Paz")
+                .customerPhone("123")
+                .documentNumber("30111223")
+                .totalAmount(new BigDecimal("50"))
+                .build(), currentUser).getId();
+        String json = "["
+                + "{\"description\":\"contado\",\"items\":[{\"categoryId\":" + categoryId + ",\"amount\":10}]},"
+                + "{\"description\":\"sin items\"},"
+                + "null,"
+                + "{\"description\":\"" + "x".repeat(501) + "\",\"items\":[{\"categoryId\":" + categoryId + ",\"amount\":10}]},"
+                + "{\"items\":[{\"categoryId\":" + categoryId + ",\"amount\":25}],\"esFiado\":true,\"customerDebtId\":" + debtId + "}"
+                + "]";
+
+        mockMvc.perform(post(IMPORT_URL).with(user(currentUser)).contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalRows").value(5))
+                .andExpect(jsonPath("$.importedRows").value(2))
+                .andExpect(jsonPath("$.failedRows").value(3))
+                .andExpect(jsonPath("$.customerDebtsCreated").value(0))
+                .andExpect(jsonPath("$.customerDebtsUpdated").value(1))
+                .andExpect(jsonPath("$.errors[*].row", contains(2, 3, 4)))
+                .andExpect(jsonPath("$.errors[0].message").value("La transacción debe tener al menos un item"))
+                .andExpect(jsonPath("$.errors[1].message").value("La fila está vacía"))
+                .andExpect(jsonPath("$.errors[2].message").value("La descripción no puede superar 500 caracteres"));
+
+        assertEquals(2, countTransactions());
+        CustomerDebt debt = customerDebtRepository.findById(debtId).orElseThrow();
+        assertEquals(0, new BigDecimal("75").compareTo(debt.getTotalAmount()));
+    }
+
+    @Test
+    void emptyImportIsBadRequest() throws Exception {
+        mockMvc.perform(post(IMPORT_URL).with(user(currentUser)).contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post(IMPORT_URL).with(user(currentUser)).contentType("text/csv").content("items\n"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private int countTransactions() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE user_id = ?", Integer.class,
+                currentUser.getId());
+    }
+
+    private int countTransactionsOfDebt(Long debtId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions WHERE customer_debt_id = ?", Integer.class,
+                debtId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.cuadernito.cuadernito_back.dataset;
+
+import com.cuadernito.cuadernito_back.service.DebtLedgerService;
+import com.cuadernito.cuadernito_back.service.DebtLedgerService.DebtBalance;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Perfil "dataset" con un volumen chico: las filas cargadas por JDBC cuadran con el registro de movimientos y
+ * con los totales de cada venta, y la misma semilla genera los mismos datos.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cuadernito_dataset;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "dataset.shops=3",
+        "dataset.transactions-per-shop=400",
+        "dataset.customers-per-shop=10",
+        "dataset.fiado-ratio=0.4",
+        "dataset.end-date=2026-06-30",
+        "dataset.exit-on-finish=false"
+})
+@ActiveProfiles("dataset")
+class DatasetGeneratorTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DebtLedgerService debtLedgerService;
+
+    @Test
+    void loadedDebtsMatchLedgerAndTransactions() {
+        assertEquals(3, count("SELECT COUNT(*) FROM users WHERE email LIKE '%" + DatasetGenerator.EMAIL_DOMAIN + "'"));
+        assertTrue(count("SELECT COUNT(*) FROM transactions") >= 3 * 200);
+        assertEquals(0, count("SELECT COUNT(*) FROM transactions t WHERE t.amount <> "
+                + "(SELECT SUM(i.amount) FROM transaction_items i WHERE i.transaction_id = t.id)"));
+
+        List<Map<String, Object>> debts = jdbcTemplate.queryForList(
+                "SELECT id, total_amount, paid_amount, remaining_amount, status FROM customer_debts");
+        assertTrue(debts.stream().map(debt -> debt.get("status")).distinct().count() > 1);
+        for (Map<String, Object> debt : debts) {
+            DebtBalance balance = debtLedgerService.replay(((Number) debt.get("id")).longValue());
+            assertEquals(0, balance.totalAmount().compareTo((BigDecimal) debt.get("total_amount")));
+            assertEquals(0, balance.paidAmount().compareTo((BigDecimal) debt.get("paid_amount")));
+            assertEquals(0, balance.remainingAmount().compareTo((BigDecimal) debt.get("remaining_amount")));
+        }
+    }
+
+    @Test
+    void sameSeedGeneratesSameShop() {
+        ShopDataGenerator.Settings settings = new ShopDataGenerator.Settings(7, LocalDate.of(2026, 6, 30), 90, 500,
+                0.5, 8, 20, 2.5, 30, 1800, 0.1, 45000, 0.3, 0.5, 0.3, 6);
+        assertEquals(new ShopDataGenerator(settings).generate(4), new ShopDataGenerator(settings).generate(4));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
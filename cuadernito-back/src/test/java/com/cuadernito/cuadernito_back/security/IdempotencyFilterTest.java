@@ -0,0 +1,346 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.config.DatabaseAdmissionInterceptor;
+import com.cuadernito.cuadernito_back.repository.IdempotencyRecordRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * IdempotencyFilter con el store real sobre H2 y un handler simulado que cuenta sus ejecuciones: reintento de
+ * una respuesta ya guardada (también desde otra instancia, leyendo la base), clave reutilizada con otro cuerpo,
+ * duplicado concurrente que espera al original, lectura asíncrona del cuerpo, permiso de admisión compartido y
+ * clave que no se libera si falla el guardado de una respuesta ya confirmada.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class IdempotencyFilterTest {
+
+    private static final String BODY = "{\"description\":\"venta\",\"items\":[{\"categoryId\":1,\"amount\":10}]}";
+
+    @Autowired
+    private IdempotencyStore store;
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private AuthenticatedUser currentUser;
+
+    @BeforeEach
+    void setUp() {
+        currentUser = AuthenticatedUser.from(TestUsers.create(userRepository, "idempotencia"));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void completedResponseIsReplayedWithItsHeaders() throws Exception {
+        IdempotencyFilter filter = filter(store, null);
+        Handler handler = new Handler();
+        String key = newKey();
+
+        MockHttpServletResponse first = post(filter, key, BODY, handler);
+        MockHttpServletResponse retry = post(filter, key, BODY, handler);
+
+        assertEquals(1, handler.calls.get());
+        assertEquals(201, first.getStatus());
+        assertNull(first.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertReplayOf(first, retry);
+
+        // Otra instancia no tiene la respuesta en memoria: la lee de idempotency_keys.
+        MockHttpServletResponse fromDatabase = post(filter(newStore(), null), key, BODY, handler);
+        assertEquals(1, handler.calls.get());
+        assertReplayOf(first, fromDatabase);
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        IdempotencyFilter filter = filter(store, null);
+        Handler handler = new Handler();
+        String key = newKey();
+
+        post(filter, key, BODY, handler);
+        MockHttpServletResponse reused = post(filter, key, BODY.replace("venta", "otra venta"), handler);
+
+        assertEquals(1, handler.calls.get());
+        assertEquals(422, reused.getStatus());
+        assertNull(reused.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void concurrentDuplicateWaitsForOriginalAndGetsItsResponse() throws Exception {
+        IdempotencyFilter filter = filter(store, null);
+        Handler handler = new Handler();
+        handler.blockUntilReleased();
+        String key = newKey();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<MockHttpServletResponse> original = executor.submit(() -> postAs(filter, key, BODY, handler));
+            assertTrue(handler.entered.await(10, TimeUnit.SECONDS));
+
+            Future<MockHttpServletResponse> duplicate = executor.submit(() -> postAs(filter, key, BODY, handler));
+            assertThrows(TimeoutException.class, () -> duplicate.get(300, TimeUnit.MILLISECONDS),
+                    "El duplicado no debe responder mientras el original sigue en curso");
+
+            handler.release.countDown();
+            MockHttpServletResponse first = original.get(10, TimeUnit.SECONDS);
+            MockHttpServletResponse second = duplicate.get(10, TimeUnit.SECONDS);
+
+            assertEquals(1, handler.calls.get());
+            assertEquals(201, first.getStatus());
+            assertReplayOf(first, second);
+        } finally {
+            handler.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void readListenerReceivesCachedBody() throws Exception {
+        IdempotencyFilter filter = filter(store, null);
+        ByteArrayOutputStream read = new ByteArrayOutputStream();
+        AtomicBoolean allDataRead = new AtomicBoolean();
+
+        post(filter, newKey(), BODY, (request, response) -> {
+            ServletInputStream input = request.getInputStream();
+            input.setReadListener(new ReadListener() {
+                @Override
+                public void onDataAvailable() throws IOException {
+                    byte[] buffer = new byte[16];
+                    while (input.isReady() && !input.isFinished()) {
+                        int n = input.read(buffer);
+                        if (n > 0) {
+                            read.write(buffer, 0, n);
+                        }
+                    }
+                }
+
+                @Override
+                public void onAllDataRead() {
+                    allDataRead.set(true);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    throw new AssertionError(t);
+                }
+            });
+            ((HttpServletResponse) response).setStatus(201);
+        });
+
+        assertEquals(BODY, read.toString(StandardCharsets.UTF_8));
+        assertTrue(allDataRead.get());
+    }
+
+    @Test
+    void admissionPermitIsTakenBeforeTheStoreAndSharedWithTheHandler() throws Exception {
+        DatabaseAdmissionInterceptor admission = new DatabaseAdmissionInterceptor(1, 0, 50, new SimpleMeterRegistry());
+        IdempotencyFilter filter = filter(store, admission);
+        Handler handler = new Handler();
+        handler.admission = admission;
+        handler.blockUntilReleased();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<MockHttpServletResponse> original = executor.submit(() -> postAs(filter, newKey(), BODY, handler));
+            assertTrue(handler.entered.await(10, TimeUnit.SECONDS));
+
+            // Único permiso ocupado por el original y sin cola: el filtro rechaza antes de reservar la clave.
+            String rejectedKey = newKey();
+            MockHttpServletResponse rejected = post(filter, rejectedKey, BODY, handler);
+            assertEquals(503, rejected.getStatus());
+            assertEquals("1", rejected.getHeader(HttpHeaders.RETRY_AFTER));
+            assertTrue(recordRepository.findByUserIdAndIdempotencyKey(currentUser.getId(), rejectedKey).isEmpty());
+
+            handler.release.countDown();
+            assertEquals(201, original.get(10, TimeUnit.SECONDS).getStatus());
+        } finally {
+            handler.release.countDown();
+            executor.shutdownNow();
+        }
+
+        // El handler no pidió un segundo permiso y el filtro liberó el suyo.
+        MockHttpServletResponse next = post(filter, newKey(), BODY, handler);
+        assertEquals(201, next.getStatus());
+        assertEquals(2, handler.calls.get());
+    }
+
+    @Test
+    void keyIsNotReleasedWhenStoringTheResponseFails() throws Exception {
+        IdempotencyRecordRepository failingRepository = mock(IdempotencyRecordRepository.class, delegatesTo(recordRepository));
+        doThrow(new DataAccessResourceFailureException("base caída"))
+                .when(failingRepository).complete(any(), any(), anyInt(), any(), any(), any());
+        IdempotencyStore failingStore = newStore();
+        ReflectionTestUtils.setField(failingStore, "repository", failingRepository);
+        IdempotencyFilter filter = filter(failingStore, null);
+        Handler handler = new Handler();
+        String key = newKey();
+
+        MockHttpServletResponse first = post(filter, key, BODY, handler);
+        MockHttpServletResponse retry = post(filter, key, BODY, handler);
+
+        // El cliente recibe la respuesta real y el reintento no vuelve a ejecutar la operación.
+        assertEquals(201, first.getStatus());
+        assertEquals(1, handler.calls.get());
+        assertReplayOf(first, retry);
+        verify(failingRepository, never()).release(any(), any());
+
+        // Otra instancia encuentra la reserva pendiente y espera en lugar de ejecutar.
+        IdempotencyStore otherInstance = newStore();
+        ReflectionTestUtils.setField(otherInstance, "waitTimeoutMs", 300L);
+        MockHttpServletResponse elsewhere = post(filter(otherInstance, null), key, BODY, handler);
+        assertEquals(409, elsewhere.getStatus());
+        assertEquals(1, handler.calls.get());
+    }
+
+    private void assertReplayOf(MockHttpServletResponse original, MockHttpServletResponse replayed) throws IOException {
+        assertEquals(original.getStatus(), replayed.getStatus());
+        assertEquals(original.getContentAsString(), replayed.getContentAsString());
+        assertEquals(original.getHeader(HttpHeaders.LOCATION), replayed.getHeader(HttpHeaders.LOCATION));
+        assertTrue(replayed.getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE));
+        assertEquals("true", replayed.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    private MockHttpServletResponse postAs(IdempotencyFilter filter, String key, String body, FilterChain chain)
+            throws Exception {
+        try {
+            return post(filter, key, body, chain);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private MockHttpServletResponse post(IdempotencyFilter filter, String key, String body, FilterChain chain)
+            throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(currentUser, null, currentUser.getAuthorities()));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/transactions");
+        request.setServletPath("/api/v1/transactions");
+        request.addHeader(IdempotencyFilter.HEADER, key);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private IdempotencyFilter filter(IdempotencyStore idempotencyStore, DatabaseAdmissionInterceptor admission) {
+        IdempotencyFilter filter = new IdempotencyFilter();
+        ReflectionTestUtils.setField(filter, "store", idempotencyStore);
+        ReflectionTestUtils.setField(filter, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(filter, "admission", admission);
+        return filter;
+    }
+
+    private IdempotencyStore newStore() {
+        IdempotencyStore other = new IdempotencyStore();
+        ReflectionTestUtils.setField(other, "repository", recordRepository);
+        ReflectionTestUtils.setField(other, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(other, "ttlHours", 24L);
+        ReflectionTestUtils.setField(other, "cacheMaxSize", 100L);
+        ReflectionTestUtils.setField(other, "waitTimeoutMs", 10_000L);
+        ReflectionTestUtils.setField(other, "pendingTimeoutSeconds", 60L);
+        other.init();
+        return other;
+    }
+
+    private static String newKey() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * Hace las veces del controller: lee el cuerpo y responde 201 con Location y un id propio de cada ejecución.
+     * Si tiene un interceptor de admisión lo corre como lo haría el DispatcherServlet.
+     */
+    private static final class Handler implements FilterChain {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private CountDownLatch release = new CountDownLatch(0);
+        private DatabaseAdmissionInterceptor admission;
+
+        void blockUntilReleased() {
+            release = new CountDownLatch(1);
+        }
+
+        @Override
+        public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse) throws IOException {
+            HttpServletRequest request = (HttpServletRequest) servletRequest;
+            HttpServletResponse response = (HttpServletResponse) servletResponse;
+            if (admission != null) {
+                admission.preHandle(request, response, this);
+            }
+            try {
+                request.getInputStream().readAllBytes();
+                int call = calls.incrementAndGet();
+                entered.countDown();
+                release.await(10, TimeUnit.SECONDS);
+                response.setStatus(201);
+                response.setHeader(HttpHeaders.LOCATION, "/api/v1/transactions/" + call);
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getOutputStream().write(("{\"id\":" + call + "}").getBytes(StandardCharsets.UTF_8));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            } finally {
+                if (admission != null) {
+                    admission.afterCompletion(request, response, this, null);
+                }
+            }
+        }
+    }
+}
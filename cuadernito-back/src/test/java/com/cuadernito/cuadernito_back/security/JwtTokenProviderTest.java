@@ -0,0 +1,131 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.entity.User;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Cache de claims verificados con un reloj controlado: un token cacheado deja de validar al pasar su exp, y un
+ * token alterado (firma o payload) no se sirve desde la cache aunque el original esté en ella.
+ */
+class JwtTokenProviderTest {
+
+    private static final Duration ACCESS_EXPIRATION = Duration.ofMinutes(15);
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2025-03-01T12:00:00Z"));
+
+    private final AuthenticatedUser user = new AuthenticatedUser(7L, "ana@cuadernito.com", User.Role.ROLE_USER);
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = newProvider("cuadernito-secret-key-locales-barriales");
+    }
+
+    @Test
+    void cachedTokenStopsValidatingOnceItExpires() {
+        String token = provider.generateAccessToken(user);
+        assertTrue(provider.validateToken(token));
+        assertTrue(provider.validateToken(token));
+
+        clock.advance(ACCESS_EXPIRATION);
+        assertTrue(provider.validateToken(token));
+
+        clock.advance(Duration.ofSeconds(1));
+        assertFalse(provider.validateToken(token));
+        assertTrue(provider.parseClaims(token).isEmpty());
+    }
+
+    @Test
+    void tamperedSignatureIsNotServedFromTheCache() {
+        String token = provider.generateAccessToken(user);
+        assertTrue(provider.validateToken(token));
+
+        int signatureStart = token.lastIndexOf('.') + 1;
+        char first = token.charAt(signatureStart);
+        String tampered = token.substring(0, signatureStart) + (first == 'A' ? 'B' : 'A') + token.substring(signatureStart + 1);
+
+        assertFalse(provider.validateToken(tampered));
+        assertTrue(provider.validateToken(token));
+    }
+
+    @Test
+    void tamperedPayloadWithTheOriginalSignatureIsRejected() {
+        String token = provider.generateAccessToken(user);
+        assertTrue(provider.validateToken(token));
+
+        String[] parts = token.split("\\.");
+        Base64.Decoder decoder = Base64.getUrlDecoder();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = new String(decoder.decode(parts[1]), StandardCharsets.UTF_8);
+        String escalated = payload.replace(User.Role.ROLE_USER.name(), User.Role.ROLE_ADMIN.name());
+        String tampered = parts[0] + "." + encoder.encodeToString(escalated.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertFalse(provider.validateToken(tampered));
+        Claims claims = provider.parseClaims(token).orElseThrow();
+        assertEquals(User.Role.ROLE_USER.name(), claims.get(JwtTokenProvider.ROLE_CLAIM, String.class));
+    }
+
+    @Test
+    void tokenSignedWithAnotherKeyIsRejected() {
+        JwtTokenProvider other = newProvider("otra-clave-secreta-de-otro-entorno-123");
+        String foreign = other.generateAccessToken(user);
+
+        assertTrue(other.validateToken(foreign));
+        assertFalse(provider.validateToken(foreign));
+    }
+
+    private JwtTokenProvider newProvider(String secret) {
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtSecret", secret);
+        ReflectionTestUtils.setField(jwtTokenProvider, "jwtExpirationMs", ACCESS_EXPIRATION.toMillis());
+        ReflectionTestUtils.setField(jwtTokenProvider, "refreshExpirationMs", Duration.ofDays(30).toMillis());
+        ReflectionTestUtils.setField(jwtTokenProvider, "claimsCacheMaxSize", 100L);
+        ReflectionTestUtils.setField(jwtTokenProvider, "clock", clock);
+        jwtTokenProvider.init();
+        return jwtTokenProvider;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.exception.TooManyRequestsException;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Límites de login por email (5 cada 300 s) y por IP (30 cada 60 s) con un reloj controlado: rechazo con los
+ * segundos de espera, refill con el paso del tiempo, email sin distinguir mayúsculas y reinicio tras un login
+ * correcto.
+ */
+class LoginThrottleTest {
+
+    private static final String EMAIL = "ana@cuadernito.com";
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LoginThrottle throttle;
+
+    @BeforeEach
+    void setUp() {
+        throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        ReflectionTestUtils.setField(throttle, "emailCapacity", 5);
+        ReflectionTestUtils.setField(throttle, "emailRefillSeconds", 300L);
+        ReflectionTestUtils.setField(throttle, "ipCapacity", 30);
+        ReflectionTestUtils.setField(throttle, "ipRefillSeconds", 60L);
+        ReflectionTestUtils.setField(throttle, "maxKeys", 1000L);
+        ReflectionTestUtils.setField(throttle, "idleEvictionSeconds", 900L);
+        ReflectionTestUtils.setField(throttle, "ticker", (Ticker) clock::get);
+        throttle.init();
+    }
+
+    @Test
+    void emailIsLimitedAcrossIpsAndRetryAfterIsTheTimeToTheNextToken() {
+        for (int i = 0; i < 5; i++) {
+            throttle.checkAttempt(EMAIL, "10.0.0." + i);
+        }
+
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                () -> throttle.checkAttempt(" ANA@Cuadernito.com ", "10.0.0.99"));
+        assertEquals(60, rejected.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.counter("cuadernito.login.throttled").count());
+        assertDoesNotThrow(() -> throttle.checkAttempt("otra@cuadernito.com", "10.0.0.99"));
+    }
+
+    @Test
+    void emailRefillsOneAttemptPerMinute() {
+        for (int i = 0; i < 5; i++) {
+            throttle.checkAttempt(EMAIL, null);
+        }
+
+        advanceSeconds(59);
+        assertEquals(1, assertThrows(TooManyRequestsException.class,
+                () -> throttle.checkAttempt(EMAIL, null)).getRetryAfterSeconds());
+        advanceSeconds(1);
+        throttle.checkAttempt(EMAIL, null);
+        assertThrows(TooManyRequestsException.class, () -> throttle.checkAttempt(EMAIL, null));
+    }
+
+    @Test
+    void ipIsLimitedAcrossEmails() {
+        for (int i = 0; i < 30; i++) {
+            throttle.checkAttempt("usuario" + i + "@cuadernito.com", "10.0.0.1");
+        }
+
+        TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                () -> throttle.checkAttempt("nuevo@cuadernito.com", "10.0.0.1"));
+        assertEquals(2, rejected.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> throttle.checkAttempt("nuevo@cuadernito.com", "10.0.0.2"));
+
+        advanceSeconds(60);
+        for (int i = 0; i < 30; i++) {
+            throttle.checkAttempt("otro" + i + "@cuadernito.com", "10.0.0.1");
+        }
+    }
+
+    @Test
+    void successfulLoginResetsTheEmailButNotTheIp() {
+        for (int i = 0; i < 5; i++) {
+            throttle.checkAttempt(EMAIL, "10.0.0.1");
+        }
+        throttle.onSuccessfulLogin(" Ana@Cuadernito.com");
+
+        for (int i = 0; i < 5; i++) {
+            throttle.checkAttempt(EMAIL, "10.0.0.1");
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.checkAttempt(EMAIL, "10.0.0.2"));
+
+        // La IP ya lleva 10 de 30 intentos: el login correcto no la reinicia.
+        for (int i = 0; i < 20; i++) {
+            throttle.checkAttempt("usuario" + i + "@cuadernito.com", "10.0.0.1");
+        }
+        assertThrows(TooManyRequestsException.class, () -> throttle.checkAttempt("nuevo@cuadernito.com", "10.0.0.1"));
+    }
+
+    @Test
+    void disabledThrottleNeverRejects() {
+        ReflectionTestUtils.setField(throttle, "enabled", false);
+
+        for (int i = 0; i < 50; i++) {
+            throttle.checkAttempt(EMAIL, "10.0.0.1");
+        }
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+}
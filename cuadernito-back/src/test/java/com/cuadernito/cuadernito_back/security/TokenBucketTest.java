@@ -0,0 +1,80 @@
+package com.cuadernito.cuadernito_back.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Token bucket con el reloj pasado a mano: consumo hasta la capacidad, refill proporcional al tiempo, tope en la
+ * capacidad y segundos hasta el próximo token, redondeados hacia arriba.
+ */
+class TokenBucketTest {
+
+    private static final long START = 1_000L;
+
+    private static final long PERIOD = TimeUnit.SECONDS.toNanos(60);
+
+    @Test
+    void startsFullAndRejectsOnceEmpty() {
+        TokenBucket bucket = new TokenBucket(3, PERIOD, START);
+
+        assertTrue(bucket.tryConsume(START));
+        assertTrue(bucket.tryConsume(START));
+        assertTrue(bucket.tryConsume(START));
+        assertFalse(bucket.tryConsume(START));
+    }
+
+    @Test
+    void refillsOneTokenPerPeriodOverCapacity() {
+        TokenBucket bucket = new TokenBucket(3, PERIOD, START);
+        drain(bucket, 3, START);
+
+        // 3 tokens cada 60 s: uno cada 20 s.
+        assertFalse(bucket.tryConsume(START + TimeUnit.SECONDS.toNanos(19)));
+        assertTrue(bucket.tryConsume(START + TimeUnit.SECONDS.toNanos(20)));
+        assertFalse(bucket.tryConsume(START + TimeUnit.SECONDS.toNanos(20)));
+        assertTrue(bucket.tryConsume(START + TimeUnit.SECONDS.toNanos(40)));
+    }
+
+    @Test
+    void refillIsCappedAtCapacity() {
+        TokenBucket bucket = new TokenBucket(3, PERIOD, START);
+        drain(bucket, 3, START);
+
+        long later = START + TimeUnit.HOURS.toNanos(1);
+        drain(bucket, 3, later);
+        assertFalse(bucket.tryConsume(later));
+    }
+
+    @Test
+    void secondsUntilNextTokenFollowsTheRefillRate() {
+        TokenBucket bucket = new TokenBucket(3, PERIOD, START);
+        assertEquals(0, bucket.secondsUntilNextToken(START));
+
+        drain(bucket, 3, START);
+        assertEquals(20, bucket.secondsUntilNextToken(START));
+        assertEquals(5, bucket.secondsUntilNextToken(START + TimeUnit.SECONDS.toNanos(15)));
+        // 19,5 s de espera se informan como 20: con 19 el reintento volvería a rechazarse.
+        assertEquals(20, bucket.secondsUntilNextToken(START + TimeUnit.MILLISECONDS.toNanos(500)));
+        // Menos de un segundo se redondea a uno: Retry-After nunca es 0 si el request se rechazó.
+        assertEquals(1, bucket.secondsUntilNextToken(START + TimeUnit.MILLISECONDS.toNanos(19_900)));
+    }
+
+    @Test
+    void clockGoingBackwardsDoesNotAddTokens() {
+        TokenBucket bucket = new TokenBucket(1, PERIOD, START);
+        drain(bucket, 1, START);
+
+        assertFalse(bucket.tryConsume(START - PERIOD));
+    }
+
+    private static void drain(TokenBucket bucket, int tokens, long now) {
+        for (int i = 0; i < tokens; i++) {
+            assertTrue(bucket.tryConsume(now));
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.dto.UserDTO;
+import com.cuadernito.cuadernito_back.dto.auth.ChangePasswordRequest;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.service.AuthService;
+import com.cuadernito.cuadernito_back.service.UserService;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El filtro JWT lee el usuario desde UserDetailsCache: deshabilitarlo o cambiarle la contraseña tiene que
+ * invalidar la entrada. Si un request concurrente vuelve a cachear los datos viejos antes del commit, la segunda
+ * invalidación (afterCompletion) la borra otra vez.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class UserDetailsCacheEvictionTest {
+
+    private static final String PASSWORD = "Clave123";
+
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = TestUsers.create(userRepository, "cache");
+        user.setPassword(new BCryptPasswordEncoder().encode(PASSWORD));
+        userRepository.save(user);
+    }
+
+    @Test
+    void disablingAUserEvictsTheCachedDetails() {
+        assertTrue(userDetailsCache.loadUserByUsername(user.getEmail()).isEnabled());
+
+        userService.updateUser(user.getId(), UserDTO.builder().enabled(false).build());
+
+        assertFalse(userDetailsCache.loadUserByUsername(user.getEmail()).isEnabled());
+    }
+
+    @Test
+    void changingThePasswordEvictsTheCachedDetails() {
+        String before = userDetailsCache.loadUserByUsername(user.getEmail()).getPassword();
+
+        authService.changePassword(user.getEmail(), new ChangePasswordRequest(PASSWORD, "Nueva1234"));
+
+        String after = userDetailsCache.loadUserByUsername(user.getEmail()).getPassword();
+        assertNotEquals(before, after);
+        assertTrue(passwordEncoder.matches("Nueva1234", after));
+    }
+
+    @Test
+    void detailsCachedByAConcurrentReadBeforeTheCommitAreEvictedAfterIt() {
+        assertTrue(userDetailsCache.loadUserByUsername(user.getEmail()).isEnabled());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.updateUser(user.getId(), UserDTO.builder().enabled(false).build());
+            // Otro request lee antes del commit: ve el usuario habilitado y lo vuelve a cachear.
+            AuthenticatedUser concurrent = CompletableFuture
+                    .supplyAsync(() -> userDetailsCache.loadUserByUsername(user.getEmail()))
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+            assertTrue(concurrent.isEnabled());
+            assertTrue(userDetailsCache.loadUserByUsername(user.getEmail()).isEnabled(),
+                    "la lectura concurrente debía dejar la entrada vieja en la cache");
+        });
+
+        assertFalse(userDetailsCache.loadUserByUsername(user.getEmail()).isEnabled());
+    }
+
+    @Test
+    void passwordChangedInsideALongerTransactionIsEvictedAfterTheCommit() {
+        String before = userDetailsCache.loadUserByUsername(user.getEmail()).getPassword();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            authService.changePassword(user.getEmail(), new ChangePasswordRequest(PASSWORD, "Nueva1234"));
+            String concurrent = CompletableFuture
+                    .supplyAsync(() -> userDetailsCache.loadUserByUsername(user.getEmail()).getPassword())
+                    .orTimeout(10, TimeUnit.SECONDS)
+                    .join();
+            assertEquals(before, concurrent);
+        });
+
+        assertTrue(passwordEncoder.matches("Nueva1234", userDetailsCache.loadUserByUsername(user.getEmail()).getPassword()));
+    }
+}
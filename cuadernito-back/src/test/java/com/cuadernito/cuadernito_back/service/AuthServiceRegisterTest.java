@@ -0,0 +1,72 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.auth.RegisterRequest;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+import com.cuadernito.cuadernito_back.exception.ServiceUnavailableException;
+import com.cuadernito.cuadernito_back.mapper.UserMapper;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.service.impl.AuthServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Errores del alta de usuario: solo los datos inválidos terminan en 400; la saturación de BCrypt sigue siendo 503.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthServiceRegisterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private UserMapper userMapper;
+
+    @InjectMocks
+    private AuthServiceImpl authService;
+
+    @Test
+    void saturatedPasswordEncoderIsNotReportedAsBadRequest() {
+        when(userRepository.existsByEmail("ana@cuadernito.com")).thenReturn(false);
+        when(passwordEncoder.encode("Secreto123")).thenThrow(new ServiceUnavailableException("Servidor ocupado"));
+
+        assertThrows(ServiceUnavailableException.class, () -> authService.register(request()));
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void concurrentRegistrationWithSameEmailIsBadRequest() {
+        when(userRepository.existsByEmail("ana@cuadernito.com")).thenReturn(false);
+        when(passwordEncoder.encode("Secreto123")).thenReturn("hash");
+        when(userRepository.save(any(User.class))).thenThrow(new DataIntegrityViolationException("uk_users_email"));
+
+        BadRequestException e = assertThrows(BadRequestException.class, () -> authService.register(request()));
+        assertEquals("El email ya está registrado", e.getMessage());
+    }
+
+    private static RegisterRequest request() {
+        RegisterRequest request = new RegisterRequest();
+        request.setFirstName("Ana");
+        request.setLastName("Paz");
+        request.setEmail("ana@cuadernito.com");
+        request.setPassword("Secreto123");
+        request.setPhone("1234567890");
+        request.setAddress("Calle 123");
+        return request;
+    }
+}
@@ -0,0 +1,270 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt.DebtStatus;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.DebtLedgerService.DebtBalance;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Varias cajas trabajando el mismo cliente a la vez: ventas fiadas (por id de deuda y por documento), ediciones
+ * y bajas de esas ventas, pagos y ediciones de los datos de contacto de la deuda, todo en paralelo sobre una
+ * única deuda. La edición de contacto guarda la entidad completa, así que además comprueba que no pisa los
+ * cargos y pagos concurrentes. Al final total, pagado, pendiente y
+ * estado deben coincidir exactamente con la suma de las operaciones, y el registro de movimientos debe dar el
+ * mismo saldo. La deuda arranca con un saldo grande para que ningún pago se recorte y el resultado esperado no
+ * dependa del orden en que se intercalan las operaciones.
+ *
+ * Se corre con cada nivel de concurrencia y deja ops/s en el log a nivel debug. Para una corrida más larga:
+ * {@code mvn test -Dtest=CustomerDebtConcurrencyStressTest -Dstress.levels=1,2,4,8,16,32 -Dstress.operations=2000}
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class CustomerDebtConcurrencyStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerDebtConcurrencyStressTest.class);
+
+    private static final int[] LEVELS = Arrays.stream(System.getProperty("stress.levels", "1,4,16").split(","))
+            .mapToInt(level -> Integer.parseInt(level.trim()))
+            .toArray();
+    private static final int OPERATIONS = Integer.getInteger("stress.operations", 320);
+    private static final long OPENING_BALANCE_CENTS = 100_000_000;
+    private static final long PAYMENT_CENTS = 150;
+    private static final String DOCUMENT_NUMBER = "27333444";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerDebtService customerDebtService;
+
+    @Autowired
+    private DebtLedgerService debtLedgerService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerDebtRepository customerDebtRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelChargesEditsDeletesAndPaymentsKeepBalanceExact() throws Exception {
+        for (int threads : LEVELS) {
+            runLevel(threads);
+        }
+    }
+
+    private void runLevel(int threads) throws Exception {
+        User owner = TestUsers.create(userRepository, "estres-" + threads);
+        AuthenticatedUser currentUser = AuthenticatedUser.from(owner);
+        Long categoryId = categoryRepository.save(Category.builder().name("Almacén").user(owner).build()).getId();
+        Long debtId = customerDebtService.createCustomerDebt(CustomerDebtDTO.builder()
+                .customerFirstName("Ana")
+                .customerLastName("Paz")
+                .customerPhone("123")
+                .documentNumber(DOCUMENT_NUMBER)
+                .totalAmount(money(OPENING_BALANCE_CENTS))
+                .build(), currentUser).getId();
+
+        int operationsPerThread = Math.max(1, OPERATIONS / threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Cashier>> results = new ArrayList<>();
+        long elapsedNanos;
+        try {
+            for (int t = 0; t < threads; t++) {
+                Cashier cashier = new Cashier(new SplittableRandom(threads * 1_000L + t), currentUser, debtId, categoryId);
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int op = 0; op < operationsPerThread; op++) {
+                        cashier.next();
+                    }
+                    return cashier;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<Cashier> result : results) {
+                result.get();
+            }
+            elapsedNanos = System.nanoTime() - begin;
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long charged = OPENING_BALANCE_CENTS;
+        long paid = 0;
+        int[] counts = new int[Cashier.OPERATION_TYPES];
+        for (Future<Cashier> result : results) {
+            Cashier cashier = result.get();
+            charged += cashier.chargedCents;
+            paid += cashier.paidCents;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += cashier.counts[i];
+            }
+        }
+        int operations = operationsPerThread * threads;
+        log.info("threads={} ops={} ops/s={} create={} update={} delete={} pay={} contact={}", threads, operations,
+                String.format("%.1f", operations / (elapsedNanos / 1_000_000_000.0)),
+                counts[0], counts[1], counts[2], counts[3], counts[4]);
+
+        CustomerDebt debt = customerDebtRepository.findById(debtId).orElseThrow();
+        String level = "threads=" + threads + ": ";
+        assertEquals(money(charged), debt.getTotalAmount(), level + "totalAmount");
+        assertEquals(money(paid), debt.getPaidAmount(), level + "paidAmount");
+        assertEquals(money(charged - paid), debt.getRemainingAmount(), level + "remainingAmount");
+        assertEquals(paid == 0 ? DebtStatus.PENDIENTE : DebtStatus.PARCIAL, debt.getStatus(), level + "status");
+
+        BigDecimal openFiados = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(debt_amount), 0) FROM transactions WHERE customer_debt_id = ?", BigDecimal.class, debtId);
+        assertEquals(money(charged - OPENING_BALANCE_CENTS), openFiados.setScale(2), level + "fiados vigentes");
+
+        DebtBalance replayed = debtLedgerService.replay(debtId);
+        assertEquals(debt.getTotalAmount(), replayed.totalAmount().setScale(2), level + "total del registro");
+        assertEquals(debt.getPaidAmount(), replayed.paidAmount().setScale(2), level + "pagado del registro");
+    }
+
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Una caja: edita y da de baja solo sus propias ventas, así dos hilos nunca tocan la misma transacción,
+     * pero todas las operaciones pegan en la misma deuda. Lleva la cuenta de lo que debería haber cambiado.
+     */
+    private final class Cashier {
+        private static final int CREATE = 0;
+        private static final int UPDATE = 1;
+        private static final int DELETE = 2;
+        private static final int PAY = 3;
+        private static final int CONTACT = 4;
+        private static final int OPERATION_TYPES = 5;
+
+        private final SplittableRandom random;
+        private final AuthenticatedUser currentUser;
+        private final Long debtId;
+        private final Long categoryId;
+        private final List<TransactionDTO> open = new ArrayList<>();
+        private final int[] counts = new int[OPERATION_TYPES];
+        private long chargedCents;
+        private long paidCents;
+
+        private Cashier(SplittableRandom random, AuthenticatedUser currentUser, Long debtId, Long categoryId) {
+            this.random = random;
+            this.currentUser = currentUser;
+            this.debtId = debtId;
+            this.categoryId = categoryId;
+        }
+
+        void next() {
+            int roll = random.nextInt(100);
+            if (roll < 35 || open.isEmpty()) {
+                create();
+            } else if (roll < 55) {
+                update();
+            } else if (roll < 70) {
+                delete();
+            } else if (roll < 90) {
+                pay();
+            } else {
+                editContact();
+            }
+        }
+
+        private void create() {
+            long cents = 100 + random.nextInt(5_000);
+            TransactionDTO.TransactionDTOBuilder request = TransactionDTO.builder()
+                    .description("fiado concurrente")
+                    .items(List.of(item(cents)))
+                    .esFiado(true);
+            if (random.nextBoolean()) {
+                request.customerDebtId(debtId);
+            } else {
+                request.customerFirstName("Ana")
+                        .customerLastName("Paz")
+                        .customerPhone("123")
+                        .customerDocumentNumber(DOCUMENT_NUMBER);
+            }
+            TransactionDTO created = transactionService.createTransaction(request.build(), currentUser);
+            assertEquals(debtId, created.getCustomerDebtId());
+            open.add(created);
+            chargedCents += cents;
+            counts[CREATE]++;
+        }
+
+        /**
+         * Reemplaza los ítems y vuelve a marcarla como fiado: descuenta el monto anterior y carga el nuevo.
+         */
+        private void update() {
+            TransactionDTO current = open.remove(random.nextInt(open.size()));
+            long cents = 100 + random.nextInt(5_000);
+            TransactionDTO updated = transactionService.updateTransaction(current.getId(), TransactionDTO.builder()
+                    .items(List.of(item(cents)))
+                    .removeItemIds(current.getItems().stream().map(TransactionItemDTO::getId).toList())
+                    .esFiado(true)
+                    .customerDebtId(debtId)
+                    .build(), currentUser);
+            open.add(updated);
+            chargedCents += cents - current.getDebtAmount().movePointRight(2).longValueExact();
+            counts[UPDATE]++;
+        }
+
+        private void delete() {
+            TransactionDTO current = open.remove(random.nextInt(open.size()));
+            transactionService.deleteTransaction(current.getId(), currentUser);
+            chargedCents -= current.getDebtAmount().movePointRight(2).longValueExact();
+            counts[DELETE]++;
+        }
+
+        private void pay() {
+            customerDebtService.registerPayment(debtId, money(PAYMENT_CENTS), currentUser);
+            paidCents += PAYMENT_CENTS;
+            counts[PAY]++;
+        }
+
+        /**
+         * Solo datos de contacto: no cambia el saldo, pero guarda la entidad completa.
+         */
+        private void editContact() {
+            customerDebtService.updateCustomerDebt(debtId, CustomerDebtDTO.builder()
+                    .customerPhone(String.valueOf(1_000 + random.nextInt(9_000)))
+                    .build(), currentUser);
+            counts[CONTACT]++;
+        }
+
+        private TransactionItemDTO item(long cents) {
+            return TransactionItemDTO.builder().categoryId(categoryId).amount(money(cents)).build();
+        }
+    }
+}
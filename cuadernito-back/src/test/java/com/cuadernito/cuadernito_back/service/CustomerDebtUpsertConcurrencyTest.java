@@ -0,0 +1,115 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt.DebtStatus;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ventas fiadas simultáneas al mismo cliente nuevo: todas deben terminar en una única deuda
+ * con la suma de los montos, sin errores de clave duplicada.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class CustomerDebtUpsertConcurrencyTest {
+
+    private static final int PARALLEL_SALES = 16;
+    private static final String DOCUMENT_NUMBER = "30111222";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerDebtRepository customerDebtRepository;
+
+    private AuthenticatedUser currentUser;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestUsers.create(userRepository, "upsert");
+        currentUser = AuthenticatedUser.from(owner);
+        categoryId = categoryRepository.save(Category.builder().name("Almacen").user(owner).build()).getId();
+    }
+
+    @Test
+    void parallelFirstFiadosForSameDocumentCreateOneDebt() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(PARALLEL_SALES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<TransactionDTO>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < PARALLEL_SALES; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return transactionService.createTransaction(fiado(BigDecimal.TEN), currentUser);
+                }));
+            }
+            start.countDown();
+
+            Set<Long> debtIds = results.stream()
+                    .map(this::get)
+                    .map(TransactionDTO::getCustomerDebtId)
+                    .collect(Collectors.toSet());
+            assertEquals(1, debtIds.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CustomerDebt debt = customerDebtRepository.findByUserIdAndDocumentNumber(currentUser.getId(), DOCUMENT_NUMBER)
+                .orElseThrow();
+        BigDecimal expected = BigDecimal.TEN.multiply(BigDecimal.valueOf(PARALLEL_SALES));
+        assertEquals(0, expected.compareTo(debt.getTotalAmount()));
+        assertEquals(0, expected.compareTo(debt.getRemainingAmount()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(debt.getPaidAmount()));
+        assertEquals(DebtStatus.PENDIENTE, debt.getStatus());
+    }
+
+    private TransactionDTO fiado(BigDecimal amount) {
+        return TransactionDTO.builder()
+                .description("fiado concurrente")
+                .items(List.of(TransactionItemDTO.builder().categoryId(categoryId).amount(amount).build()))
+                .esFiado(true)
+                .customerFirstName("Ana")
+                .customerLastName("Paz")
+                .customerPhone("123")
+                .customerDocumentNumber(DOCUMENT_NUMBER)
+                .build();
+    }
+
+    private TransactionDTO get(Future<TransactionDTO> future) {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            throw new AssertionError("La venta fiada falló", e);
+        }
+    }
+}
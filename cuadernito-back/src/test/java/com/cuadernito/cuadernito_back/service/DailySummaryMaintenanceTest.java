@@ -0,0 +1,192 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.CashCloseDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.DailySummaryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * daily_summary se mantiene con deltas en cada escritura. Después de altas, ediciones (monto, fecha, tipo y
+ * fiado), bajas, pagos e importaciones, la tabla debe ser igual a un recálculo completo, y el cierre de caja
+ * igual al que sale de recorrer las transacciones y los pagos.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class DailySummaryMaintenanceTest {
+
+    private static final String SUMMARY_ROWS =
+            "SELECT summary_date, income_amount, expense_amount, fiado_amount, payments_amount, transaction_count " +
+            "FROM daily_summary WHERE user_id = ? ORDER BY summary_date";
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerDebtService customerDebtService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private DailySummaryRepository dailySummaryRepository;
+
+    @Autowired
+    private CustomerDebtRepository customerDebtRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuthenticatedUser owner;
+
+    private Long categoryId;
+
+    private final LocalDate today = LocalDate.now();
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.create(userRepository, "resumen");
+        owner = AuthenticatedUser.from(user);
+        categoryId = categoryRepository.save(Category.builder().name("Almacén").user(user).build()).getId();
+    }
+
+    @Test
+    void incrementalSummaryMatchesAFullRebuildAndATransactionScan() {
+        TransactionDTO contado = transactionService.createTransaction(sale("INGRESO", 3, "100"), owner);
+        TransactionDTO gasto = transactionService.createTransaction(sale("GASTO", 2, "40"), owner);
+        TransactionDTO fiado = transactionService.createTransaction(fiado(sale("INGRESO", 3, "80"), "30111222", null), owner);
+        TransactionDTO fiadoParcial = transactionService.createTransaction(
+                fiado(sale("INGRESO", 1, "50"), "30111333", new BigDecimal("20")), owner);
+        TransactionDTO borrada = transactionService.createTransaction(sale("INGRESO", 1, "15"), owner);
+
+        // Monto y fecha: sale del día 3 y entra al día 1 con otro total.
+        transactionService.updateTransaction(contado.getId(), TransactionDTO.builder()
+                .date(today.minusDays(1).atTime(10, 0))
+                .items(List.of(item("25")))
+                .build(), owner);
+        // Tipo: el gasto pasa a ingreso en el mismo día.
+        transactionService.updateTransaction(gasto.getId(), TransactionDTO.builder().type("INGRESO").build(), owner);
+        // Fiado: una venta al contado pasa a fiado y una fiada pasa a contado.
+        transactionService.updateTransaction(borrada.getId(), fiado(TransactionDTO.builder().build(), "30111444", null), owner);
+        transactionService.updateTransaction(fiadoParcial.getId(), TransactionDTO.builder().esFiado(false).build(), owner);
+        transactionService.deleteTransaction(borrada.getId(), owner);
+
+        Long debtId = customerDebtRepository.findByUserIdAndDocumentNumber(owner.getId(), "30111222").orElseThrow().getId();
+        customerDebtService.registerPayment(debtId, new BigDecimal("30"), owner);
+        customerDebtService.registerPayment(debtId, new BigDecimal("500"), owner);
+        transactionService.importTransactions(List.of(
+                sale("INGRESO", 0, "12"),
+                fiado(sale("INGRESO", 2, "9"), "30111222", null),
+                sale("GASTO", 4, "7")), owner);
+        transactionService.deleteTransaction(fiado.getId(), owner);
+
+        List<String> incremental = summaryRows();
+        dailySummaryRepository.rebuildForUser(owner.getId());
+        assertEquals(summaryRows(), incremental);
+
+        List<CashCloseDTO> cashClose = reportService.getCashClose(owner, today.minusDays(10), today);
+        assertEquals(scanCashClose(), cashClose.stream().map(DailySummaryMaintenanceTest::format).toList());
+    }
+
+    private List<String> summaryRows() {
+        return jdbcTemplate.query(SUMMARY_ROWS, (rs, rowNum) -> rs.getDate("summary_date") + " " +
+                plain(rs.getBigDecimal("income_amount")) + " " + plain(rs.getBigDecimal("expense_amount")) + " " +
+                plain(rs.getBigDecimal("fiado_amount")) + " " + plain(rs.getBigDecimal("payments_amount")) + " " +
+                rs.getInt("transaction_count"), owner.getId());
+    }
+
+    /**
+     * Cierre de caja de referencia, recorriendo transacciones y pagos: columnas ingreso, gasto, fiado, cobros y
+     * cantidad por día.
+     */
+    private List<String> scanCashClose() {
+        Map<LocalDate, BigDecimal[]> days = new TreeMap<>();
+        jdbcTemplate.query("SELECT date, type, amount, debt_amount FROM transactions WHERE user_id = ?", rs -> {
+            BigDecimal[] day = days.computeIfAbsent(rs.getTimestamp("date").toLocalDateTime().toLocalDate(), d -> newDay());
+            int column = "INGRESO".equals(rs.getString("type")) ? 0 : 1;
+            day[column] = day[column].add(rs.getBigDecimal("amount"));
+            if (rs.getBigDecimal("debt_amount") != null) {
+                day[2] = day[2].add(rs.getBigDecimal("debt_amount"));
+            }
+            day[4] = day[4].add(BigDecimal.ONE);
+        }, owner.getId());
+        jdbcTemplate.query("SELECT created_at, amount FROM debt_ledger_entries WHERE user_id = ? AND type = 'PAGO'", rs -> {
+            BigDecimal[] day = days.computeIfAbsent(rs.getTimestamp("created_at").toLocalDateTime().toLocalDate(), d -> newDay());
+            day[3] = day[3].add(rs.getBigDecimal("amount"));
+        }, owner.getId());
+
+        List<String> result = new ArrayList<>();
+        BigDecimal balance = BigDecimal.ZERO;
+        for (Map.Entry<LocalDate, BigDecimal[]> entry : days.entrySet()) {
+            BigDecimal[] day = entry.getValue();
+            BigDecimal cashFlow = day[0].subtract(day[2]).add(day[3]).subtract(day[1]);
+            balance = balance.add(cashFlow);
+            result.add(entry.getKey() + " " + plain(day[0]) + " " + plain(day[1]) + " " + plain(day[2]) + " " +
+                    plain(day[3]) + " " + day[4].intValue() + " " + plain(cashFlow) + " " + plain(balance));
+        }
+        return result;
+    }
+
+    private static BigDecimal[] newDay() {
+        return new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO};
+    }
+
+    private static String format(CashCloseDTO day) {
+        return day.getDate() + " " + plain(day.getIncome()) + " " + plain(day.getExpense()) + " " +
+                plain(day.getFiadoIssued()) + " " + plain(day.getPaymentsReceived()) + " " + day.getTransactionCount() +
+                " " + plain(day.getCashFlow()) + " " + plain(day.getRunningBalance());
+    }
+
+    private static String plain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    private TransactionDTO sale(String type, int daysAgo, String amount) {
+        return TransactionDTO.builder()
+                .type(type)
+                .date(LocalDateTime.of(today.minusDays(daysAgo), LocalTime.NOON))
+                .items(List.of(item(amount)))
+                .build();
+    }
+
+    private TransactionDTO fiado(TransactionDTO transaction, String documentNumber, BigDecimal debtAmount) {
+        transaction.setEsFiado(true);
+        transaction.setDebtAmount(debtAmount);
+        transaction.setCustomerFirstName("Ana");
+        transaction.setCustomerLastName("Paz");
+        transaction.setCustomerPhone("123");
+        transaction.setCustomerDocumentNumber(documentNumber);
+        return transaction;
+    }
+
+    private TransactionItemDTO item(String amount) {
+        return TransactionItemDTO.builder().categoryId(categoryId).amount(new BigDecimal(amount)).build();
+    }
+}
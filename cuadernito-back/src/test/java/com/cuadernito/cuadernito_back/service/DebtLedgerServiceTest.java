@@ -0,0 +1,296 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.dto.DebtPaymentDTO;
+import com.cuadernito.cuadernito_back.dto.DebtPaymentPageDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt;
+import com.cuadernito.cuadernito_back.entity.DebtBalanceCheckpoint;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry;
+import com.cuadernito.cuadernito_back.entity.DebtLedgerEntry.EntryType;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.exception.ResourceNotFoundException;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.CustomerDebtRepository;
+import com.cuadernito.cuadernito_back.repository.DebtBalanceCheckpointRepository;
+import com.cuadernito.cuadernito_back.repository.DebtLedgerEntryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.DebtLedgerService.DebtBalance;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Registro de movimientos de deudas: reglas del plegado, checkpoints y historial de pagos. El umbral de
+ * checkpoint es el de application.properties (50 movimientos).
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class DebtLedgerServiceTest {
+
+    private static final int CHECKPOINT_MIN_ENTRIES = 50;
+
+    @Autowired
+    private DebtLedgerService debtLedgerService;
+
+    @Autowired
+    private CustomerDebtService customerDebtService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerDebtRepository customerDebtRepository;
+
+    @Autowired
+    private DebtLedgerEntryRepository ledgerRepository;
+
+    @Autowired
+    private DebtBalanceCheckpointRepository checkpointRepository;
+
+    private AuthenticatedUser currentUser;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestUsers.create(userRepository, "registro");
+        currentUser = AuthenticatedUser.from(owner);
+        categoryId = categoryRepository.save(Category.builder().name("Almacén").user(owner).build()).getId();
+    }
+
+    @Test
+    void replayAppliesTheSameRulesAsTheBalanceUpdates() {
+        Long debtId = createDebt("100.00");
+
+        debtLedgerService.recordAdjustment(debtId, currentUser.getId(), new BigDecimal("100.00"), new BigDecimal("30.00"));
+        assertBalance("100.00", "30.00", debtLedgerService.replay(debtId));
+
+        record(debtId, EntryType.CARGO, "50.00");
+        assertBalance("150.00", "30.00", debtLedgerService.replay(debtId));
+
+        record(debtId, EntryType.PAGO, "100.00");
+        assertBalance("150.00", "130.00", debtLedgerService.replay(debtId));
+
+        // La anulación deja el total por debajo de lo pagado: lo pagado se recorta al nuevo total.
+        record(debtId, EntryType.ANULACION, "40.00");
+        assertBalance("110.00", "110.00", debtLedgerService.replay(debtId));
+
+        // El total nunca queda negativo.
+        record(debtId, EntryType.ANULACION, "500.00");
+        assertBalance("0.00", "0.00", debtLedgerService.replay(debtId));
+
+        record(debtId, EntryType.CARGO, "20.00");
+        DebtBalance balance = debtLedgerService.replay(debtId);
+        assertBalance("20.00", "0.00", balance);
+        assertEquals(lastEntryId(debtId), balance.lastEntryId());
+    }
+
+    @Test
+    void replayMatchesTheDebtAfterServiceOperations() {
+        Long debtId = createDebt("100.00");
+        TransactionDTO fiado = transactionService.createTransaction(fiado(debtId, "50.00"), currentUser);
+        customerDebtService.registerPayment(debtId, new BigDecimal("120.00"), currentUser);
+        transactionService.deleteTransaction(fiado.getId(), currentUser);
+        customerDebtService.registerPayment(debtId, new BigDecimal("500.00"), currentUser);
+        customerDebtService.updateCustomerDebt(debtId, CustomerDebtDTO.builder()
+                .totalAmount(new BigDecimal("200.00"))
+                .build(), currentUser);
+        transactionService.createTransaction(fiado(debtId, "15.50"), currentUser);
+
+        assertMatchesDebt(debtId);
+        assertBalance("215.50", "100.00", debtLedgerService.replay(debtId));
+    }
+
+    @Test
+    void checkpointAdvancesOnlyAfterEnoughNewEntries() {
+        Long debtId = createDebt("1000.00");
+        for (int i = 0; i < CHECKPOINT_MIN_ENTRIES; i++) {
+            customerDebtService.registerPayment(debtId, BigDecimal.ONE, currentUser);
+        }
+
+        debtLedgerService.checkpointDebts();
+        DebtBalanceCheckpoint first = checkpointRepository.findById(debtId).orElseThrow();
+        assertEquals(lastEntryId(debtId), first.getLedgerEntryId());
+        assertEquals(0, new BigDecimal("1000.00").compareTo(first.getTotalAmount()));
+        assertEquals(0, new BigDecimal("50.00").compareTo(first.getPaidAmount()));
+
+        for (int i = 0; i < 3; i++) {
+            customerDebtService.registerPayment(debtId, BigDecimal.ONE, currentUser);
+        }
+        debtLedgerService.checkpointDebts();
+        assertEquals(first.getLedgerEntryId(), checkpointRepository.findById(debtId).orElseThrow().getLedgerEntryId());
+
+        // El replay parte del checkpoint y suma solo la cola.
+        DebtBalance balance = debtLedgerService.replay(debtId);
+        assertBalance("1000.00", "53.00", balance);
+        assertEquals(lastEntryId(debtId), balance.lastEntryId());
+
+        for (int i = 0; i < CHECKPOINT_MIN_ENTRIES; i++) {
+            customerDebtService.registerPayment(debtId, BigDecimal.ONE, currentUser);
+        }
+        debtLedgerService.checkpointDebts();
+        DebtBalanceCheckpoint second = checkpointRepository.findById(debtId).orElseThrow();
+        assertEquals(lastEntryId(debtId), second.getLedgerEntryId());
+        assertEquals(0, new BigDecimal("103.00").compareTo(second.getPaidAmount()));
+        assertMatchesDebt(debtId);
+    }
+
+    /**
+     * Checkpoints tomados mientras otros hilos cobran sobre la misma deuda: ningún movimiento queda detrás
+     * de un checkpoint sin haber sido plegado en él.
+     */
+    @Test
+    void checkpointsTakenDuringConcurrentPaymentsLoseNoEntries() throws Exception {
+        Long debtId = createDebt("10000.00");
+        int threads = 4;
+        int paymentsPerThread = 40;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean paying = new AtomicBoolean(true);
+        List<Future<?>> payers = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                payers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < paymentsPerThread; i++) {
+                        customerDebtService.registerPayment(debtId, BigDecimal.ONE, currentUser);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> checkpointer = executor.submit(() -> {
+                start.await();
+                while (paying.get()) {
+                    debtLedgerService.checkpointDebts();
+                }
+                return null;
+            });
+            start.countDown();
+            for (Future<?> payer : payers) {
+                payer.get();
+            }
+            paying.set(false);
+            checkpointer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(checkpointRepository.findById(debtId).isPresent());
+        assertMatchesDebt(debtId);
+        assertBalance("10000.00", String.valueOf(threads * paymentsPerThread) + ".00", debtLedgerService.replay(debtId));
+    }
+
+    @Test
+    void paymentHistoryPagesFromNewestToOldest() {
+        Long debtId = createDebt("100.00");
+        for (int i = 1; i <= 5; i++) {
+            customerDebtService.registerPayment(debtId, BigDecimal.valueOf(i), currentUser);
+        }
+        transactionService.createTransaction(fiado(debtId, "10.00"), currentUser);
+
+        DebtPaymentPageDTO first = customerDebtService.getPayments(debtId, currentUser, null, 2);
+        assertEquals(List.of(5, 4), amounts(first));
+        assertTrue(first.isHasNext());
+
+        DebtPaymentPageDTO second = customerDebtService.getPayments(debtId, currentUser, first.getNextCursor(), 2);
+        assertEquals(List.of(3, 2), amounts(second));
+
+        DebtPaymentPageDTO last = customerDebtService.getPayments(debtId, currentUser, second.getNextCursor(), 2);
+        assertEquals(List.of(1), amounts(last));
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+
+        AuthenticatedUser stranger = AuthenticatedUser.from(TestUsers.create(userRepository, "ajeno"));
+        assertThrows(ResourceNotFoundException.class, () -> customerDebtService.getPayments(debtId, stranger, null, 2));
+    }
+
+    @Test
+    void deletingADebtKeepsItsLedger() {
+        Long debtId = createDebt("100.00");
+        customerDebtService.registerPayment(debtId, BigDecimal.TEN, currentUser);
+        int entriesBefore = entries(debtId).size();
+
+        customerDebtService.deleteCustomerDebt(debtId, currentUser);
+
+        List<DebtLedgerEntry> entries = entries(debtId);
+        assertEquals(entriesBefore + 1, entries.size());
+        DebtLedgerEntry closure = entries.get(entries.size() - 1);
+        assertEquals(EntryType.AJUSTE, closure.getType());
+        assertBalance("0.00", "0.00", debtLedgerService.replay(debtId));
+        assertFalse(customerDebtRepository.existsById(debtId));
+    }
+
+    private Long createDebt(String total) {
+        return customerDebtService.createCustomerDebt(CustomerDebtDTO.builder()
+                .customerFirstName("Ana")
+                .customerLastName("Paz")
+                .customerPhone("123")
+                .documentNumber("31222333")
+                .totalAmount(new BigDecimal(total))
+                .build(), currentUser).getId();
+    }
+
+    private TransactionDTO fiado(Long debtId, String amount) {
+        return TransactionDTO.builder()
+                .description("fiado")
+                .items(List.of(TransactionItemDTO.builder().categoryId(categoryId).amount(new BigDecimal(amount)).build()))
+                .esFiado(true)
+                .customerDebtId(debtId)
+                .build();
+    }
+
+    private void record(Long debtId, EntryType type, String amount) {
+        debtLedgerService.record(debtId, currentUser.getId(), type, new BigDecimal(amount), null);
+    }
+
+    private List<DebtLedgerEntry> entries(Long debtId) {
+        return ledgerRepository.findByCustomerDebtIdAndIdGreaterThanOrderById(debtId, 0L);
+    }
+
+    private Long lastEntryId(Long debtId) {
+        List<DebtLedgerEntry> entries = entries(debtId);
+        return entries.get(entries.size() - 1).getId();
+    }
+
+    private void assertMatchesDebt(Long debtId) {
+        CustomerDebt debt = customerDebtRepository.findById(debtId).orElseThrow();
+        DebtBalance balance = debtLedgerService.replay(debtId);
+        assertEquals(0, debt.getTotalAmount().compareTo(balance.totalAmount()), "total");
+        assertEquals(0, debt.getPaidAmount().compareTo(balance.paidAmount()), "pagado");
+    }
+
+    private static void assertBalance(String total, String paid, DebtBalance balance) {
+        assertEquals(0, new BigDecimal(total).compareTo(balance.totalAmount()), "total " + balance.totalAmount());
+        assertEquals(0, new BigDecimal(paid).compareTo(balance.paidAmount()), "pagado " + balance.paidAmount());
+    }
+
+    private static List<Integer> amounts(DebtPaymentPageDTO page) {
+        return page.getContent().stream().map(DebtPaymentDTO::getAmount).map(BigDecimal::intValueExact).toList();
+    }
+}
@@ -0,0 +1,173 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.CategoryReportDTO;
+import com.cuadernito.cuadernito_back.dto.PeriodReportDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Reportes por categoría y por período sobre datos fijos de marzo de 2024, con transacciones justo fuera del
+ * rango y de otro usuario que no deben contarse: sumas por categoría y tipo, filtro de tipo, agrupación por
+ * día, semana y mes, y validación del rango.
+ */
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+class ReportServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2024, 3, 1);
+
+    private static final LocalDate TO = LocalDate.of(2024, 3, 31);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private AuthenticatedUser owner;
+
+    private Long almacen;
+
+    private Long bebidas;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.create(userRepository, "reportes");
+        owner = AuthenticatedUser.from(user);
+        almacen = categoryRepository.save(Category.builder().name("Almacén").user(user).build()).getId();
+        bebidas = categoryRepository.save(Category.builder().name("Bebidas").user(user).build()).getId();
+
+        // Lunes 4: una venta con dos categorías y un gasto.
+        create(owner, "INGRESO", LocalDateTime.of(2024, 3, 4, 10, 0), item(almacen, "100"), item(bebidas, "50"));
+        create(owner, "GASTO", LocalDateTime.of(2024, 3, 4, 18, 0), item(almacen, "30"));
+        create(owner, "INGRESO", LocalDateTime.of(2024, 3, 6, 9, 0), item(bebidas, "20"));
+        // Lunes 11, otra semana.
+        create(owner, "INGRESO", LocalDateTime.of(2024, 3, 11, 9, 0), item(almacen, "10"));
+        create(owner, "GASTO", LocalDateTime.of(2024, 3, 11, 9, 30), item(bebidas, "5"));
+        // Último instante del rango, incluido.
+        create(owner, "INGRESO", LocalDateTime.of(2024, 3, 31, 23, 59, 59), item(almacen, "1"));
+        // Fuera del rango por un segundo de cada lado.
+        create(owner, "INGRESO", LocalDateTime.of(2024, 2, 29, 23, 59, 59), item(almacen, "1000"));
+        create(owner, "INGRESO", LocalDateTime.of(2024, 4, 1, 0, 0), item(almacen, "1000"));
+
+        User other = TestUsers.create(userRepository, "reportes-otro");
+        Long otherCategory = categoryRepository.save(Category.builder().name("Almacén").user(other).build()).getId();
+        create(AuthenticatedUser.from(other), "INGRESO", LocalDateTime.of(2024, 3, 4, 10, 0), item(otherCategory, "777"));
+    }
+
+    @Test
+    void totalsByCategoryAreSummedPerCategoryAndType() {
+        Map<String, String> totals = byCategory(reportService.getTotalsByCategory(owner, FROM, TO, null));
+
+        assertEquals(Map.of(
+                "Almacén INGRESO", "111 x3",
+                "Almacén GASTO", "30 x1",
+                "Bebidas INGRESO", "70 x2",
+                "Bebidas GASTO", "5 x1"), totals);
+    }
+
+    @Test
+    void totalsByCategoryCanBeFilteredByType() {
+        assertEquals(Map.of("Almacén GASTO", "30 x1", "Bebidas GASTO", "5 x1"),
+                byCategory(reportService.getTotalsByCategory(owner, FROM, TO, " gasto ")));
+        assertEquals(Map.of("Almacén INGRESO", "111 x3", "Bebidas INGRESO", "70 x2"),
+                byCategory(reportService.getTotalsByCategory(owner, FROM, TO, "INGRESO")));
+        assertThrows(BadRequestException.class, () -> reportService.getTotalsByCategory(owner, FROM, TO, "FIADO"));
+    }
+
+    @Test
+    void totalsByDayCountTransactionsNotItems() {
+        assertEquals(List.of(
+                "2024-03-04 150-30=120 1/1",
+                "2024-03-06 20-0=20 1/0",
+                "2024-03-11 10-5=5 1/1",
+                "2024-03-31 1-0=1 1/0"), byPeriod(reportService.getTotalsByPeriod(owner, FROM, TO, null)));
+    }
+
+    @Test
+    void totalsByWeekAndMonthStartOnMondayAndOnTheFirst() {
+        assertEquals(List.of(
+                "2024-03-04 170-30=140 2/1",
+                "2024-03-11 10-5=5 1/1",
+                "2024-03-25 1-0=1 1/0"), byPeriod(reportService.getTotalsByPeriod(owner, FROM, TO, "week")));
+        assertEquals(List.of("2024-03-01 181-35=146 4/2"),
+                byPeriod(reportService.getTotalsByPeriod(owner, FROM, TO, "MONTH")));
+        assertThrows(BadRequestException.class, () -> reportService.getTotalsByPeriod(owner, FROM, TO, "year"));
+    }
+
+    @Test
+    void missingFromDefaultsToTheFirstDayOfTheMonth() {
+        assertEquals(byPeriod(reportService.getTotalsByPeriod(owner, FROM, TO, "month")),
+                byPeriod(reportService.getTotalsByPeriod(owner, null, TO, "month")));
+    }
+
+    @Test
+    void rangeIsValidated() {
+        assertThrows(BadRequestException.class, () -> reportService.getTotalsByCategory(owner, TO, FROM, null));
+        assertThrows(BadRequestException.class, () -> reportService.getTotalsByPeriod(owner, TO, FROM, null));
+        assertThrows(BadRequestException.class, () -> reportService.getCashClose(owner, TO, FROM));
+
+        assertDoesNotThrow(() -> reportService.getTotalsByPeriod(owner, TO.minusDays(3660), TO, "month"));
+        assertThrows(BadRequestException.class, () -> reportService.getTotalsByPeriod(owner, TO.minusDays(3661), TO, "month"));
+        assertDoesNotThrow(() -> reportService.getTotalsByCategory(owner, TO, TO, null));
+    }
+
+    private static Map<String, String> byCategory(List<CategoryReportDTO> rows) {
+        Map<String, String> totals = new TreeMap<>();
+        rows.forEach(row -> totals.put(row.getCategoryName() + " " + row.getType(),
+                plain(row.getTotal()) + " x" + row.getItemCount()));
+        return totals;
+    }
+
+    private static List<String> byPeriod(List<PeriodReportDTO> periods) {
+        List<String> result = new ArrayList<>();
+        periods.forEach(period -> result.add(period.getPeriodStart() + " " + plain(period.getIncome()) + "-" +
+                plain(period.getExpense()) + "=" + plain(period.getBalance()) + " " +
+                period.getIncomeCount() + "/" + period.getExpenseCount()));
+        return result;
+    }
+
+    private static String plain(BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    private void create(AuthenticatedUser user, String type, LocalDateTime date, TransactionItemDTO... items) {
+        transactionService.createTransaction(TransactionDTO.builder()
+                .type(type)
+                .date(date)
+                .items(List.of(items))
+                .build(), user);
+    }
+
+    private static TransactionItemDTO item(Long categoryId, String amount) {
+        return TransactionItemDTO.builder().categoryId(categoryId).amount(new BigDecimal(amount)).build();
+    }
+}
@@ -0,0 +1,357 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.CategoryDTO;
+import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.dto.ImportResultDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.security.JwtTokenProvider;
+import com.cuadernito.cuadernito_back.support.QueryCountingConfiguration;
+import com.cuadernito.cuadernito_back.support.QueryLog;
+import com.cuadernito.cuadernito_back.support.QueryLog.Kind;
+import com.cuadernito.cuadernito_back.support.QueryRecorder;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Presupuesto de sentencias SQL de cada método público de TransactionService, CustomerDebtService y
+ * CategoryService, más dos requests HTTP completos. Los presupuestos son los valores medidos: si un cambio
+ * los supera, el mensaje lista las sentencias para ver cuál se agregó. Los listados se miden con varias
+ * filas para que un N+1 aparezca como SELECT repetido. Las escrituras que tocan daily_summary incluyen el
+ * SELECT ... FOR UPDATE sobre users que las ordena contra el recálculo.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "security.login-throttle.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(QueryCountingConfiguration.class)
+class ServiceQueryBudgetTest {
+
+    private static final int ROWS = 10;
+
+    @Autowired
+    private QueryRecorder queries;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private CustomerDebtService customerDebtService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private AuthenticatedUser owner;
+
+    private Long categoryId;
+
+    private Long otherCategoryId;
+
+    @BeforeEach
+    void setUp() {
+        User user = TestUsers.create(userRepository, "presupuesto");
+        owner = AuthenticatedUser.from(user);
+        categoryId = categoryService.createCategory(CategoryDTO.builder().name("Almacén").build(), owner).getId();
+        otherCategoryId = categoryService.createCategory(CategoryDTO.builder().name("Bebidas").build(), owner).getId();
+    }
+
+    // TransactionService
+
+    @Test
+    void createTransactionWithFiveItems() throws Exception {
+        QueryLog log = queries.capture(() -> transactionService.createTransaction(sale(5, null), owner));
+
+        log.assertAtMost(5).assertAtMost(Kind.SELECT, 2).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void createFiadoTransactionWithFiveItems() throws Exception {
+        QueryLog log = queries.capture(() -> transactionService.createTransaction(sale(5, "30111222"), owner));
+
+        log.assertAtMost(8).assertAtMost(Kind.SELECT, 3).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void getTransactionById() throws Exception {
+        Long id = transactionService.createTransaction(sale(5, "30111222"), owner).getId();
+
+        QueryLog log = queries.capture(() -> transactionService.getTransactionById(id, owner));
+
+        log.assertAtMost(2).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void getTransactionsPage() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            transactionService.createTransaction(sale(3, String.valueOf(30_000_000 + i)), owner);
+        }
+
+        QueryLog log = queries.capture(() -> assertEquals(ROWS,
+                transactionService.getTransactionsPage(owner, null, 20).getContent().size()));
+
+        log.assertAtMost(2).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void updateTransactionItemsAndFiado() throws Exception {
+        TransactionDTO created = transactionService.createTransaction(sale(5, "30111222"), owner);
+        TransactionDTO update = TransactionDTO.builder()
+                .items(List.of(item(otherCategoryId, "7.50")))
+                .removeItemIds(List.of(created.getItems().get(0).getId(), created.getItems().get(1).getId()))
+                .build();
+
+        QueryLog log = queries.capture(() -> transactionService.updateTransaction(created.getId(), update, owner));
+
+        log.assertAtMost(13).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void deleteFiadoTransaction() throws Exception {
+        Long id = transactionService.createTransaction(sale(5, "30111222"), owner).getId();
+
+        QueryLog log = queries.capture(() -> transactionService.deleteTransaction(id, owner));
+
+        log.assertAtMost(7).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void importTransactionsDoesNotScaleWithRows() throws Exception {
+        List<TransactionDTO> rows = new ArrayList<>();
+        for (int i = 0; i < 4 * ROWS; i++) {
+            rows.add(sale(3, i % 2 == 0 ? String.valueOf(31_000_000 + i % 8) : null));
+        }
+
+        QueryLog log = queries.capture(() -> {
+            ImportResultDTO result = transactionService.importTransactions(rows, owner);
+            assertEquals(4 * ROWS, result.getImportedRows());
+        });
+
+        log.assertAtMost(13).assertAtMost(Kind.SELECT, 3).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void importTransactionsCsv() throws Exception {
+        StringBuilder csv = new StringBuilder("type,items,esFiado,customerFirstName,customerLastName,customerPhone,"
+                + "customerDocumentNumber\n");
+        for (int i = 0; i < 4 * ROWS; i++) {
+            csv.append("INGRESO,").append(categoryId).append(":10;").append(otherCategoryId).append(":5,")
+                    .append(i % 2 == 0).append(",Cliente,").append(i % 8).append(",123,").append(32_000_000 + i % 8)
+                    .append('\n');
+        }
+
+        QueryLog log = queries.capture(() -> {
+            ImportResultDTO result = transactionService.importTransactionsCsv(new StringReader(csv.toString()), owner);
+            assertEquals(4 * ROWS, result.getImportedRows());
+        });
+
+        log.assertAtMost(12).assertAtMost(Kind.SELECT, 3).assertNoRepeatedSelects();
+    }
+
+    // CustomerDebtService
+
+    @Test
+    void createCustomerDebt() throws Exception {
+        QueryLog log = queries.capture(() -> customerDebtService.createCustomerDebt(debt("30111222"), owner));
+
+        log.assertAtMost(2).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void getCustomerDebtById() throws Exception {
+        Long id = customerDebtService.createCustomerDebt(debt("30111222"), owner).getId();
+
+        QueryLog log = queries.capture(() -> customerDebtService.getCustomerDebtById(id, owner));
+
+        log.assertAtMost(1).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void getAllCustomerDebts() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            customerDebtService.createCustomerDebt(debt(String.valueOf(30_000_000 + i)), owner);
+        }
+
+        QueryLog log = queries.capture(() ->
+                assertEquals(ROWS, customerDebtService.getAllCustomerDebtsByUser(owner).size()));
+
+        log.assertAtMost(1).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void updateCustomerDebt() throws Exception {
+        Long id = customerDebtService.createCustomerDebt(debt("30111222"), owner).getId();
+        CustomerDebtDTO update = CustomerDebtDTO.builder()
+                .customerPhone("555")
+                .documentNumber("30111223")
+                .totalAmount(new BigDecimal("200.00"))
+                .build();
+
+        QueryLog log = queries.capture(() -> customerDebtService.updateCustomerDebt(id, update, owner));
+
+        log.assertAtMost(5).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void registerPayment() throws Exception {
+        Long id = customerDebtService.createCustomerDebt(debt("30111222"), owner).getId();
+
+        QueryLog log = queries.capture(() -> customerDebtService.registerPayment(id, new BigDecimal("10.00"), owner));
+
+        log.assertAtMost(5).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void deleteCustomerDebt() throws Exception {
+        Long id = customerDebtService.createCustomerDebt(debt("30111222"), owner).getId();
+
+        QueryLog log = queries.capture(() -> customerDebtService.deleteCustomerDebt(id, owner));
+
+        log.assertAtMost(5).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void getPayments() throws Exception {
+        Long id = customerDebtService.createCustomerDebt(debt("30111222"), owner).getId();
+        for (int i = 0; i < ROWS; i++) {
+            customerDebtService.registerPayment(id, BigDecimal.ONE, owner);
+        }
+
+        QueryLog log = queries.capture(() ->
+                assertEquals(ROWS, customerDebtService.getPayments(id, owner, null, 20).getContent().size()));
+
+        log.assertAtMost(2).assertNoRepeatedSelects();
+    }
+
+    // CategoryService
+
+    @Test
+    void createCategory() throws Exception {
+        QueryLog log = queries.capture(() ->
+                categoryService.createCategory(CategoryDTO.builder().name("Limpieza").build(), owner));
+
+        log.assertAtMost(1).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void getCategoryById() throws Exception {
+        QueryLog log = queries.capture(() -> categoryService.getCategoryById(categoryId, owner));
+
+        log.assertAtMost(1).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void getAllCategories() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            categoryService.createCategory(CategoryDTO.builder().name("Categoría " + i).build(), owner);
+        }
+
+        QueryLog log = queries.capture(() ->
+                assertEquals(ROWS + 2, categoryService.getAllCategoriesByUser(owner).size()));
+
+        log.assertAtMost(1).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void updateCategory() throws Exception {
+        QueryLog log = queries.capture(() ->
+                categoryService.updateCategory(categoryId, CategoryDTO.builder().name("Despensa").build(), owner));
+
+        log.assertAtMost(2).assertNoRepeatedSelects();
+    }
+
+    // Requests completos: filtro JWT + controller + servicio
+
+    @Test
+    void createTransactionRequest() throws Exception {
+        String token = jwtTokenProvider.generateAccessToken(owner);
+        String body = "{\"items\":[{\"categoryId\":" + categoryId + ",\"amount\":10},{\"categoryId\":" + otherCategoryId
+                + ",\"amount\":5}]}";
+        // Primer request: carga el usuario en la caché del filtro JWT; los siguientes no consultan users
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        QueryLog log = queries.capture(() -> mockMvc.perform(post("/api/v1/transactions")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated()));
+
+        log.assertAtMost(5).assertAtMost(Kind.SELECT, 2).assertNoRepeatedSelects();
+    }
+
+    @Test
+    void listTransactionsRequest() throws Exception {
+        for (int i = 0; i < ROWS; i++) {
+            transactionService.createTransaction(sale(3, String.valueOf(30_000_000 + i)), owner);
+        }
+        String token = jwtTokenProvider.generateAccessToken(owner);
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        QueryLog log = queries.capture(() -> mockMvc.perform(get("/api/v1/transactions")
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk()));
+
+        log.assertAtMost(2).assertNoRepeatedSelects();
+    }
+
+    private TransactionDTO sale(int items, String fiadoDocument) {
+        List<TransactionItemDTO> lines = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            lines.add(item(i % 2 == 0 ? categoryId : otherCategoryId, String.valueOf(10 + i)));
+        }
+        TransactionDTO.TransactionDTOBuilder builder = TransactionDTO.builder().description("venta").items(lines);
+        if (fiadoDocument != null) {
+            builder.esFiado(true)
+                    .customerFirstName("Cliente")
+                    .customerLastName("Fiado")
+                    .customerPhone("123")
+                    .customerDocumentNumber(fiadoDocument);
+        }
+        return builder.build();
+    }
+
+    private TransactionItemDTO item(Long category, String amount) {
+        return TransactionItemDTO.builder().categoryId(category).amount(new BigDecimal(amount)).build();
+    }
+
+    private CustomerDebtDTO debt(String documentNumber) {
+        return CustomerDebtDTO.builder()
+                .customerFirstName("Cliente")
+                .customerLastName("Deudor")
+                .customerPhone("123")
+                .documentNumber(documentNumber)
+                .totalAmount(new BigDecimal("100.00"))
+                .build();
+    }
+}
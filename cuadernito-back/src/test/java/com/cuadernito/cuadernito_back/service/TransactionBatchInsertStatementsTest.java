@@ -0,0 +1,119 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sentencias JDBC por request al crear transacciones de 1, 10 y 100 items. Los inserts de items deben ir en
+ * lote y las categorías resolverse en una consulta: la cantidad de sentencias no crece con los items, salvo un
+ * lote y un bloque de ids extra cada {@code hibernate.jdbc.batch_size} items. El tiempo por request se mide en
+ * {@code TransactionCreateBenchmark} del módulo de benchmarks.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TransactionBatchInsertStatementsTest {
+
+    private static final int[] ITEM_COUNTS = {1, 10, 100};
+    private static final int WARMUP_ROUNDS = 2;
+    private static final int MEASURED_ROUNDS = 5;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    private AuthenticatedUser currentUser;
+
+    private Long categoryId;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestUsers.create(userRepository, "lotes");
+        currentUser = AuthenticatedUser.from(owner);
+        categoryId = categoryRepository.save(Category.builder().name("Almacén").user(owner).build()).getId();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void writeStatementsDoNotGrowWithItemCount() {
+        long[] writeStatements = new long[ITEM_COUNTS.length];
+        long[] queryStatements = new long[ITEM_COUNTS.length];
+
+        for (int i = 0; i < ITEM_COUNTS.length; i++) {
+            int itemCount = ITEM_COUNTS[i];
+            TransactionDTO request = buildRequest(itemCount);
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                transactionService.createTransaction(request, currentUser);
+            }
+
+            statistics.clear();
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                transactionService.createTransaction(request, currentUser);
+            }
+
+            assertEquals((long) MEASURED_ROUNDS * (itemCount + 1), statistics.getEntityInsertCount(),
+                    "items=" + itemCount + ": entidades insertadas");
+            long prepared = statistics.getPrepareStatementCount();
+            long queries = statistics.getQueryExecutionCount();
+            writeStatements[i] = Math.round((double) (prepared - queries) / MEASURED_ROUNDS);
+            queryStatements[i] = Math.round((double) queries / MEASURED_ROUNDS);
+        }
+
+        assertEquals(queryStatements[0], queryStatements[2],
+                "Las categorías de los items deben resolverse en una sola consulta");
+        // Cada batch_size items suman un lote y un bloque de ids de la secuencia (allocationSize = batch_size).
+        long extraBatches = (ITEM_COUNTS[2] - 1) / batchSize;
+        assertTrue(writeStatements[2] <= writeStatements[0] + 2 * extraBatches,
+                "Los inserts de items no se están agrupando en lotes: " + writeStatements[0] + " vs " + writeStatements[2]);
+    }
+
+    private TransactionDTO buildRequest(int itemCount) {
+        List<TransactionItemDTO> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add(TransactionItemDTO.builder()
+                    .categoryId(categoryId)
+                    .amount(BigDecimal.valueOf(10 + i))
+                    .build());
+        }
+        return TransactionDTO.builder()
+                .description("lote")
+                .type("INGRESO")
+                .items(items)
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package com.cuadernito.cuadernito_back.service;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionPageDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.support.TestUsers;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * El listado y el detalle de transacciones deben resolverse con una consulta de filas más una de items,
+ * sin importar cuántas transacciones fiadas tenga la página.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TransactionReadQueryCountTest {
+
+    private static final int FIADO_TRANSACTIONS = 15;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private AuthenticatedUser currentUser;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        User owner = TestUsers.create(userRepository, "lectura");
+        currentUser = AuthenticatedUser.from(owner);
+        Long categoryId = categoryRepository.save(Category.builder().name("Kiosco").user(owner).build()).getId();
+
+        for (int i = 0; i < FIADO_TRANSACTIONS; i++) {
+            transactionService.createTransaction(TransactionDTO.builder()
+                    .description("fiado " + i)
+                    .items(List.of(
+                            TransactionItemDTO.builder().categoryId(categoryId).amount(BigDecimal.TEN).build(),
+                            TransactionItemDTO.builder().categoryId(categoryId).amount(BigDecimal.ONE).build()))
+                    .esFiado(true)
+                    .customerFirstName("Cliente")
+                    .customerLastName(String.valueOf(i))
+                    .customerPhone("123")
+                    .customerDocumentNumber(String.valueOf(40000000 + i))
+                    .build(), currentUser);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingUsesTwoStatementsPerPage() {
+        TransactionPageDTO page = transactionService.getTransactionsPage(currentUser, null, 10);
+
+        assertEquals(10, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(t -> t.getCustomerDocumentNumber() != null && t.getItems().size() == 2));
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        statistics.clear();
+        TransactionPageDTO next = transactionService.getTransactionsPage(currentUser, page.getNextCursor(), 10);
+
+        assertEquals(FIADO_TRANSACTIONS - 10, next.getContent().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void detailUsesTwoStatements() {
+        Long id = transactionService.getTransactionsPage(currentUser, null, 1).getContent().get(0).getId();
+        statistics.clear();
+
+        TransactionDTO detail = transactionService.getTransactionById(id, currentUser);
+
+        assertTrue(detail.getEsFiado());
+        assertEquals(2, detail.getItems().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+}
@@ -0,0 +1,132 @@
+package com.cuadernito.cuadernito_back.service.impl;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+import com.cuadernito.cuadernito_back.service.impl.TransactionCsvParser.ParsedRow;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Lectura del CSV de importación: encabezado, comillas, filas con formato inválido y límites.
+ */
+class TransactionCsvParserTest {
+
+    @Test
+    void headerColumnsAreMatchedInAnyOrderAndCase() throws IOException {
+        List<ParsedRow> rows = parse("""
+                ITEMS,Type,date,esFiado,customerDocumentNumber,debtAmount,customerDebtId
+                1:10.50;2:3,GASTO,2024-03-01,true,30111222,5,7
+                """);
+
+        assertEquals(1, rows.size());
+        TransactionDTO request = rows.get(0).request();
+        assertNull(rows.get(0).error());
+        assertEquals("GASTO", request.getType());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 0, 0), request.getDate());
+        assertEquals(List.of(item(1L, "10.50"), item(2L, "3")), request.getItems());
+        assertTrue(request.getEsFiado());
+        assertEquals("30111222", request.getCustomerDocumentNumber());
+        assertEquals(new BigDecimal("5"), request.getDebtAmount());
+        assertEquals(7L, request.getCustomerDebtId());
+        assertNull(request.getDescription());
+    }
+
+    @Test
+    void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+        List<ParsedRow> rows = parse("date,description,items\r\n"
+                + "2024-03-01T10:15:30,\"Venta, \"\"mayorista\"\"\r\nsegunda línea\",1:10\r\n");
+
+        assertEquals(1, rows.size());
+        TransactionDTO request = rows.get(0).request();
+        assertEquals("Venta, \"mayorista\"\r\nsegunda línea", request.getDescription());
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 15, 30), request.getDate());
+        assertEquals(List.of(item(1L, "10")), request.getItems());
+    }
+
+    @Test
+    void blankLinesAreSkippedAndMissingTrailingColumnsAreNull() throws IOException {
+        List<ParsedRow> rows = parse("""
+                items,description,customerPhone
+
+                1:10
+                1:20,con descripción
+
+                """);
+
+        assertEquals(2, rows.size());
+        assertEquals(1, rows.get(0).row());
+        assertNull(rows.get(0).request().getDescription());
+        assertEquals(2, rows.get(1).row());
+        assertEquals("con descripción", rows.get(1).request().getDescription());
+        assertNull(rows.get(1).request().getCustomerPhone());
+        assertFalse(rows.get(1).request().getEsFiado());
+    }
+
+    @Test
+    void badRowsAreReportedWithTheirNumberAndDoNotStopTheRest() throws IOException {
+        List<ParsedRow> rows = parse("""
+                date,items,customerDebtId
+                2024-13-01,1:10,
+                ,1-10,
+                ,1:diez,
+                ,1:10,abc
+                ,1:10,
+                """);
+
+        assertEquals(5, rows.size());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(i + 1, rows.get(i).row());
+            assertNull(rows.get(i).request());
+            assertTrue(rows.get(i).error().startsWith("Formato inválido"), rows.get(i).error());
+        }
+        assertTrue(rows.get(1).error().contains("categoriaId:monto"), rows.get(1).error());
+        assertNull(rows.get(4).error());
+        assertEquals(List.of(item(1L, "10")), rows.get(4).request().getItems());
+    }
+
+    @Test
+    void headerWithoutItemsColumnIsRejected() {
+        BadRequestException e = assertThrows(BadRequestException.class, () -> parse("date,description\n2024-03-01,x\n"));
+        assertEquals("El CSV debe tener la columna 'items'", e.getMessage());
+    }
+
+    @Test
+    void emptyFileIsRejected() {
+        BadRequestException e = assertThrows(BadRequestException.class, () -> parse(""));
+        assertEquals("El archivo CSV está vacío", e.getMessage());
+    }
+
+    @Test
+    void headerOnlyFileHasNoRows() throws IOException {
+        assertTrue(parse("items\n").isEmpty());
+    }
+
+    @Test
+    void rowsBeyondTheLimitAreRejected() {
+        String csv = "items\n" + "1:1\n".repeat(4);
+
+        BadRequestException e = assertThrows(BadRequestException.class,
+                () -> new TransactionCsvParser(new StringReader(csv)).parse(3));
+        assertEquals("La importación no puede superar 3 filas", e.getMessage());
+    }
+
+    private static List<ParsedRow> parse(String csv) throws IOException {
+        return new TransactionCsvParser(new StringReader(csv)).parse(100);
+    }
+
+    private static TransactionItemDTO item(Long categoryId, String amount) {
+        return TransactionItemDTO.builder().categoryId(categoryId).amount(new BigDecimal(amount)).build();
+    }
+}
@@ -0,0 +1,37 @@
+package com.cuadernito.cuadernito_back.support;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+
+/**
+ * Envuelve el DataSource con datasource-proxy para que {@link QueryRecorder} vea todas las sentencias, tanto las
+ * de Hibernate como las de JdbcTemplate. Se activa con {@code @Import(QueryCountingConfiguration.class)}.
+ */
+@TestConfiguration
+public class QueryCountingConfiguration {
+
+    @Bean
+    public QueryRecorder queryRecorder() {
+        return new QueryRecorder();
+    }
+
+    @Bean
+    public static BeanPostProcessor queryCountingDataSourcePostProcessor(QueryRecorder queryRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(queryRecorder)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.cuadernito.cuadernito_back.support;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Sentencias capturadas por {@link QueryRecorder}. Un lote JDBC cuenta como una sentencia (un viaje a la base)
+ * aunque lleve muchas filas. Las lecturas de secuencias quedan fuera del presupuesto: con allocationSize = 50
+ * aparecen o no según la posición en el bloque de ids, no según el código bajo prueba.
+ */
+public final class QueryLog {
+
+    public enum Kind {
+        SELECT, INSERT, UPDATE, DELETE, MERGE, SEQUENCE, OTHER
+    }
+
+    public record Statement(String sql, int rows) {
+
+        public Kind kind() {
+            String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (normalized.contains("next value for") || normalized.matches("(?s).*\\b\\w+_seq\\b.*")) {
+                return Kind.SEQUENCE;
+            }
+            if (normalized.startsWith("merge") || normalized.contains("final table (merge")) {
+                return Kind.MERGE;
+            }
+            for (Kind kind : List.of(Kind.SELECT, Kind.INSERT, Kind.UPDATE, Kind.DELETE)) {
+                if (normalized.startsWith(kind.name().toLowerCase(Locale.ROOT))) {
+                    return kind;
+                }
+            }
+            return Kind.OTHER;
+        }
+    }
+
+    private final List<Statement> statements;
+
+    QueryLog(List<Statement> statements) {
+        this.statements = List.copyOf(statements);
+    }
+
+    public List<Statement> statements() {
+        return statements;
+    }
+
+    /**
+     * Sentencias que cuentan para el presupuesto (todas menos las de secuencias).
+     */
+    public int count() {
+        return (int) statements.stream().filter(statement -> statement.kind() != Kind.SEQUENCE).count();
+    }
+
+    public int count(Kind kind) {
+        return (int) statements.stream().filter(statement -> statement.kind() == kind).count();
+    }
+
+    /**
+     * SELECT idénticos (mismo SQL, distintos parámetros) ejecutados más de una vez: el patrón típico de N+1,
+     * una consulta por fila en lugar de una por conjunto.
+     */
+    public Map<String, Long> repeatedSelects() {
+        return statements.stream()
+                .filter(statement -> statement.kind() == Kind.SELECT)
+                .collect(Collectors.groupingBy(Statement::sql, LinkedHashMap::new, Collectors.counting()))
+                .entrySet().stream()
+                .filter(entry -> entry.getValue() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+
+    public QueryLog assertAtMost(int budget) {
+        if (count() > budget) {
+            fail("Se esperaban como máximo " + budget + " sentencias y hubo " + count() + ":\n" + describe());
+        }
+        return this;
+    }
+
+    public QueryLog assertAtMost(Kind kind, int budget) {
+        if (count(kind) > budget) {
+            fail("Se esperaban como máximo " + budget + " " + kind + " y hubo " + count(kind) + ":\n" + describe());
+        }
+        return this;
+    }
+
+    public QueryLog assertNoRepeatedSelects() {
+        Map<String, Long> repeated = repeatedSelects();
+        if (!repeated.isEmpty()) {
+            fail("Posible N+1, SELECT repetidos:\n" + repeated.entrySet().stream()
+                    .map(entry -> "  " + entry.getValue() + "x " + entry.getKey())
+                    .collect(Collectors.joining("\n")));
+        }
+        return this;
+    }
+
+    public String describe() {
+        return statements.stream()
+                .map(statement -> "  [" + statement.kind() + (statement.rows() > 1 ? " x" + statement.rows() : "") + "] "
+                        + statement.sql())
+                .collect(Collectors.joining("\n"));
+    }
+
+    @Override
+    public String toString() {
+        return count() + " sentencias\n" + describe();
+    }
+}
@@ -0,0 +1,52 @@
+package com.cuadernito.cuadernito_back.support;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registra las sentencias ejecutadas por el hilo que está dentro de {@link #capture}. Los jobs programados y
+ * cualquier otro hilo quedan afuera, así el presupuesto mide solo la llamada bajo prueba.
+ */
+public class QueryRecorder implements QueryExecutionListener {
+
+    private final ThreadLocal<List<QueryLog.Statement>> current = new ThreadLocal<>();
+
+    /**
+     * Ejecuta la acción y devuelve las sentencias que emitió, incluidas las del commit de su transacción.
+     */
+    public QueryLog capture(Action action) throws Exception {
+        List<QueryLog.Statement> statements = new ArrayList<>();
+        current.set(statements);
+        try {
+            action.run();
+        } finally {
+            current.remove();
+        }
+        return new QueryLog(statements);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        List<QueryLog.Statement> statements = current.get();
+        if (statements == null) {
+            return;
+        }
+        for (QueryInfo query : queryInfoList) {
+            int rows = execInfo.isBatch() ? Math.max(1, query.getParametersList().size()) : 1;
+            statements.add(new QueryLog.Statement(query.getQuery(), rows));
+        }
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,31 @@
+package com.cuadernito.cuadernito_back.support;
+
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Comerciantes de prueba. Cada test crea el suyo con un email único, así los datos que carga no se mezclan
+ * con los de otros tests que comparten el mismo contexto y la misma base en memoria.
+ */
+public final class TestUsers {
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private TestUsers() {
+    }
+
+    public static User create(UserRepository userRepository, String prefix) {
+        return userRepository.save(User.builder()
+                .firstName("Test")
+                .lastName(prefix)
+                .email(prefix + "-" + System.nanoTime() + "-" + SEQUENCE.incrementAndGet() + "@cuadernito.com")
+                .password("x")
+                .phone("1234567890")
+                .address("Calle 123")
+                .role(User.Role.ROLE_USER)
+                .enabled(true)
+                .build());
+    }
+}
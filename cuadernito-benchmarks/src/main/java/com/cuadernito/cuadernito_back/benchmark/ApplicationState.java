@@ -0,0 +1,77 @@
+package com.cuadernito.cuadernito_back.benchmark;
+
+import com.cuadernito.cuadernito_back.CuadernitoBackApplication;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.CategoryRepository;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Contexto completo de la aplicación sobre H2 embebida, levantado una vez por fork. Deja creado un
+ * comerciante con una categoría para que los benchmarks de servicio no midan el alta de datos base.
+ */
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    private ConfigurableApplicationContext context;
+
+    private AuthenticatedUser owner;
+
+    private Long categoryId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(CuadernitoBackApplication.class)
+                .web(WebApplicationType.NONE)
+                // Como argumentos y no con properties(): esas son valores por defecto y application.properties las pisa
+                .run(
+                        "--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--spring.h2.console.enabled=false"
+                );
+
+        User user = bean(UserRepository.class).save(User.builder()
+                .firstName("Benchmark")
+                .lastName("JMH")
+                .email("bench-" + System.nanoTime() + "@cuadernito.com")
+                .password("x")
+                .phone("1234567890")
+                .address("Calle 123")
+                .role(User.Role.ROLE_USER)
+                .enabled(true)
+                .build());
+        owner = AuthenticatedUser.from(user);
+        categoryId = bean(CategoryRepository.class)
+                .save(Category.builder().name("Almacen").user(user).build())
+                .getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public AuthenticatedUser owner() {
+        return owner;
+    }
+
+    public Long categoryId() {
+        return categoryId;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cuadernito.cuadernito_back.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compara dos resultados JSON de JMH (por ejemplo, de dos commits) benchmark por benchmark.
+ * Uso: java -cp benchmarks.jar com.cuadernito.cuadernito_back.benchmark.CompareResults base.json nuevo.json
+ *
+ * Para modos de tiempo (avgt, sample, ss) un delta negativo es una mejora; para thrpt, uno positivo.
+ * Se marca como cambio solo lo que supera el error de ambas mediciones.
+ */
+public final class CompareResults {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: CompareResults <base.json> <nuevo.json>");
+            System.exit(2);
+        }
+        Map<String, Score> base = read(new File(args[0]));
+        Map<String, Score> current = read(new File(args[1]));
+
+        Map<String, Score> all = new TreeMap<>(base);
+        current.forEach(all::putIfAbsent);
+        int width = all.keySet().stream().mapToInt(String::length).max().orElse(10);
+        String row = "%-" + width + "s %16s %16s %9s%n";
+        System.out.printf(row, "Benchmark", "Base", "Nuevo", "Delta");
+        for (String key : all.keySet()) {
+            Score before = base.get(key);
+            Score after = current.get(key);
+            if (before == null || after == null) {
+                System.out.printf(row, key, format(before), format(after), "-");
+                continue;
+            }
+            double delta = (after.value() - before.value()) / before.value() * 100;
+            boolean significant = Math.abs(after.value() - before.value()) > before.error() + after.error();
+            System.out.printf(row, key, format(before), format(after),
+                    String.format("%+.1f%%%s", delta, significant ? " *" : ""));
+        }
+    }
+
+    private static Map<String, Score> read(File file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : JSON.readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            JsonNode params = run.path("params");
+            Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            JsonNode metric = run.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key.toString(), new Score(metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.path("scoreUnit").asText()));
+        }
+        return scores;
+    }
+
+    private static String format(Score score) {
+        return score == null ? "-" : String.format("%.3f %s", score.value(), score.unit());
+    }
+
+    private record Score(double value, double error, String unit) {
+    }
+}
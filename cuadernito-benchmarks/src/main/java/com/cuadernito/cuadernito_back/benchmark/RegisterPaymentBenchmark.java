@@ -0,0 +1,54 @@
+package com.cuadernito.cuadernito_back.benchmark;
+
+import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.service.CustomerDebtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CustomerDebtServiceImpl.registerPayment: pago atómico condicionado al saldo, movimiento en el ledger
+ * y resumen diario. La deuda es lo bastante grande para que ninguna corrida llegue a saldarla.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegisterPaymentBenchmark {
+
+    private static final BigDecimal PAYMENT = new BigDecimal("0.01");
+
+    private CustomerDebtService customerDebtService;
+
+    private Long debtId;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        customerDebtService = app.bean(CustomerDebtService.class);
+        debtId = customerDebtService.createCustomerDebt(CustomerDebtDTO.builder()
+                .customerFirstName("Juan")
+                .customerLastName("Perez")
+                .customerPhone("123")
+                .documentNumber("20999888")
+                .totalAmount(new BigDecimal("99999999.00"))
+                .build(), app.owner()).getId();
+    }
+
+    @Benchmark
+    public CustomerDebtDTO registerPayment(ApplicationState app) {
+        return customerDebtService.registerPayment(debtId, PAYMENT, app.owner());
+    }
+}
@@ -0,0 +1,70 @@
+package com.cuadernito.cuadernito_back.benchmark;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.dto.TransactionItemDTO;
+import com.cuadernito.cuadernito_back.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionServiceImpl.createTransaction de punta a punta (validación, ids, inserts en lote, resumen diario
+ * y, si es fiado, upsert de la deuda y movimiento del ledger). Los fiados cargan siempre al mismo cliente.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionCreateBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int items;
+
+    @Param({"false", "true"})
+    private boolean fiado;
+
+    private TransactionService transactionService;
+
+    private TransactionDTO request;
+
+    @Setup(Level.Trial)
+    public void setUp(ApplicationState app) {
+        transactionService = app.bean(TransactionService.class);
+        List<TransactionItemDTO> itemDTOs = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            itemDTOs.add(TransactionItemDTO.builder().categoryId(app.categoryId()).amount(BigDecimal.ONE).build());
+        }
+        TransactionDTO.TransactionDTOBuilder builder = TransactionDTO.builder()
+                .description("benchmark")
+                .items(itemDTOs);
+        if (fiado) {
+            builder.esFiado(true)
+                    .customerFirstName("Ana")
+                    .customerLastName("Paz")
+                    .customerPhone("123")
+                    .customerDocumentNumber("30111222");
+        }
+        request = builder.build();
+    }
+
+    @Benchmark
+    public TransactionDTO createTransaction(ApplicationState app) {
+        return transactionService.createTransaction(request, app.owner());
+    }
+}
@@ -0,0 +1,91 @@
+package com.cuadernito.cuadernito_back.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compara dos result.json del test de carga operación por operación.
+ * Uso: java -cp benchmarks.jar com.cuadernito.cuadernito_back.loadtest.CompareLoadReports base/result.json nuevo/result.json
+ *
+ * En latencias un delta negativo es una mejora; en req/s, uno positivo. Solo tiene sentido comparar corridas
+ * con la misma tasa, mezcla y semilla, por eso se avisa si las opciones difieren.
+ */
+public final class CompareLoadReports {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private static final String[] PERCENTILES = {"p50", "p99", "p999"};
+
+    private CompareLoadReports() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: CompareLoadReports <base/result.json> <nuevo/result.json>");
+            System.exit(2);
+        }
+        JsonNode base = JSON.readTree(new File(args[0]));
+        JsonNode current = JSON.readTree(new File(args[1]));
+        if (!base.path("options").equals(current.path("options"))) {
+            System.out.println("Atención: las corridas usaron opciones distintas, la comparación es orientativa.");
+        }
+        if (!base.path("valid").asBoolean(true) || !current.path("valid").asBoolean(true)) {
+            System.out.println("Atención: hay una corrida inválida (con requests descartados), sus latencias no son comparables.");
+        }
+        Map<String, JsonNode> before = byOperation(base);
+        Map<String, JsonNode> after = byOperation(current);
+
+        String row = "%-14s %-10s %12s %12s %10s%n";
+        System.out.printf(row, "Operación", "Métrica", "Base", "Nuevo", "Delta");
+        for (String operation : new TreeSet<>(union(before, after))) {
+            JsonNode b = before.get(operation);
+            JsonNode a = after.get(operation);
+            print(row, operation, "req/s", b == null ? null : b.path("throughput"), a == null ? null : a.path("throughput"));
+            for (String percentile : PERCENTILES) {
+                print(row, "", percentile + " ms",
+                        b == null ? null : b.path("latencyMs").path(percentile),
+                        a == null ? null : a.path("latencyMs").path(percentile));
+            }
+            print(row, "", "errores", b == null ? null : failures(b), a == null ? null : failures(a));
+        }
+    }
+
+    private static Map<String, JsonNode> byOperation(JsonNode report) {
+        Map<String, JsonNode> endpoints = new LinkedHashMap<>();
+        for (JsonNode endpoint : report.path("endpoints")) {
+            endpoints.put(endpoint.path("operation").asText(), endpoint);
+        }
+        return endpoints;
+    }
+
+    private static TreeSet<String> union(Map<String, JsonNode> before, Map<String, JsonNode> after) {
+        TreeSet<String> keys = new TreeSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        return keys;
+    }
+
+    private static JsonNode failures(JsonNode endpoint) {
+        return JSON.getNodeFactory().numberNode(endpoint.path("errors").asLong() + endpoint.path("dropped").asLong());
+    }
+
+    private static void print(String row, String operation, String metric, JsonNode before, JsonNode after) {
+        if (before == null || after == null || before.isMissingNode() || after.isMissingNode()) {
+            System.out.printf(row, operation, metric, text(before), text(after), "-");
+            return;
+        }
+        double b = before.asDouble();
+        double a = after.asDouble();
+        String delta = b == 0 ? "-" : String.format("%+.1f%%", (a - b) / b * 100);
+        System.out.printf(row, operation, metric, text(before), text(after), delta);
+    }
+
+    private static String text(JsonNode value) {
+        return value == null || value.isMissingNode() ? "-" : value.asText();
+    }
+}
@@ -0,0 +1,70 @@
+package com.cuadernito.cuadernito_back.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencias de una operación en microsegundos. {@code latency} se mide desde el instante en que el request
+ * debía salir según la tasa de llegada (corrige la omisión coordinada); {@code serviceTime} desde que salió
+ * de verdad. Si el cliente o el servidor se atrasan, la diferencia entre ambos la muestra. Un request descartado
+ * por max-in-flight entra en {@code latency} con el timeout, para que los percentiles no lo escondan.
+ */
+final class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Operation operation;
+    private final Histogram latency = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Histogram serviceTime = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Map<Integer, AtomicLong> statuses = new ConcurrentHashMap<>();
+
+    EndpointStats(Operation operation) {
+        this.operation = operation;
+    }
+
+    void record(long intendedNanos, long sentNanos, long doneNanos, int status) {
+        latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - intendedNanos)));
+        serviceTime.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(doneNanos - sentNanos)));
+        statuses.computeIfAbsent(status, code -> new AtomicLong()).incrementAndGet();
+        if (status < 200 || status >= 400) {
+            errors.incrementAndGet();
+        }
+    }
+
+    void recordDropped(Duration timeout) {
+        latency.recordValue(Math.min(HIGHEST_TRACKABLE_MICROS, TimeUnit.NANOSECONDS.toMicros(timeout.toNanos())));
+        dropped.incrementAndGet();
+    }
+
+    Operation operation() {
+        return operation;
+    }
+
+    Histogram latency() {
+        return latency;
+    }
+
+    Histogram serviceTime() {
+        return serviceTime;
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    Map<Integer, AtomicLong> statuses() {
+        return statuses;
+    }
+}
@@ -0,0 +1,132 @@
+package com.cuadernito.cuadernito_back.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resultado de una corrida: tabla por consola, result.json para comparar entre builds (CompareLoadReports)
+ * y un .hgrm por operación con la distribución completa, que se puede graficar con el plotter de HdrHistogram.
+ * Una corrida con requests descartados queda marcada como inválida: el cliente no sostuvo la tasa pedida.
+ */
+final class LoadReport {
+
+    static final String RESULT_FILE = "result.json";
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadReport() {
+    }
+
+    /**
+     * Escribe el reporte y devuelve si la corrida es válida (ningún request descartado).
+     */
+    static boolean write(LoadTestOptions options, List<EndpointStats> stats, double measuredSeconds) throws IOException {
+        Path out = Path.of(options.out());
+        Files.createDirectories(out);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("finishedAt", Instant.now().toString());
+        result.put("options", optionsOf(options));
+        result.put("measuredSeconds", round(measuredSeconds));
+        long dropped = stats.stream().mapToLong(EndpointStats::dropped).sum();
+        result.put("valid", dropped == 0);
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (EndpointStats endpoint : stats) {
+            if (endpoint.latency().getTotalCount() == 0 && endpoint.dropped() == 0) {
+                continue;
+            }
+            endpoints.add(summaryOf(endpoint, measuredSeconds));
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(out.resolve(endpoint.operation().key() + ".hgrm")))) {
+                endpoint.latency().outputPercentileDistribution(hgrm, MICROS_PER_MILLI);
+            }
+        }
+        result.put("endpoints", endpoints);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out.resolve(RESULT_FILE).toFile(), result);
+
+        print(endpoints, System.out);
+        if (dropped > 0) {
+            System.out.println("Corrida inválida: " + dropped + " requests descartados por max-in-flight. "
+                    + "Bajar --rate o subir --max-in-flight.");
+        }
+        System.out.println("Reporte en " + out.toAbsolutePath());
+        return dropped == 0;
+    }
+
+    private static Map<String, Object> optionsOf(LoadTestOptions options) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("rate", options.rate());
+        values.put("durationSeconds", options.durationSeconds());
+        values.put("warmupSeconds", options.warmupSeconds());
+        values.put("shops", options.shops());
+        values.put("fiadoRatio", options.fiadoRatio());
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        options.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+        values.put("mix", mix);
+        values.put("seed", options.seed());
+        values.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        values.put("javaVersion", Runtime.version().toString());
+        return values;
+    }
+
+    private static Map<String, Object> summaryOf(EndpointStats endpoint, double measuredSeconds) {
+        Histogram latency = endpoint.latency();
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("operation", endpoint.operation().key());
+        summary.put("endpoint", endpoint.operation().label());
+        long requests = endpoint.serviceTime().getTotalCount();
+        summary.put("requests", requests);
+        summary.put("errors", endpoint.errors());
+        summary.put("dropped", endpoint.dropped());
+        summary.put("throughput", round(requests / measuredSeconds));
+        summary.put("latencyMs", percentiles(latency));
+        summary.put("serviceTimeMs", percentiles(endpoint.serviceTime()));
+        Map<String, Long> statuses = new TreeMap<>();
+        endpoint.statuses().forEach((status, count) -> statuses.put(String.valueOf(status), count.get()));
+        summary.put("statuses", statuses);
+        return summary;
+    }
+
+    private static Map<String, Double> percentiles(Histogram histogram) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        values.put("p50", millis(histogram.getValueAtPercentile(50)));
+        values.put("p90", millis(histogram.getValueAtPercentile(90)));
+        values.put("p99", millis(histogram.getValueAtPercentile(99)));
+        values.put("p999", millis(histogram.getValueAtPercentile(99.9)));
+        values.put("max", millis(histogram.getMaxValue()));
+        values.put("mean", round(histogram.getMean() / MICROS_PER_MILLI));
+        return values;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void print(List<Map<String, Object>> endpoints, PrintStream out) {
+        String row = "%-42s %9s %7s %8s %10s %10s %10s %10s %12s%n";
+        out.printf(row, "Operación", "requests", "errores", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "p99 serv ms");
+        for (Map<String, Object> endpoint : endpoints) {
+            Map<String, Double> latency = (Map<String, Double>) endpoint.get("latencyMs");
+            Map<String, Double> service = (Map<String, Double>) endpoint.get("serviceTimeMs");
+            long failures = (Long) endpoint.get("errors") + (Long) endpoint.get("dropped");
+            out.printf(row, endpoint.get("endpoint"), endpoint.get("requests"), failures, endpoint.get("throughput"),
+                    latency.get("p50"), latency.get("p99"), latency.get("p999"), latency.get("max"), service.get("p99"));
+        }
+    }
+
+    private static double millis(long micros) {
+        return round(micros / MICROS_PER_MILLI);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
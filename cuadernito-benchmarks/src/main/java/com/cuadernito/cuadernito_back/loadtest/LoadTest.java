@@ -0,0 +1,288 @@
+package com.cuadernito.cuadernito_back.loadtest;
+
+import com.cuadernito.cuadernito_back.CuadernitoBackApplication;
+import com.cuadernito.cuadernito_back.dto.CategoryDTO;
+import com.cuadernito.cuadernito_back.dto.CustomerDebtDTO;
+import com.cuadernito.cuadernito_back.entity.User;
+import com.cuadernito.cuadernito_back.repository.UserRepository;
+import com.cuadernito.cuadernito_back.security.AuthenticatedUser;
+import com.cuadernito.cuadernito_back.service.CategoryService;
+import com.cuadernito.cuadernito_back.service.CustomerDebtService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Test de carga HTTP de punta a punta. Levanta la aplicación en un puerto libre (sobre H2, salvo que se active
+ * otro perfil con -Dspring.profiles.active), crea comercios con categorías y deudas, obtiene un JWT por comercio
+ * con el login real y dispara la mezcla de llamadas con un modelo abierto: los requests salen a tasa fija aunque
+ * el servidor se atrase, y la latencia se cuenta desde el instante programado. Uso:
+ *
+ * <pre>
+ * java -cp benchmarks.jar com.cuadernito.cuadernito_back.loadtest.LoadTest --rate=200 --duration=60 --out=load-report
+ * </pre>
+ */
+public final class LoadTest {
+
+    private static final String PASSWORD = "LoadTest123";
+    private static final int CATEGORIES_PER_SHOP = 3;
+    private static final int DEBTS_PER_SHOP = 5;
+    private static final int FIADO_CUSTOMERS_PER_SHOP = 50;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final LoadTestOptions options;
+    private final ObjectMapper json = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final List<Shop> shops = new ArrayList<>();
+    private String baseUrl;
+
+    private LoadTest(LoadTestOptions options) {
+        this.options = options;
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats(operation));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        boolean valid;
+        try (ConfigurableApplicationContext context = start()) {
+            LoadTest loadTest = new LoadTest(options);
+            loadTest.baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+            loadTest.seed(context);
+            loadTest.login();
+            double measuredSeconds = loadTest.run();
+            valid = LoadReport.write(options, new ArrayList<>(loadTest.stats.values()), measuredSeconds);
+        }
+        System.exit(valid ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(CuadernitoBackApplication.class)
+                .run(
+                        "--server.port=0",
+                        "--spring.main.banner-mode=off",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.h2.console.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--security.login-throttle.enabled=false",
+                        "--jwt.expiration=86400000"
+                );
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        PasswordEncoder passwordEncoder = context.getBean(PasswordEncoder.class);
+        CategoryService categoryService = context.getBean(CategoryService.class);
+        CustomerDebtService customerDebtService = context.getBean(CustomerDebtService.class);
+        String encodedPassword = passwordEncoder.encode(PASSWORD);
+        // Emails distintos en cada corrida: contra una base persistente las corridas repetidas no chocan
+        long run = System.currentTimeMillis();
+
+        for (int i = 0; i < options.shops(); i++) {
+            User user = userRepository.save(User.builder()
+                    .firstName("Comercio")
+                    .lastName(String.valueOf(i))
+                    .email("carga-" + run + "-" + i + "@cuadernito.com")
+                    .password(encodedPassword)
+                    .phone("1234567890")
+                    .address("Calle " + i)
+                    .role(User.Role.ROLE_USER)
+                    .enabled(true)
+                    .build());
+            AuthenticatedUser owner = AuthenticatedUser.from(user);
+            Shop shop = new Shop(user.getEmail());
+            for (int c = 0; c < CATEGORIES_PER_SHOP; c++) {
+                shop.categoryIds.add(categoryService.createCategory(
+                        CategoryDTO.builder().name("Categoria " + c).build(), owner).getId());
+            }
+            for (int d = 0; d < DEBTS_PER_SHOP; d++) {
+                shop.debtIds.add(customerDebtService.createCustomerDebt(CustomerDebtDTO.builder()
+                        .customerFirstName("Cliente")
+                        .customerLastName(String.valueOf(d))
+                        .customerPhone("123")
+                        .documentNumber("7" + (i * 1000 + d))
+                        .totalAmount(new BigDecimal("9999999.00"))
+                        .build(), owner).getId());
+            }
+            shops.add(shop);
+        }
+    }
+
+    private void login() throws Exception {
+        for (Shop shop : shops) {
+            String body = json.writeValueAsString(Map.of("email", shop.email, "password", PASSWORD));
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Login fallido para " + shop.email + ": " + response.body());
+            }
+            JsonNode token = json.readTree(response.body()).path("token");
+            shop.token = token.asText();
+        }
+    }
+
+    /**
+     * Programa un request cada 1/rate segundos. Cada uno corre en su propio hilo virtual; si se superan
+     * max-in-flight requests pendientes el nuevo se cuenta como descartado en lugar de frenar el reloj: entra en la
+     * latencia con el timeout y la corrida queda inválida.
+     */
+    private double run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(options.seed());
+        Operation[] schedule = weightedSchedule();
+        AtomicInteger inFlight = new AtomicInteger();
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds());
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+
+        System.out.printf("Carga: %.0f req/s durante %d s (+%d s de calentamiento), %d comercios%n",
+                options.rate(), options.durationSeconds(), options.warmupSeconds(), options.shops());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = schedule[random.nextInt(schedule.length)];
+                if (operation == Operation.CREATE && random.nextDouble() < options.fiadoRatio()) {
+                    operation = Operation.CREATE_FIADO;
+                }
+                Shop shop = shops.get(random.nextInt(shops.size()));
+                HttpRequest request = buildRequest(operation, shop, random);
+                EndpointStats endpoint = stats.get(operation);
+                boolean measured = intended >= measureFrom;
+
+                if (inFlight.incrementAndGet() > options.maxInFlight()) {
+                    inFlight.decrementAndGet();
+                    if (measured) {
+                        endpoint.recordDropped(REQUEST_TIMEOUT);
+                    }
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        long sent = System.nanoTime();
+                        int status = send(request);
+                        if (measured) {
+                            endpoint.record(intended, sent, System.nanoTime(), status);
+                        }
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            }
+        }
+        return (System.nanoTime() - measureFrom) / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private Operation[] weightedSchedule() {
+        List<Operation> slots = new ArrayList<>();
+        options.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        return slots.toArray(Operation[]::new);
+    }
+
+    private HttpRequest buildRequest(Operation operation, Shop shop, SplittableRandom random) {
+        return switch (operation) {
+            case CREATE, CREATE_FIADO -> post(shop, "/api/v1/transactions", transactionBody(operation, shop, random));
+            case LIST -> get(shop, "/api/v1/transactions?size=20");
+            case PAY -> post(shop, "/api/v1/customer-debts/" + shop.debtIds.get(random.nextInt(shop.debtIds.size()))
+                    + "/payments", "{\"amount\":0.01}");
+            case CATEGORIES -> get(shop, "/api/v1/categories");
+        };
+    }
+
+    private String transactionBody(Operation operation, Shop shop, SplittableRandom random) {
+        StringBuilder items = new StringBuilder();
+        int count = 1 + random.nextInt(5);
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                items.append(',');
+            }
+            items.append("{\"categoryId\":").append(shop.categoryIds.get(random.nextInt(shop.categoryIds.size())))
+                    .append(",\"amount\":").append(1 + random.nextInt(500)).append('}');
+        }
+        String type = random.nextInt(10) < 8 ? "INGRESO" : "GASTO";
+        if (operation == Operation.CREATE) {
+            return "{\"type\":\"" + type + "\",\"description\":\"carga\",\"items\":[" + items + "]}";
+        }
+        int customer = random.nextInt(FIADO_CUSTOMERS_PER_SHOP);
+        return "{\"type\":\"INGRESO\",\"description\":\"fiado carga\",\"esFiado\":true,"
+                + "\"customerFirstName\":\"Cliente\",\"customerLastName\":\"" + customer + "\","
+                + "\"customerPhone\":\"123\",\"customerDocumentNumber\":\"8" + customer + "\",\"items\":[" + items + "]}";
+    }
+
+    private HttpRequest get(Shop shop, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + shop.token)
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(Shop shop, String path, String body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + shop.token)
+                .header("Content-Type", "application/json")
+                .timeout(REQUEST_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static final class Shop {
+        private final String email;
+        private final List<Long> categoryIds = new ArrayList<>();
+        private final List<Long> debtIds = new ArrayList<>();
+        private String token;
+
+        private Shop(String email) {
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cuadernito.cuadernito_back.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opciones del test de carga en formato --clave=valor. Todas tienen un valor por defecto pensado para una
+ * corrida corta en una máquina de desarrollo.
+ */
+record LoadTestOptions(
+        double rate,
+        int durationSeconds,
+        int warmupSeconds,
+        int shops,
+        double fiadoRatio,
+        Map<Operation, Integer> mix,
+        int maxInFlight,
+        long seed,
+        String out
+) {
+
+    private static final String DEFAULT_MIX = "create=30,list=40,pay=10,categories=20";
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (se espera --clave=valor)");
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                Double.parseDouble(values.getOrDefault("rate", "100")),
+                Integer.parseInt(values.getOrDefault("duration", "60")),
+                Integer.parseInt(values.getOrDefault("warmup", "10")),
+                Integer.parseInt(values.getOrDefault("shops", "20")),
+                Double.parseDouble(values.getOrDefault("fiado-ratio", "0.3")),
+                parseMix(values.getOrDefault("mix", DEFAULT_MIX)),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "5000")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.getOrDefault("out", "load-report")
+        );
+        values.keySet().removeAll(Set.of("rate", "duration", "warmup", "shops", "fiado-ratio", "mix",
+                "max-in-flight", "seed", "out"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Opciones desconocidas: " + values.keySet());
+        }
+        if (options.rate <= 0 || options.durationSeconds <= 0 || options.shops <= 0) {
+            throw new IllegalArgumentException("rate, duration y shops deben ser mayores que cero");
+        }
+        return options;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mezcla inválida: " + mix);
+            }
+            weights.put(Operation.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("La mezcla debe tener algún peso positivo: " + mix);
+        }
+        return weights;
+    }
+}
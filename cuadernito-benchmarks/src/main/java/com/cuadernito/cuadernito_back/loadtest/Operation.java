@@ -0,0 +1,38 @@
+package com.cuadernito.cuadernito_back.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Llamadas de la mezcla de carga. Las ventas fiadas se informan aparte porque además hacen el upsert
+ * de la deuda y escriben el ledger.
+ */
+enum Operation {
+    CREATE("create", "POST /api/v1/transactions"),
+    CREATE_FIADO("create-fiado", "POST /api/v1/transactions (fiado)"),
+    LIST("list", "GET /api/v1/transactions"),
+    PAY("pay", "POST /api/v1/customer-debts/{id}/payments"),
+    CATEGORIES("categories", "GET /api/v1/categories");
+
+    private final String key;
+    private final String label;
+
+    Operation(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    String key() {
+        return key;
+    }
+
+    String label() {
+        return label;
+    }
+
+    static Operation fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(operation -> operation.key.equals(key))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operación desconocida en la mezcla: " + key));
+    }
+}
@@ -0,0 +1,99 @@
+package com.cuadernito.cuadernito_back.mapper;
+
+import com.cuadernito.cuadernito_back.dto.TransactionDTO;
+import com.cuadernito.cuadernito_back.entity.Category;
+import com.cuadernito.cuadernito_back.entity.CustomerDebt;
+import com.cuadernito.cuadernito_back.entity.Transaction;
+import com.cuadernito.cuadernito_back.entity.TransactionItem;
+import com.cuadernito.cuadernito_back.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionMapper.toDTO sobre listas grandes de entidades ya cargadas, con tres ítems por transacción
+ * y una de cada cuatro fiada. No usa Spring: el mapper generado se arma a mano.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionMapperBenchmark {
+
+    private static final int ITEMS_PER_TRANSACTION = 3;
+
+    @Param({"1000", "10000"})
+    private int size;
+
+    private TransactionMapper mapper;
+
+    private List<Transaction> transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mapper = new TransactionMapperImpl();
+        ReflectionTestUtils.setField(mapper, "transactionItemMapper", new TransactionItemMapperImpl());
+
+        User user = User.builder().id(1L).build();
+        Category category = Category.builder().id(1L).name("Almacen").user(user).build();
+        CustomerDebt debt = CustomerDebt.builder()
+                .id(1L)
+                .customerFirstName("Ana")
+                .customerLastName("Paz")
+                .customerPhone("123")
+                .documentNumber("30111222")
+                .build();
+
+        transactions = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            boolean fiado = i % 4 == 0;
+            Transaction transaction = Transaction.builder()
+                    .id(i)
+                    .amount(BigDecimal.valueOf(ITEMS_PER_TRANSACTION))
+                    .description("venta " + i)
+                    .type(Transaction.TransactionType.INGRESO)
+                    .date(LocalDateTime.now())
+                    .user(user)
+                    .customerDebt(fiado ? debt : null)
+                    .debtAmount(fiado ? BigDecimal.valueOf(ITEMS_PER_TRANSACTION) : null)
+                    .createdAt(LocalDateTime.now())
+                    .build();
+            for (long j = 0; j < ITEMS_PER_TRANSACTION; j++) {
+                transaction.getItems().add(TransactionItem.builder()
+                        .id(i * ITEMS_PER_TRANSACTION + j)
+                        .transaction(transaction)
+                        .category(category)
+                        .amount(BigDecimal.ONE)
+                        .build());
+            }
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public List<TransactionDTO> toDTO() {
+        List<TransactionDTO> dtos = new ArrayList<>(transactions.size());
+        for (Transaction transaction : transactions) {
+            dtos.add(mapper.toDTO(transaction));
+        }
+        return dtos;
+    }
+}
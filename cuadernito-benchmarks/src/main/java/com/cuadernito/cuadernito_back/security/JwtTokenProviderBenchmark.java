@@ -0,0 +1,79 @@
+package com.cuadernito.cuadernito_back.security;
+
+import com.cuadernito.cuadernito_back.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtTokenProvider.validateToken y getUsernameFromToken sobre un conjunto rotativo de tokens. Con
+ * claimsCacheSize=0 cada llamada verifica la firma HMAC y parsea el token (la caché de Caffeine desaloja en
+ * segundo plano, por eso los tokens no se repiten seguidos); con la caché activa todos son aciertos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtTokenProviderBenchmark {
+
+    @Param({"0", "10000"})
+    private long claimsCacheSize;
+
+    private JwtTokenProvider tokenProvider;
+
+    private static final int TOKENS = 1024;
+
+    private String[] tokens;
+
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "cuadernito-benchmark-secret-key-de-al-menos-32-bytes");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", TimeUnit.HOURS.toMillis(1));
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpirationMs", TimeUnit.DAYS.toMillis(30));
+        ReflectionTestUtils.setField(tokenProvider, "claimsCacheMaxSize", claimsCacheSize);
+        tokenProvider.init();
+
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = tokenProvider.generateAccessToken(AuthenticatedUser.from(User.builder()
+                    .id((long) i)
+                    .email("bench-" + i + "@cuadernito.com")
+                    .password("x")
+                    .role(User.Role.ROLE_USER)
+                    .enabled(true)
+                    .build()));
+        }
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return tokenProvider.validateToken(nextToken());
+    }
+
+    @Benchmark
+    public String getUsernameFromToken() {
+        return tokenProvider.getUsernameFromToken(nextToken());
+    }
+
+    private String nextToken() {
+        next = (next + 1) & (TOKENS - 1);
+        return tokens[next];
+    }
+}
@@ -0,0 +1,115 @@
+package com.cuadernito.cuadernito_back.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Costo del throttle de login en el camino que admite el intento, que es el de todo login normal: un
+ * TokenBucket.tryConsume suelto y LoginThrottle.checkAttempt completo (lookup en Caffeine más un CAS por bucket).
+ * Los buckets tienen capacidad de sobra para que nunca rechacen. Los "contended" corren {@value #CONTENDED_THREADS}
+ * hilos sobre el mismo bucket o la misma IP, como muchos usuarios detrás de un NAT; "distinctKeys" usa una IP y un
+ * email por hilo. Con pocos núcleos los hilos se turnan y la contención del CAS casi no aparece.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginThrottleBenchmark {
+
+    static final int CONTENDED_THREADS = 4;
+
+    private static final int CAPACITY = Integer.MAX_VALUE;
+    private static final long REFILL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final String SHARED_IP = "10.0.0.1";
+    private static final String SHARED_EMAIL = "ana@cuadernito.com";
+
+    private TokenBucket sharedBucket;
+
+    private LoginThrottle throttle;
+
+    private final AtomicInteger threadIds = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sharedBucket = new TokenBucket(CAPACITY, REFILL_NANOS, System.nanoTime());
+
+        throttle = new LoginThrottle();
+        ReflectionTestUtils.setField(throttle, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(throttle, "enabled", true);
+        ReflectionTestUtils.setField(throttle, "emailCapacity", CAPACITY);
+        ReflectionTestUtils.setField(throttle, "emailRefillSeconds", 1L);
+        ReflectionTestUtils.setField(throttle, "ipCapacity", CAPACITY);
+        ReflectionTestUtils.setField(throttle, "ipRefillSeconds", 1L);
+        ReflectionTestUtils.setField(throttle, "maxKeys", 100_000L);
+        ReflectionTestUtils.setField(throttle, "idleEvictionSeconds", 900L);
+        throttle.init();
+    }
+
+    /**
+     * Bucket y claves propios de cada hilo.
+     */
+    @State(Scope.Thread)
+    public static class ThreadKeys {
+
+        private TokenBucket bucket;
+
+        private String ip;
+
+        private String email;
+
+        @Setup(Level.Trial)
+        public void setUp(LoginThrottleBenchmark benchmark) {
+            int id = benchmark.threadIds.incrementAndGet();
+            bucket = new TokenBucket(CAPACITY, REFILL_NANOS, System.nanoTime());
+            ip = "10.1.0." + id;
+            email = "usuario-" + id + "@cuadernito.com";
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean tryConsumeUncontended(ThreadKeys keys) {
+        return keys.bucket.tryConsume(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public boolean tryConsumeContended() {
+        return sharedBucket.tryConsume(System.nanoTime());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void checkAttemptUncontended(ThreadKeys keys) {
+        throttle.checkAttempt(keys.email, keys.ip);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public void checkAttemptSharedKeysContended() {
+        throttle.checkAttempt(SHARED_EMAIL, SHARED_IP);
+    }
+
+    @Benchmark
+    @Threads(CONTENDED_THREADS)
+    public void checkAttemptDistinctKeys(ThreadKeys keys) {
+        throttle.checkAttempt(keys.email, keys.ip);
+    }
+}
@@ -0,0 +1,48 @@
+package com.cuadernito.cuadernito_back.service.impl;
+
+import com.cuadernito.cuadernito_back.exception.BadRequestException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validación del número de documento en TransactionServiceImpl (se ejecuta en cada venta fiada y en cada
+ * fila fiada de la importación). Incluye un documento inválido para medir también el camino de la excepción.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentNumberValidationBenchmark {
+
+    @Param({"30111222", " 30111222 ", "20301112229", "30.111.222"})
+    private String documentNumber;
+
+    private TransactionServiceImpl transactionService;
+
+    @Setup
+    public void setUp() {
+        transactionService = new TransactionServiceImpl();
+    }
+
+    @Benchmark
+    public Object validateDocumentNumber() {
+        try {
+            return transactionService.validateDocumentNumber(documentNumber);
+        } catch (BadRequestException e) {
+            return e;
+        }
+    }
+}